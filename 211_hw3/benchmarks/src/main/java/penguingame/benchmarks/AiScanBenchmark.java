@@ -0,0 +1,65 @@
+package penguingame.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.ai.HeuristicStrategy;
+import penguingame.enums.Direction;
+import penguingame.enums.TerrainBackend;
+import penguingame.game.GameController;
+import penguingame.objects.penguins.Penguin;
+
+/**
+ * The scans of the built-in AI (HeuristicStrategy) on generated boards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiScanBenchmark {
+
+    @Param({ "SMALL", "LARGE", "DENSE", "SPARSE" })
+    public BoardShape shape;
+
+    @Param({ "GRID", "BITBOARD", "SPARSE" })
+    public TerrainBackend backend;
+
+    private GameController game;
+    private Penguin penguin;
+    private int cell; // square of the penguin
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = shape.generate(backend, 42);
+        penguin = game.getPenguins().get(0);
+        cell = game.getTerrain().cellOf(penguin.getPosition());
+    }
+
+    @Benchmark
+    public List<Direction> directionsToFood() {
+        return HeuristicStrategy.directionsToFood(game.getTerrain(), cell);
+    }
+
+    @Benchmark
+    public List<Direction> directionsToHazards() {
+        return HeuristicStrategy.directionsToHazards(game.getTerrain(), cell, true);
+    }
+
+    @Benchmark
+    public Direction safeDirectionForRoyal() {
+        return HeuristicStrategy.safeDirectionForRoyal(game, penguin);
+    }
+}
@@ -0,0 +1,85 @@
+package penguingame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.enums.Direction;
+import penguingame.enums.TerrainBackend;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.GameResult;
+import penguingame.objects.hazards.HeavyIceBlock;
+import penguingame.objects.penguins.KingPenguin;
+import penguingame.objects.penguins.Penguin;
+import penguingame.simulation.GameSimulator;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * How slide cost, board generation and whole games grow with the size of the board, for every terrain backend.
+ *
+ * slide moves a penguin across a whole row between two heavy ice blocks, back and forth, so every slide crosses
+ * size - 3 empty squares. generate and game use the default object counts on a size x size board.
+ * The retained heap of the boards is measured by penguingame.benchmark.BoardMemoryBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardScalingBenchmark {
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int size;
+
+    @Param({ "GRID", "BITBOARD", "SPARSE" })
+    public TerrainBackend backend;
+
+    private IcyTerrain terrain;
+    private Penguin penguin;
+    private GameConfig config;
+    private int slides;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // the row in the middle of the board: heavy ice blocks at both ends and a penguin next to the first one
+        terrain = new IcyTerrain(size, size, backend);
+        int row = size / 2;
+        terrain.addObject(new HeavyIceBlock(), terrain.cellOf(row, 0));
+        terrain.addObject(new HeavyIceBlock(), terrain.cellOf(row, size - 1));
+        penguin = new KingPenguin("P1");
+        terrain.addObject(penguin, terrain.cellOf(row, 1));
+        config = GameConfig.defaults().withBoardSize(size, size).withBackend(backend);
+    }
+
+    @Benchmark
+    public long slide() {
+        terrain.slide(penguin, (slides++ & 1) == 0 ? Direction.RIGHT : Direction.LEFT);
+        return terrain.getHash();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GameController generate() {
+        GameController game = new GameController(config, seed++); // a new board every time
+        game.getPlayerIndex(); // generates the board
+        return game;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GameResult game() {
+        return GameSimulator.run(seed++, config);
+    }
+}
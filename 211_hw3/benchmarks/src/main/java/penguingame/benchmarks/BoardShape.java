@@ -0,0 +1,36 @@
+package penguingame.benchmarks;
+
+import penguingame.enums.TerrainBackend;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+
+// generated boards the benchmarks run on
+public enum BoardShape {
+    SMALL(10, 10, 15, 20),           // the default game
+    LARGE(200, 200, 6_000, 8_000),   // default density (15% hazards, 20% food) on a large board
+    DENSE(30, 30, 360, 360),         // 80% of the squares taken
+    SPARSE(200, 200, 40, 40);        // a large board that is almost empty
+
+    private final int rows;
+    private final int cols;
+    private final int hazards;
+    private final int food;
+
+    BoardShape(int rows, int cols, int hazards, int food) {
+        this.rows = rows;
+        this.cols = cols;
+        this.hazards = hazards;
+        this.food = food;
+    }
+
+    public GameConfig config(TerrainBackend backend) {
+        return GameConfig.of(rows, cols, 3, hazards, food, 4, backend);
+    }
+
+    // a generated game with the given seed, the board is created before it is returned
+    public GameController generate(TerrainBackend backend, long seed) {
+        GameController game = new GameController(config(backend), seed);
+        game.getPlayerIndex(); // generates the board
+        return game;
+    }
+}
@@ -0,0 +1,84 @@
+package penguingame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.enums.Direction;
+import penguingame.enums.TerrainBackend;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.hazards.LightIceBlock;
+import penguingame.objects.hazards.SeaLion;
+import penguingame.objects.penguins.KingPenguin;
+import penguingame.objects.penguins.Penguin;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * Pathological chain reactions: a penguin slides into a row of sliding hazards with one free square
+ * between them, so every hazard pushes the next one and the last one falls off the terrain.
+ *
+ *   P . H . H . H . ... H .
+ *
+ * Light ice blocks push anything they hit, sea lions are pushed by penguins and light ice blocks,
+ * so all three rows chain to the end. Every invocation is undone.
+ * The longest rows chain thousands of slides, which the terrain plays without recursion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChainReactionBenchmark {
+
+    public enum Chain { LIGHT_ICE_BLOCKS, ALTERNATING, SEA_LION_FIRST }
+
+    @Param({ "LIGHT_ICE_BLOCKS", "ALTERNATING", "SEA_LION_FIRST" })
+    public Chain chain;
+
+    @Param({ "8", "64", "256", "4096" })
+    public int length;
+
+    @Param({ "GRID", "BITBOARD", "SPARSE" })
+    public TerrainBackend backend;
+
+    private IcyTerrain terrain;
+    private Penguin penguin;
+    private int mark;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        terrain = new IcyTerrain(3, 2 * length + 2, backend);
+        penguin = new KingPenguin("P1");
+        terrain.addObject(penguin, terrain.positionAt(1, 0));
+        for (int i = 0; i < length; i++) {
+            terrain.addObject(hazard(i), terrain.positionAt(1, 2 + 2 * i));
+        }
+        mark = terrain.mark();
+    }
+
+    private ITerrainObject hazard(int i) {
+        switch (chain) {
+            case LIGHT_ICE_BLOCKS: return new LightIceBlock();
+            case ALTERNATING: return i % 2 == 0 ? new LightIceBlock() : new SeaLion();
+            default: return i % 2 == 0 ? new SeaLion() : new LightIceBlock(); // the penguin bounces back
+        }
+    }
+
+    @Benchmark
+    public long chainReaction() {
+        terrain.slide(penguin, Direction.RIGHT);
+        long hash = terrain.getHash();
+        terrain.undo(mark);
+        return hash;
+    }
+}
@@ -0,0 +1,88 @@
+package penguingame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.enums.Direction;
+import penguingame.enums.FoodType;
+import penguingame.enums.TerrainBackend;
+import penguingame.objects.IHazard;
+import penguingame.objects.food.Food;
+import penguingame.objects.hazards.HeavyIceBlock;
+import penguingame.objects.hazards.HoleInIce;
+import penguingame.objects.hazards.LightIceBlock;
+import penguingame.objects.hazards.SeaLion;
+import penguingame.objects.penguins.KingPenguin;
+import penguingame.objects.penguins.Penguin;
+import penguingame.terrain.CollisionResult;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * IHazard.handleCollision of every hazard, called directly and through a full slide into the hazard.
+ *
+ * Row 5 of a 10x10 board: a penguin carrying two food items at column 0 and the hazard at column 3.
+ * Every invocation is undone, so each one sees the same board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    public enum Hazard { LIGHT_ICE_BLOCK, HEAVY_ICE_BLOCK, SEA_LION, HOLE_IN_ICE }
+
+    @Param({ "LIGHT_ICE_BLOCK", "HEAVY_ICE_BLOCK", "SEA_LION", "HOLE_IN_ICE" })
+    public Hazard hazardKind;
+
+    @Param({ "GRID", "BITBOARD", "SPARSE" })
+    public TerrainBackend backend;
+
+    private IcyTerrain terrain;
+    private Penguin penguin;
+    private IHazard hazard;
+    private int mark;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        terrain = new IcyTerrain(10, 10, backend);
+        penguin = new KingPenguin("P1");
+        penguin.collectFood(new Food(FoodType.SQUID, 4));
+        penguin.collectFood(new Food(FoodType.KRILL, 1)); // the heavy block takes the lightest one
+        terrain.addObject(penguin, terrain.positionAt(5, 0));
+        switch (hazardKind) {
+            case LIGHT_ICE_BLOCK: hazard = new LightIceBlock(); break;
+            case HEAVY_ICE_BLOCK: hazard = new HeavyIceBlock(); break;
+            case SEA_LION: hazard = new SeaLion(); break;
+            default: hazard = new HoleInIce();
+        }
+        terrain.addObject(hazard, terrain.positionAt(5, 3));
+        mark = terrain.mark();
+    }
+
+    @Benchmark
+    public CollisionResult handleCollision() {
+        CollisionResult result = hazard.handleCollision(penguin, terrain, Direction.RIGHT);
+        terrain.undo(mark);
+        return result;
+    }
+
+    @Benchmark
+    public long slideInto() {
+        terrain.slide(penguin, Direction.RIGHT);
+        long hash = terrain.getHash();
+        terrain.undo(mark);
+        return hash;
+    }
+}
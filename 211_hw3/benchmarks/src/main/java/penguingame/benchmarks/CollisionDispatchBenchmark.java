@@ -0,0 +1,89 @@
+package penguingame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.enums.Direction;
+import penguingame.enums.FoodType;
+import penguingame.enums.TerrainBackend;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.food.Food;
+import penguingame.objects.hazards.HeavyIceBlock;
+import penguingame.objects.hazards.HoleInIce;
+import penguingame.objects.hazards.LightIceBlock;
+import penguingame.objects.hazards.SeaLion;
+import penguingame.objects.penguins.EmperorPenguin;
+import penguingame.objects.penguins.KingPenguin;
+import penguingame.objects.penguins.RockhopperPenguin;
+import penguingame.objects.penguins.RoyalPenguin;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * Collisions of every slider kind with every blocker kind in one run, so the collision code sees all types
+ * like it does in a real game (the other benchmarks see one hazard per fork).
+ *
+ * Every row of the board holds one pairing: the slider at column 0 and the blocker at column 3.
+ * An invocation slides the slider of every row to the right, then undoes everything.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionDispatchBenchmark {
+
+    @Param({ "GRID", "BITBOARD", "SPARSE" })
+    public TerrainBackend backend;
+
+    private IcyTerrain terrain;
+    private ITerrainObject[] sliders;
+    private int mark;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ITerrainObject[][] pairs = {
+            { new KingPenguin("P1"), new LightIceBlock() },
+            { new RoyalPenguin("P2"), new HeavyIceBlock() },
+            { new EmperorPenguin("P3"), new SeaLion() },
+            { new RockhopperPenguin("P4"), new HoleInIce() },
+            { new KingPenguin("P5"), new Food(FoodType.SQUID, 4) },
+            { new EmperorPenguin("P6"), new RoyalPenguin("P7") },
+            { new LightIceBlock(), new LightIceBlock() },
+            { new LightIceBlock(), new SeaLion() },
+            { new LightIceBlock(), new HeavyIceBlock() },
+            { new LightIceBlock(), new Food(FoodType.KRILL, 1) },
+            { new SeaLion(), new HoleInIce() },
+            { new SeaLion(), new KingPenguin("P8") },
+            { new SeaLion(), new SeaLion() },
+        };
+        terrain = new IcyTerrain(pairs.length, 8, backend);
+        sliders = new ITerrainObject[pairs.length];
+        for (int row = 0; row < pairs.length; row++) {
+            sliders[row] = pairs[row][0];
+            terrain.addObject(pairs[row][0], terrain.positionAt(row, 0));
+            terrain.addObject(pairs[row][1], terrain.positionAt(row, 3));
+        }
+        mark = terrain.mark();
+    }
+
+    @Benchmark
+    public long mixedCollisions() {
+        for (ITerrainObject slider : sliders) {
+            terrain.slide(slider, Direction.RIGHT);
+        }
+        long hash = terrain.getHash();
+        terrain.undo(mark);
+        return hash;
+    }
+}
@@ -0,0 +1,77 @@
+package penguingame.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.enums.TerrainBackend;
+import penguingame.render.AnsiDeltaRenderer;
+import penguingame.render.BufferedGridRenderer;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * IcyTerrain.displayGrid and the grid renderers on generated boards. Output goes to a discarding stream,
+ * so the time is spent building and printing the grid, not in the terminal.
+ * ansiDelta draws a frame without changes, which is the scan for changed squares alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisplayBenchmark {
+
+    @Param({ "SMALL", "LARGE", "DENSE", "SPARSE" })
+    public BoardShape shape;
+
+    @Param({ "GRID", "BITBOARD", "SPARSE" })
+    public TerrainBackend backend;
+
+    private IcyTerrain terrain;
+    private PrintStream originalOut;
+    private BufferedGridRenderer buffered;
+    private AnsiDeltaRenderer ansi;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        terrain = shape.generate(backend, 42).getTerrain();
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        buffered = new BufferedGridRenderer(System.out);
+        ansi = new AnsiDeltaRenderer(System.out);
+        ansi.render(terrain); // the first frame is drawn in full
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void displayGrid() {
+        terrain.displayGrid();
+    }
+
+    @Benchmark
+    public void bufferedRenderer() {
+        buffered.render(terrain);
+    }
+
+    @Benchmark
+    public void ansiDelta() {
+        ansi.render(terrain);
+    }
+}
@@ -0,0 +1,66 @@
+package penguingame.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.enums.FoodType;
+import penguingame.objects.food.Food;
+import penguingame.objects.penguins.KingPenguin;
+import penguingame.objects.penguins.Penguin;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * The food of a penguin that carries many items: the total weight (read by the scoreboard, the hash and the solver)
+ * and losing the lightest item to a heavy ice block, undone with the terrain's undo log.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoodInventoryBenchmark {
+
+    @Param({ "16", "1024", "65536" })
+    public int items;
+
+    private IcyTerrain terrain;
+    private Penguin penguin;
+    private int mark;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        terrain = new IcyTerrain(10, 10);
+        penguin = new KingPenguin("P1");
+        terrain.addObject(penguin, terrain.positionAt(0, 0));
+        FoodType[] types = FoodType.values();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < items; i++) {
+            penguin.collectFood(new Food(types[random.nextInt(types.length)], 1 + random.nextInt(5)));
+        }
+        mark = terrain.mark();
+    }
+
+    @Benchmark
+    public int totalWeight() {
+        return penguin.getTotalFoodWeight();
+    }
+
+    @Benchmark
+    public Food removeLightestFood() {
+        Food lost = penguin.removeLightestFood();
+        terrain.undo(mark);
+        return lost;
+    }
+}
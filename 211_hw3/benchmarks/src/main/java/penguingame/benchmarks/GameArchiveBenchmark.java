@@ -0,0 +1,122 @@
+package penguingame.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.archive.GameArchive;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.GameState;
+
+/**
+ * A GameArchive of the positions of many headless games: appending a position (without playing the game)
+ * and reading a random one back by its offset.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameArchiveBenchmark {
+    private static final int STATES = 1 << 12; // positions appended in turn, a power of two
+    private static final int READS = 1 << 16;  // random offsets read in turn, a power of two
+
+    // positions in the archive that is read
+    @Param({ "10000", "1000000" })
+    public int positions;
+
+    private Path file;
+    private GameArchive archive;
+    private long[] offsets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("positions", ".archive");
+        archive = GameArchive.open(file);
+        long[] stored = new long[positions];
+        int count = 0;
+        for (long seed = 0; count < positions; seed++) {
+            GameController game = new GameController(GameConfig.defaults(), seed);
+            while (count < positions) {
+                stored[count++] = archive.append(game.snapshot());
+                if (game.isFinished()) {
+                    break;
+                }
+                game.playStep();
+            }
+        }
+        SplittableRandom random = new SplittableRandom(1);
+        offsets = new long[READS];
+        for (int i = 0; i < READS; i++) {
+            offsets[i] = stored[random.nextInt(positions)];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        archive.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public GameState read() {
+        return archive.read(offsets[next++ & (READS - 1)]);
+    }
+
+    @Benchmark
+    public long append(Appended appended) throws IOException {
+        return appended.archive.append(appended.states[appended.next++ & (STATES - 1)]);
+    }
+
+    /**
+     * A new archive for every iteration, so the appends of the whole run do not pile up in one file.
+     */
+    @State(Scope.Thread)
+    public static class Appended {
+        private final GameState[] states = new GameState[STATES];
+        private Path file;
+        private GameArchive archive;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUpStates() {
+            int count = 0;
+            for (long seed = 0; count < STATES; seed++) {
+                GameController game = new GameController(GameConfig.defaults(), seed);
+                while (count < STATES && !game.isFinished()) {
+                    states[count++] = game.snapshot();
+                    game.playStep();
+                }
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            file = Files.createTempFile("appended", ".archive");
+            archive = GameArchive.open(file);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            archive.close();
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package penguingame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.enums.Direction;
+import penguingame.enums.TerrainBackend;
+import penguingame.game.GameController;
+import penguingame.objects.penguins.Penguin;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * IcyTerrain.slide, slideWithStop and moveOneSquare of a penguin on generated boards.
+ * Every invocation moves the first penguin in the next direction (all four in turn) and undoes the move,
+ * so the board never changes; the undo is part of the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementBenchmark {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Param({ "SMALL", "LARGE", "DENSE", "SPARSE" })
+    public BoardShape shape;
+
+    @Param({ "GRID", "BITBOARD", "SPARSE" })
+    public TerrainBackend backend;
+
+    private IcyTerrain terrain;
+    private Penguin penguin;
+    private int mark;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameController game = shape.generate(backend, 42);
+        terrain = game.getTerrain();
+        penguin = game.getPenguins().get(0);
+        mark = terrain.mark();
+    }
+
+    private Direction nextDirection() {
+        return DIRECTIONS[next++ & 3];
+    }
+
+    @Benchmark
+    public long slide() {
+        terrain.slide(penguin, nextDirection());
+        long hash = terrain.getHash();
+        terrain.undo(mark);
+        return hash;
+    }
+
+    @Benchmark
+    public long slideWithStop() {
+        terrain.slideWithStop(penguin, nextDirection(), 3);
+        long hash = terrain.getHash();
+        terrain.undo(mark);
+        return hash;
+    }
+
+    @Benchmark
+    public long moveOneSquare() {
+        terrain.moveOneSquare(penguin, nextDirection());
+        long hash = terrain.getHash();
+        terrain.undo(mark);
+        return hash;
+    }
+}
@@ -0,0 +1,74 @@
+package penguingame.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.ReplayFile;
+import penguingame.game.ReplayRecorder;
+
+/**
+ * Seeks to random steps of a long headless game recorded with different keyframe intervals.
+ * An interval as long as the game gives a file with a single keyframe, where every seek plays the game from the start.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplaySeekBenchmark {
+    private static final int TURNS = 20_000;
+    private static final long SEED = 1;
+    private static final int TARGETS = 1 << 12; // random steps sought in turn, a power of two
+
+    @Param({ "1", "10", "100", "1000", "20000" })
+    public int keyframeTurns;
+
+    private Path file;
+    private ReplayFile replay;
+    private int[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("seek", ".replay");
+        try (ReplayRecorder recorder = new ReplayRecorder(file, keyframeTurns)) {
+            GameController game = new GameController(GameConfig.defaults().withTurns(TURNS), SEED);
+            game.setRecorder(recorder);
+            game.playGame();
+        }
+        replay = ReplayFile.open(file);
+        SplittableRandom random = new SplittableRandom(2);
+        targets = new int[TARGETS];
+        for (int i = 0; i < TARGETS; i++) {
+            targets[i] = random.nextInt(replay.getFirstStep(), replay.getLastStep() + 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public GameController seek() {
+        return replay.seek(targets[next++ & (TARGETS - 1)]);
+    }
+}
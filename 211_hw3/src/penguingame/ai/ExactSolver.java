@@ -0,0 +1,317 @@
+package penguingame.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import penguingame.enums.OpponentModel;
+import penguingame.game.GameController;
+import penguingame.game.GameState;
+import penguingame.game.Move;
+import penguingame.objects.penguins.Penguin;
+import penguingame.util.TranspositionTable;
+import penguingame.util.Zobrist;
+
+/**
+ * Computes the most food weight one penguin can collect from a game state until the end of the game.
+ *
+ * The other penguins are modeled by an OpponentModel:
+ * HEURISTIC lets them play the built-in AI, with the random stream restarted from (seed, step) before each
+ * of their turns, so they always play the same way in the same state. The result is then the best plan against
+ * exactly those opponents. ADVERSARIAL lets them choose the move that is worst for the solved penguin,
+ * the result is the weight the penguin can collect whatever the others do.
+ *
+ * The search is a depth-first alpha-beta search over all moves (direction plus special action) on one game,
+ * trying moves with GameController.applyMove and rolling them back with the undo log.
+ * Exact values are memoized in a TranspositionTable by the hash of the game state, moves that lead
+ * to the same state are searched once, and a branch is cut as soon as its upper bound (the weight collected
+ * so far plus all food left on the board) cannot beat the best score found so far.
+ * The first decisions are split into fork/join tasks that search copies of the game in parallel;
+ * the tasks share the table and the best score.
+ */
+public class ExactSolver implements AutoCloseable {
+    private static final int INFINITY = 1_000_000;
+    private static final int SPLIT_DECISIONS = 2; // decisions near the root that are searched in parallel
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final OpponentModel opponents;
+    private final long seed;
+    private final int tableCapacity;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a solver. The seed fixes the random numbers of HEURISTIC opponents,
+     * threads is the parallelism of the fork/join pool.
+     */
+    public ExactSolver(OpponentModel opponents, long seed, int threads) {
+        this(opponents, seed, threads, 1 << 20);
+    }
+
+    public ExactSolver(OpponentModel opponents, long seed, int threads, int tableCapacity) {
+        if (opponents == null) {
+            throw new IllegalArgumentException("Opponent model must not be null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        }
+        this.opponents = opponents;
+        this.seed = seed;
+        this.tableCapacity = tableCapacity;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    public OpponentModel getOpponents() { return opponents; }
+
+    // solves the game for the player's penguin from its current state, the game is not changed
+    public SolverResult solve(GameController game) {
+        return solve(game.snapshot(), game.getPlayerIndex());
+    }
+
+    // solves the state for the penguin with the given index (in playing order)
+    public SolverResult solve(GameState state, int penguinIndex) {
+        if (penguinIndex < 0 || penguinIndex >= state.getPenguinCount()) {
+            throw new IllegalArgumentException("No penguin with index " + penguinIndex);
+        }
+        SolveContext context = new SolveContext(state, penguinIndex);
+        long start = System.nanoTime();
+        int value = pool.invoke(new SearchTask(context, state, SPLIT_DECISIONS));
+        if (opponents == OpponentModel.HEURISTIC) {
+            value = Math.max(value, context.best.get()); // branches that could not beat the best score were cut
+        }
+        long elapsed = System.nanoTime() - start;
+        List<Move> plan = context.plan(value);
+        return new SolverResult(opponents, value, plan, context.nodes.sum(), elapsed,
+                context.table.getHits(), context.table.getStores());
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // everything the tasks of one solve share
+    private final class SolveContext {
+        final GameState root;
+        final int me;
+        final int rootBoardFood;
+        final int rootTotalWeight;
+        final TranspositionTable table = new TranspositionTable(tableCapacity);
+        final AtomicInteger best = new AtomicInteger(-1); // best score reached at a leaf (HEURISTIC only)
+        final LongAdder nodes = new LongAdder();
+
+        SolveContext(GameState root, int me) {
+            this.root = root;
+            this.me = me;
+            this.rootBoardFood = root.getFoodWeightOnBoard();
+            int total = 0;
+            for (int i = 0; i < root.getPenguinCount(); i++) {
+                total += root.getTotalWeight(i);
+            }
+            this.rootTotalWeight = total;
+        }
+
+        /**
+         * The moves of the solved penguin along an optimal line, the opponents playing as modeled.
+         * Searched again without the shared best score, so every value compared here is exact.
+         */
+        List<Move> plan(int value) {
+            Worker worker = new Worker(this, root, false);
+            GameController game = worker.game;
+            List<Move> plan = new ArrayList<>();
+            while (!game.isFinished() && !worker.penguin.isRemoved()) {
+                Move chosen = null;
+                if (worker.isDecision()) {
+                    // the solved penguin keeps the value, an adversary holds it to the value
+                    int step = game.getStep();
+                    int mark = game.mark();
+                    int moves = game.getCurrentPenguin().isSpecialActionUsed() ? 2 : 1;
+                    for (int move = 0; move < Move.COUNT && chosen == null; move += moves) {
+                        game.applyMove(Move.byIndex(move));
+                        if (worker.search(-INFINITY, INFINITY, 0) == value) {
+                            chosen = Move.byIndex(move);
+                        }
+                        game.undoTo(mark, step);
+                    }
+                    if (chosen == null) {
+                        throw new IllegalStateException("No move reaches the solved value " + value);
+                    }
+                    if (game.getCurrentPenguinIndex() == me) {
+                        plan.add(chosen);
+                    }
+                }
+                worker.playStep(chosen);
+            }
+            return plan;
+        }
+    }
+
+    // searches a copy of a state, splitting the first decisions into parallel tasks
+    @SuppressWarnings("serial") // tasks are never serialized
+    private final class SearchTask extends RecursiveTask<Integer> {
+        private final SolveContext context;
+        private final GameState state;
+        private final int splitLeft;
+
+        SearchTask(SolveContext context, GameState state, int splitLeft) {
+            this.context = context;
+            this.state = state;
+            this.splitLeft = splitLeft;
+        }
+
+        @Override
+        protected Integer compute() {
+            Worker worker = new Worker(context, state, true);
+            GameController game = worker.game;
+            // forced steps (and HEURISTIC opponents) have one outcome, play them on the private copy
+            while (!game.isFinished() && !worker.penguin.isRemoved() && !worker.isDecision()) {
+                context.nodes.increment();
+                worker.playStep(null);
+            }
+            if (splitLeft == 0 || game.isFinished() || worker.penguin.isRemoved()) {
+                return worker.search(-INFINITY, INFINITY, 0);
+            }
+
+            // one task per distinct resulting state
+            context.nodes.increment();
+            boolean mine = game.getCurrentPenguinIndex() == context.me;
+            int step = game.getStep();
+            int mark = game.mark();
+            int moves = game.getCurrentPenguin().isSpecialActionUsed() ? 2 : 1;
+            List<Long> seen = new ArrayList<>();
+            List<SearchTask> tasks = new ArrayList<>();
+            for (int move = 0; move < Move.COUNT; move += moves) {
+                game.applyMove(Move.byIndex(move));
+                if (!seen.contains(game.hash())) {
+                    seen.add(game.hash());
+                    tasks.add(new SearchTask(context, game.snapshot(), splitLeft - 1));
+                }
+                game.undoTo(mark, step);
+            }
+            int value = mine ? -INFINITY : INFINITY;
+            for (SearchTask task : invokeAll(tasks)) {
+                value = mine ? Math.max(value, task.join()) : Math.min(value, task.join());
+            }
+            return value;
+        }
+    }
+
+    // sequential search on one private copy of the game
+    private final class Worker {
+        final SolveContext context;
+        final GameController game;
+        final Penguin penguin;
+        final boolean useBest;      // cut against the shared best score (HEURISTIC only)
+        final long[][] childHashes; // per depth, the states reached by the moves tried so far
+
+        Worker(SolveContext context, GameState state, boolean useBest) {
+            this.context = context;
+            this.game = GameController.fromState(state, seed);
+            this.penguin = game.getPenguins().get(context.me);
+            this.useBest = useBest && opponents == OpponentModel.HEURISTIC;
+            int steps = state.getConfig().getTurns() * state.getPenguinCount();
+            this.childHashes = new long[steps + 1][Move.COUNT];
+        }
+
+        // true if the penguin to move chooses among moves, false if its step is forced or played by the built-in AI
+        boolean isDecision() {
+            Penguin current = game.getCurrentPenguin();
+            if (current.isRemoved() || current.isStunned()) {
+                return false;
+            }
+            return current == penguin || opponents == OpponentModel.ADVERSARIAL;
+        }
+
+        // plays one step: the given move, or the forced step / built-in AI if move is null
+        void playStep(Move move) {
+            if (move != null) {
+                game.applyMove(move);
+            } else if (game.getCurrentPenguin() == penguin) {
+                game.applyMove(Move.byIndex(0)); // stunned, the move is ignored
+            } else {
+                game.reseed(Zobrist.mix(seed + game.getStep() * GOLDEN_GAMMA));
+                game.playStep();
+            }
+        }
+
+        // the final weight of the solved penguin can never exceed this
+        int upperBound() {
+            int total = 0;
+            for (Penguin p : game.getPenguins()) {
+                total += p.getTotalFoodWeight();
+            }
+            // food collected since the root has left the board, lost food does not come back
+            return penguin.getTotalFoodWeight() + context.rootBoardFood - (total - context.rootTotalWeight);
+        }
+
+        /**
+         * Fail-soft alpha-beta: returns the exact value if it lies strictly between alpha and beta,
+         * otherwise a bound on that side of the window. Only exact values are memoized.
+         */
+        int search(int alpha, int beta, int depth) {
+            context.nodes.increment();
+            if (game.isFinished() || penguin.isRemoved()) {
+                int weight = penguin.getTotalFoodWeight();
+                if (opponents == OpponentModel.HEURISTIC) {
+                    context.best.accumulateAndGet(weight, Math::max); // reachable, no opponent can deviate
+                }
+                return weight;
+            }
+            long hash = game.hash();
+            double stored = context.table.get(hash, 0);
+            if (stored == stored) { // not NaN
+                return (int) stored;
+            }
+            if (useBest) {
+                alpha = Math.max(alpha, context.best.get());
+            }
+            int bound = upperBound();
+            if (bound <= alpha) {
+                return bound;
+            }
+            beta = Math.min(beta, bound);
+            int windowAlpha = alpha;
+            int windowBeta = beta;
+
+            int step = game.getStep();
+            int mark = game.mark();
+            int value;
+            if (!isDecision()) {
+                playStep(null);
+                value = search(alpha, beta, depth + 1);
+                game.undoTo(mark, step);
+            } else {
+                boolean mine = game.getCurrentPenguin() == penguin;
+                int moves = game.getCurrentPenguin().isSpecialActionUsed() ? 2 : 1;
+                long[] seen = childHashes[depth];
+                int seenCount = 0;
+                value = mine ? -INFINITY : INFINITY;
+                for (int move = 0; move < Move.COUNT && alpha < beta; move += moves) {
+                    game.applyMove(Move.byIndex(move));
+                    long childHash = game.hash();
+                    boolean duplicate = false;
+                    for (int i = 0; i < seenCount && !duplicate; i++) {
+                        duplicate = seen[i] == childHash;
+                    }
+                    if (!duplicate) {
+                        seen[seenCount++] = childHash;
+                        int childValue = search(alpha, beta, depth + 1);
+                        if (mine) {
+                            value = Math.max(value, childValue);
+                            alpha = Math.max(alpha, childValue);
+                        } else {
+                            value = Math.min(value, childValue);
+                            beta = Math.min(beta, childValue);
+                        }
+                    }
+                    game.undoTo(mark, step);
+                }
+            }
+            if (value > windowAlpha && value < windowBeta) {
+                context.table.put(hash, 0, value);
+            }
+            return value;
+        }
+    }
+}
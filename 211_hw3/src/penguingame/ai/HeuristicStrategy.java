@@ -0,0 +1,208 @@
+package penguingame.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import penguingame.enums.Direction;
+import penguingame.game.GameController;
+import penguingame.game.Move;
+import penguingame.objects.IHazard;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.food.Food;
+import penguingame.objects.hazards.HoleInIce;
+import penguingame.objects.penguins.Penguin;
+import penguingame.objects.penguins.RockhopperPenguin;
+import penguingame.objects.penguins.RoyalPenguin;
+import penguingame.terrain.IcyTerrain;
+import penguingame.util.Cells;
+
+/**
+ * The built-in AI of the game, the reference other strategies are measured against.
+ * Penguins without a strategy play it (see GameController.setStrategy).
+ *
+ * AI behavior:
+ * - Prioritizes moving toward food
+ * - Otherwise moves toward hazards (except HoleInIce)
+ * - Last resort: moves in any direction (even falling into water)
+ * A Rockhopper jumps when there is a hazard in the chosen direction, the other penguins use their special action
+ * with a 30% chance.
+ *
+ * The random numbers are drawn from the random stream of the game in the order the built-in AI always drew them,
+ * so a penguin with this strategy plays exactly like a penguin without one. Its moves are not a function of the
+ * game state alone (see isDeterministic). The strategy has no state and can be used by any number of games at once.
+ */
+public final class HeuristicStrategy implements PenguinStrategy {
+    public static final HeuristicStrategy INSTANCE = new HeuristicStrategy();
+
+    private static final double SPECIAL_CHANCE = 0.3;
+    private static final Direction[] DIRECTIONS = Direction.values(); // values() copies the array on every call
+
+    private HeuristicStrategy() { }
+
+    @Override
+    public Move chooseMove(GameController game) {
+        Penguin penguin = game.getCurrentPenguin();
+        IcyTerrain terrain = game.getTerrain();
+        int cell = terrain.cellOf(penguin.getPosition());
+        boolean useSpecial = false;
+
+        //chooses the best direction (Prioritizing Food)
+        Direction chosenDir = chooseDirection(game, cell);
+
+        // then checks if we need to use Special Action based on that choice
+        if (penguin instanceof RockhopperPenguin && !penguin.isSpecialActionUsed()) {
+            // If the path we want to take has a hazard, we MUST jump
+            useSpecial = directionsToHazards(terrain, cell, false).contains(chosenDir);
+        }
+        // Logic for other penguins (30% chance)
+        else if (!penguin.isSpecialActionUsed() && game.nextRandomDouble() < SPECIAL_CHANCE) {
+            useSpecial = true;
+            if (penguin instanceof RoyalPenguin) {
+                // The safe direction was only ever used in the narration, the Royal steps in the chosen direction.
+                // It is still drawn so games with the same seed stay the same.
+                safeDirectionForRoyal(game, penguin);
+            }
+        }
+        return Move.of(chosenDir, useSpecial);
+    }
+
+    // the moves depend on the random stream of the game
+    @Override
+    public boolean isDeterministic() {
+        return false;
+    }
+
+    /**
+     * Chooses the best direction for an AI penguin to move.
+     *
+     * Priorities
+     * 1. Directions that lead to food (highest priority)
+     * 2. Directions that lead to hazards (except HoleInIce)
+     * 3. Any random direction (last resort, even if it means falling)
+     */
+    private static Direction chooseDirection(GameController game, int cell) {
+        // Priority 1: Move toward food
+        List<Direction> foodDirs = directionsToFood(game.getTerrain(), cell);
+        if (!foodDirs.isEmpty()) {
+            return foodDirs.get(game.nextRandomInt(foodDirs.size()));
+        }
+
+        // Priority 2: Move toward hazards except HoleINIce
+        List<Direction> hazardDirs = directionsToHazards(game.getTerrain(), cell, true);
+        if (!hazardDirs.isEmpty()) {
+            return hazardDirs.get(game.nextRandomInt(hazardDirs.size()));
+        }
+
+        // Priority 3: Move in any random direction (last resort)
+        return DIRECTIONS[game.nextRandomInt(DIRECTIONS.length)];
+    }
+
+    /**
+     * Find all directions from a square that lead to food items.
+     * Scans in each direction until hitting the edge. A direction is listed once for every square
+     * with food on it, so directions with more food are picked more often.
+     */
+    public static List<Direction> directionsToFood(IcyTerrain terrain, int cell) {
+        List<Direction> directions = new ArrayList<>();
+
+        // Check each of the 4 directions
+        for (Direction dir : DIRECTIONS) {
+            int checkCell = terrain.neighbor(cell, dir);
+
+            // Slide along this direction until we hit the edge
+            while (checkCell != Cells.NONE) {
+                List<ITerrainObject> objects = terrain.getObjectsAt(checkCell);
+
+                // Check if there's food at this position
+                for (int i = 0; i < objects.size(); i++) {
+                    if (objects.get(i) instanceof Food) {
+                        directions.add(dir);
+                        break;  // Found food on this square, no need to check the other objects
+                    }
+                }
+
+                // Move to next square in this direction
+                checkCell = terrain.neighbor(checkCell, dir);
+            }
+        }
+
+        return directions;
+    }
+
+    /**
+     * Finds all directions from a square that lead to hazards, a direction is listed once for every square with a hazard.
+     * excludeHoleInIce: Whether to exclude HoleInIce from the search or not
+     */
+    public static List<Direction> directionsToHazards(IcyTerrain terrain, int cell, boolean excludeHoleInIce) {
+        List<Direction> directions = new ArrayList<>();
+
+        // Check each of the 4 directions
+        for (Direction dir : DIRECTIONS) {
+            int checkCell = terrain.neighbor(cell, dir);
+
+            // Slide along this direction until we hit the edge
+            while (checkCell != Cells.NONE) {
+                List<ITerrainObject> objects = terrain.getObjectsAt(checkCell);
+
+                // Check if there's a hazard at this position
+                for (int i = 0; i < objects.size(); i++) {
+                    ITerrainObject obj = objects.get(i);
+                    if (obj instanceof IHazard) {
+                        // Skip HoleInIce if requested so AI can avoid it
+                        if (excludeHoleInIce && obj instanceof HoleInIce) {
+                            continue;
+                        }
+
+                        directions.add(dir);
+                        break;  // Found hazard on this square
+                    }
+                }
+
+                checkCell = terrain.neighbor(checkCell, dir);
+            }
+        }
+
+        return directions;
+    }
+
+    /**
+     * Find a safe direction for Royal Penguin's single-step move, drawn from the random stream of the game.
+     * Safe means: not into a hazard, not into another penguin, and not off the edge.
+     * returns a safe direction, or null if no safe direction exists
+     */
+    public static Direction safeDirectionForRoyal(GameController game, Penguin penguin) {
+        IcyTerrain terrain = game.getTerrain();
+        //list of safe directions
+        List<Direction> safeDirs = new ArrayList<>();
+        int cell = terrain.cellOf(penguin.getPosition());
+
+        // Check each direction for safety
+        for (Direction dir : DIRECTIONS) {
+            int next = terrain.neighbor(cell, dir);
+
+            // Must be within bounds
+            if (next != Cells.NONE) {
+                List<ITerrainObject> objects = terrain.getObjectsAt(next);
+                boolean safe = true;
+
+                //Check if position contains a Hazard or a Penguin
+                for (int i = 0; i < objects.size(); i++) {
+                    ITerrainObject obj = objects.get(i);
+                    if (obj instanceof IHazard || obj instanceof Penguin) {
+                        safe = false;
+                        break;
+                    }
+                }
+
+                if (safe) {
+                    safeDirs.add(dir);
+                }
+            }
+        }
+
+        // Return a random safe direction, or null if none exist
+        if (safeDirs.isEmpty()) {
+            return null;
+        }
+        return safeDirs.get(game.nextRandomInt(safeDirs.size()));
+    }
+}
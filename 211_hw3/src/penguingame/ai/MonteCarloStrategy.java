@@ -0,0 +1,220 @@
+package penguingame.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import penguingame.game.GameController;
+import penguingame.game.GameState;
+import penguingame.game.Move;
+import penguingame.objects.penguins.Penguin;
+import penguingame.util.Zobrist;
+
+/**
+ * Open-loop Monte Carlo tree search over the moves of one penguin, within a time budget per move.
+ *
+ * The tree only holds the decisions of the searching penguin (direction plus special action), one level
+ * per remaining turn. Everything else is sampled: other penguins play the built-in AI with fresh random numbers
+ * in every iteration, and once an iteration leaves the tree the penguin itself plays the built-in AI too.
+ * The reward is the weight the penguin has collected when the game ends.
+ *
+ * Every worker thread searches its own tree on its own copy of the game (GameController.fromState) and rolls
+ * the copy back with the undo log after each iteration, so iterations do not copy the board.
+ * The root statistics of all workers are added up and the most visited move is chosen.
+ */
+public class MonteCarloStrategy implements PenguinStrategy, AutoCloseable {
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long budgetNanos;    // time per move, 0 means no time limit
+    private final int iterationLimit;  // iterations per worker and move, 0 means no limit
+    private final int threads;
+    private final ExecutorService pool; // null when the search runs on the calling thread only
+    private volatile long lastIterations;
+
+    private MonteCarloStrategy(long budgetNanos, int iterationLimit, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        }
+        this.budgetNanos = budgetNanos;
+        this.iterationLimit = iterationLimit;
+        this.threads = threads;
+        this.pool = threads == 1 ? null : Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true); // an unclosed strategy does not keep the program alive
+            return thread;
+        });
+    }
+
+    // searches each move for the given time (5 ms is a good default) on the given number of threads
+    public static MonteCarloStrategy timed(double millisPerMove, int threads) {
+        if (!(millisPerMove > 0)) {
+            throw new IllegalArgumentException("Time per move must be positive: " + millisPerMove);
+        }
+        return new MonteCarloStrategy((long) (millisPerMove * 1_000_000), 0, threads);
+    }
+
+    // runs a fixed number of iterations per worker, the chosen moves then only depend on the game
+    public static MonteCarloStrategy withIterations(int iterationsPerWorker, int threads) {
+        if (iterationsPerWorker < 1) {
+            throw new IllegalArgumentException("At least one iteration is needed: " + iterationsPerWorker);
+        }
+        return new MonteCarloStrategy(0, iterationsPerWorker, threads);
+    }
+
+    // iterations of all workers for the last chosen move
+    public long getLastIterations() { return lastIterations; }
+
+    @Override
+    public Move chooseMove(GameController game) {
+        GameState root = game.snapshot();
+        int me = game.getCurrentPenguinIndex();
+        long seed = Zobrist.mix(game.hash()); // the same game state always searches with the same random numbers
+        long deadline = budgetNanos == 0 ? Long.MAX_VALUE : System.nanoTime() + budgetNanos;
+
+        List<Node> trees = new ArrayList<>(threads);
+        if (pool == null) {
+            trees.add(search(root, me, seed, deadline));
+        } else {
+            List<Future<Node>> futures = new ArrayList<>(threads);
+            for (int worker = 0; worker < threads; worker++) {
+                long workerSeed = seed + worker * GOLDEN_GAMMA;
+                futures.add(pool.submit(() -> search(root, me, workerSeed, deadline)));
+            }
+            try {
+                for (Future<Node> future : futures) {
+                    trees.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                for (Future<Node> future : futures) {
+                    future.cancel(true); // the workers stop too
+                }
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Search was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search failed", e.getCause());
+            }
+        }
+
+        // add up the root statistics of all workers
+        long[] visits = new long[Move.COUNT];
+        double[] totals = new double[Move.COUNT];
+        long iterations = 0;
+        for (Node tree : trees) {
+            for (int move = 0; move < Move.COUNT; move++) {
+                visits[move] += tree.visits[move];
+                totals[move] += tree.totals[move];
+            }
+            iterations += tree.totalVisits;
+        }
+        lastIterations = iterations;
+
+        int best = -1;
+        for (int move = 0; move < Move.COUNT; move++) {
+            if (visits[move] == 0) {
+                continue;
+            }
+            if (best < 0 || visits[move] > visits[best]
+                    || (visits[move] == visits[best] && totals[move] / visits[move] > totals[best] / visits[best])) {
+                best = move;
+            }
+        }
+        return Move.byIndex(best < 0 ? 0 : best);
+    }
+
+    // one worker: iterations on a private copy of the game until the deadline or the iteration limit
+    private Node search(GameState state, int me, long seed, long deadline) {
+        GameController sim = GameController.fromState(state, seed);
+        int rootStep = sim.getStep();
+        int rootMark = sim.mark();
+        Penguin penguin = sim.getPenguins().get(me);
+        Node root = new Node();
+        Node[] pathNodes = new Node[state.getConfig().getTurns() + 1];
+        int[] pathMoves = new int[pathNodes.length];
+        double scale = 1; // largest reward seen so far, keeps the exploration term in proportion
+
+        for (int iteration = 0; iterationLimit == 0 || iteration < iterationLimit; iteration++) {
+            // an interrupted search (a cancelled speculation) stops early, its move is not used
+            if (iteration > 0 && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+                break;
+            }
+            Node node = root;
+            int depth = 0;
+            boolean inTree = true;
+            while (!sim.isFinished()) {
+                if (inTree && sim.getCurrentPenguinIndex() == me && !penguin.isRemoved() && !penguin.isStunned()) {
+                    int move = node.select(!penguin.isSpecialActionUsed(), scale);
+                    pathNodes[depth] = node;
+                    pathMoves[depth] = move;
+                    depth++;
+                    boolean newMove = node.visits[move] == 0;
+                    sim.applyMove(Move.byIndex(move));
+                    if (newMove) {
+                        inTree = false; // expand one move per iteration, the rest is played out
+                    } else {
+                        node = node.child(move);
+                    }
+                } else {
+                    sim.playStep();
+                }
+            }
+
+            double reward = penguin.getTotalFoodWeight();
+            scale = Math.max(scale, reward);
+            for (int i = 0; i < depth; i++) {
+                pathNodes[i].update(pathMoves[i], reward);
+            }
+            sim.undoTo(rootMark, rootStep);
+        }
+        return root;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    // statistics of the moves at one decision of the searching penguin
+    private static final class Node {
+        final long[] visits = new long[Move.COUNT];
+        final double[] totals = new double[Move.COUNT];
+        final Node[] children = new Node[Move.COUNT];
+        long totalVisits;
+
+        // an untried move first, otherwise the move with the highest UCB1 score
+        int select(boolean specialAvailable, double scale) {
+            int step = specialAvailable ? 1 : 2; // without the special action only the even (plain) moves exist
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(totalVisits);
+            for (int move = 0; move < Move.COUNT; move += step) {
+                if (visits[move] == 0) {
+                    return move;
+                }
+                double score = totals[move] / visits[move] / scale + EXPLORATION * Math.sqrt(logVisits / visits[move]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = move;
+                }
+            }
+            return best;
+        }
+
+        Node child(int move) {
+            if (children[move] == null) {
+                children[move] = new Node();
+            }
+            return children[move];
+        }
+
+        void update(int move, double reward) {
+            visits[move]++;
+            totals[move] += reward;
+            totalVisits++;
+        }
+    }
+}
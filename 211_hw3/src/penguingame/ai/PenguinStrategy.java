@@ -0,0 +1,21 @@
+package penguingame.ai;
+
+import penguingame.game.GameController;
+import penguingame.game.Move;
+
+/**
+ * Decides the moves of an AI-controlled penguin.
+ * A strategy is asked when it is the turn of its penguin (GameController.getCurrentPenguin) and the penguin can move.
+ * It may look ahead with forks of the game but must not change the game itself.
+ */
+public interface PenguinStrategy {
+    Move chooseMove(GameController game);
+
+    /**
+     * true if the move can be chosen ahead on a copy of the game in the same state (see GameController.setSpeculative).
+     * Strategies that draw from the random stream of the game return false, a copy does not have that stream.
+     */
+    default boolean isDeterministic() {
+        return true;
+    }
+}
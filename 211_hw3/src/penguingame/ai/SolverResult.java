@@ -0,0 +1,56 @@
+package penguingame.ai;
+
+import java.util.Collections;
+import java.util.List;
+import penguingame.enums.OpponentModel;
+import penguingame.game.Move;
+
+/**
+ * Outcome of an ExactSolver run: the best weight, the moves of an optimal plan and search statistics.
+ */
+public class SolverResult {
+    private final OpponentModel opponents;
+    private final int weight;
+    private final List<Move> plan;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final long tableHits;
+    private final long tableStores;
+
+    public SolverResult(OpponentModel opponents, int weight, List<Move> plan, long nodes, long elapsedNanos,
+            long tableHits, long tableStores) {
+        this.opponents = opponents;
+        this.weight = weight;
+        this.plan = Collections.unmodifiableList(plan);
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.tableHits = tableHits;
+        this.tableStores = tableStores;
+    }
+
+    public OpponentModel getOpponents() { return opponents; }
+
+    // the most food weight the penguin can collect by the end of the game
+    public int getWeight() { return weight; }
+
+    // the penguin's moves along an optimal line, one per remaining turn it can play
+    public List<Move> getPlan() { return plan; }
+
+    public long getNodes() { return nodes; }
+
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    public long getTableHits() { return tableHits; }
+
+    public long getTableStores() { return tableStores; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: weight %d, plan %s, %d nodes in %.1f ms (%.0f nodes/s), %d table hits, %d stores",
+                opponents, weight, plan, nodes, elapsedNanos / 1e6, getNodesPerSecond(), tableHits, tableStores);
+    }
+}
@@ -0,0 +1,279 @@
+package penguingame.archive;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import penguingame.game.GameState;
+import penguingame.game.GameStateCodec;
+
+/**
+ * Append-only file of game states, any of which can be read by its offset without reading the others.
+ *
+ * The file starts with an 8 byte header, then the records follow each other: the length of the state as a varint
+ * and the state as written by GameStateCodec. append returns the offset of the record, which is all that needs to be
+ * kept to find the state again. Records are read through read-only memory mappings of the file in segments of 1 GiB
+ * that overlap by the largest record, so a record never spans two mappings and reading one only decodes that record.
+ * A segment is mapped when it is first read and mapped again, up to the end of the file, once the file holds twice
+ * as much of it as the mapping; records past the mapping until then are read from the file. A segment so gets only
+ * a few dozen mappings however records are appended and read.
+ * Appended records are collected in blocks of 64 KiB before they are written, a read of a record that is
+ * not in the file yet writes the block first.
+ *
+ * A stored game is resumed with GameController.fromState(archive.read(offset), seed), or restore on an interactive game.
+ * Any number of threads can read at once, appends are serialized. Records are not checksummed: a record that was
+ * cut off by a crash reads as an IllegalArgumentException, the records before it stay readable.
+ */
+public final class GameArchive implements Closeable {
+    private static final byte[] MAGIC = {'P', 'G', 'A', 'R', 'C', 'H', 'V', '1'};
+    private static final int MAX_RECORD = 1 << 20; // length and state, far more than any board the game generates
+    private static final long SEGMENT = 1L << 30;  // offsets covered by one mapping, each mapping adds MAX_RECORD
+
+    private static final int PENDING_SIZE = 64 * 1024; // appended records are written to the file in blocks
+
+    private final FileChannel channel;
+    private volatile long size;              // end of the last record
+    private volatile long written;           // end of the records in the file, the rest is pending
+    private MappedByteBuffer[] segments = new MappedByteBuffer[1]; // by offset / SEGMENT, null until first read
+    private int mappings;                    // mappings made, for the tests
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);       // record being appended
+    private final ByteBuffer pending = ByteBuffer.allocate(PENDING_SIZE); // records not written to the file yet
+
+    private GameArchive(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+        this.written = size;
+    }
+
+    /**
+     * Opens the archive at the given path, a new archive is created if the file does not exist.
+     * Throws IOException if the file exists but is not an archive.
+     */
+    public static GameArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                writeFully(channel, ByteBuffer.wrap(MAGIC), 0);
+                size = MAGIC.length;
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+                while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                    continue; // a read may return fewer bytes than asked for
+                }
+                if (header.hasRemaining() || !Arrays.equals(header.array(), MAGIC)) {
+                    throw new IOException("Not a game archive: " + path);
+                }
+            }
+            return new GameArchive(channel, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // offset of the first record, equal to size() while the archive is empty
+    public long firstOffset() { return MAGIC.length; }
+
+    // end of the last record, the offset the next record will get
+    public long size() { return size; }
+
+    /**
+     * Adds the state at the end of the archive and returns the offset to read it with.
+     */
+    public synchronized long append(GameState state) throws IOException {
+        int needed = 5 + GameStateCodec.maxEncodedSize(state);
+        if (scratch.capacity() < needed) {
+            scratch = ByteBuffer.allocate(Math.max(needed, scratch.capacity() * 2));
+        }
+        // the state first, behind room for the longest length, then the length right before it
+        scratch.clear();
+        scratch.position(5);
+        GameStateCodec.encode(state, scratch);
+        int length = scratch.position() - 5;
+        int start = 5 - varintSize(length);
+        if (length + 5 - start > MAX_RECORD) {
+            throw new IllegalArgumentException("State of " + length + " bytes is too large for an archive");
+        }
+        scratch.position(start);
+        GameStateCodec.putVarint(scratch, length);
+        scratch.limit(5 + length).position(start);
+
+        long offset = size;
+        if (scratch.remaining() > pending.remaining()) {
+            writePending();
+        }
+        if (scratch.remaining() > pending.remaining()) {
+            writeFully(channel, scratch, offset); // larger than a block
+            written = offset + scratch.limit() - start;
+        } else {
+            pending.put(scratch);
+        }
+        size = offset + 5 + length - start;
+        return offset;
+    }
+
+    // writes the pending records to the file, they can be mapped from then on
+    private synchronized void writePending() throws IOException {
+        pending.flip();
+        writeFully(channel, pending, written);
+        written += pending.limit();
+        pending.clear();
+    }
+
+    /**
+     * Reads the state stored at the given offset (returned by append).
+     * Throws IllegalArgumentException if no record starts there.
+     */
+    public GameState read(long offset) {
+        ByteBuffer record = record(offset);
+        int length = recordLength(record, offset);
+        int start = record.position();
+        GameState state = GameStateCodec.decode(record);
+        if (record.position() - start != length) {
+            throw new IllegalArgumentException("No record at offset " + offset);
+        }
+        return state;
+    }
+
+    // offset of the record after the one at the given offset, size() after the last one
+    public long next(long offset) {
+        ByteBuffer record = record(offset);
+        int start = record.position();
+        int length = recordLength(record, offset);
+        return offset + record.position() - start + length;
+    }
+
+    private static int recordLength(ByteBuffer record, long offset) {
+        try {
+            int length = GameStateCodec.getVarint(record);
+            if (length > record.remaining()) {
+                throw new IllegalArgumentException("Record at offset " + offset + " is cut off");
+            }
+            return length;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Record at offset " + offset + " is cut off", e);
+        }
+    }
+
+    // the mapped file from the given offset on, as a buffer of its own
+    private ByteBuffer record(long offset) {
+        long end = size;
+        if (offset < MAGIC.length || offset >= end) {
+            throw new IllegalArgumentException("No record at offset " + offset + ", the archive ends at " + end);
+        }
+        if (written < end) {
+            try {
+                writePending(); // the record may still be in the pending block
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int index = (int) (offset / SEGMENT);
+        MappedByteBuffer segment = segment(index, offset, end);
+        if (segment == null) {
+            return readRecord(offset, end);
+        }
+        ByteBuffer record = segment.duplicate(); // the mapping is shared by all readers, its position is never moved
+        record.position((int) (offset - index * SEGMENT));
+        return record;
+    }
+
+    // the mapping of a segment that reaches past the record at offset (as far as the file does),
+    // null if the record is past the mapping and the file did not grow enough to map the segment again
+    private synchronized MappedByteBuffer segment(int index, long offset, long end) {
+        if (index >= segments.length) {
+            segments = Arrays.copyOf(segments, Math.max(index + 1, segments.length * 2));
+        }
+        long start = index * SEGMENT;
+        long wanted = Math.min(end, start + SEGMENT + MAX_RECORD) - start;
+        MappedByteBuffer segment = segments[index];
+        if (segment == null || (segment.capacity() < wanted && start + segment.capacity() < offset + MAX_RECORD)) {
+            // mapping again for every record appended after the last mapping would use up the mappings of the process
+            if (segment != null && segment.capacity() * 2L > wanted && wanted < SEGMENT + MAX_RECORD) {
+                return null;
+            }
+            try {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, start, wanted);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments[index] = segment;
+            mappings++;
+        }
+        return segment;
+    }
+
+    // the record at offset read from the file, for a record the mapping of its segment does not reach
+    private ByteBuffer readRecord(long offset, long end) {
+        try {
+            ByteBuffer record = ByteBuffer.allocate((int) Math.min(5, end - offset));
+            readFully(record, offset);
+            try {
+                int length = GameStateCodec.getVarint(record.flip());
+                if (length >= 0 && record.position() + (long) length <= end - offset) {
+                    record = ByteBuffer.allocate(record.position() + length);
+                    readFully(record, offset);
+                }
+            } catch (BufferUnderflowException e) {
+                // the length is cut off, recordLength reports it
+            }
+            return record.position(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Archive file ends before offset " + (position + buffer.limit()));
+            }
+        }
+    }
+
+    // mappings made since the archive was opened
+    synchronized int mappingCount() { return mappings; }
+
+    // writes the appended records to the file and forces them to the disk
+    public void flush() throws IOException {
+        writePending();
+        channel.force(false);
+    }
+
+    /**
+     * Writes the appended records and closes the file.
+     * Mappings stay valid until they are garbage collected, states read before are not affected.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writePending();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static int varintSize(int value) {
+        int bytes = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package penguingame.benchmark;
+
+import java.util.SplittableRandom;
+import penguingame.enums.TerrainBackend;
+import penguingame.objects.hazards.HeavyIceBlock;
+import penguingame.objects.penguins.KingPenguin;
+import penguingame.terrain.IcyTerrain;
+import penguingame.util.Position;
+
+/**
+ * Shows how the memory use of a terrain grows with the size of the board, for every terrain backend.
+ *
+ * Memory is the retained heap of a terrain holding the default 38 objects (as heavy ice blocks, scattered over
+ * the board) plus the row that BoardScalingBenchmark in the benchmarks module slides along. The slide, generation
+ * and game timings are measured there, with JMH.
+ *
+ * Usage: BoardMemoryBenchmark [size ...]   (default: 10 100 1000 10000)
+ */
+public class BoardMemoryBenchmark {
+    private static final int DEFAULT_OBJECTS = 38; // hazards, food and penguins of the default game
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] {10, 100, 1_000, 10_000} : parseSizes(args);
+
+        System.out.printf("%-9s %8s %16s%n", "backend", "size", "heap bytes");
+        for (TerrainBackend backend : TerrainBackend.values()) {
+            for (int size : sizes) {
+                System.out.printf("%-9s %8d %16d%n", backend, size, measureHeap(size, backend));
+            }
+        }
+    }
+
+    private static int[] parseSizes(String[] args) {
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+
+    // the row in the middle of the board: heavy ice blocks at both ends and a penguin next to the first one
+    private static void addSlideRow(IcyTerrain terrain, int size) {
+        int row = size / 2;
+        terrain.addObject(new HeavyIceBlock(), new Position(row, 0));
+        terrain.addObject(new HeavyIceBlock(), new Position(row, size - 1));
+        terrain.addObject(new KingPenguin("P1"), new Position(row, 1));
+    }
+
+    // retained heap of the terrain with the default number of objects scattered over the other rows,
+    // averaged over several terrains on small boards, where one terrain is less than the noise of the heap figures
+    private static long measureHeap(int size, TerrainBackend backend) {
+        int copies = (int) Math.max(1, Math.min(64, 1_000_000L / size / size));
+        IcyTerrain[] terrains = new IcyTerrain[copies];
+        long before = usedHeap();
+        for (int copy = 0; copy < copies; copy++) {
+            IcyTerrain terrain = new IcyTerrain(size, size, backend);
+            addSlideRow(terrain, size);
+            SplittableRandom random = new SplittableRandom(size);
+            for (int i = 0; i < DEFAULT_OBJECTS; i++) {
+                int row = random.nextInt(size - 1);
+                row += row >= size / 2 ? 1 : 0; // not on the sliding row
+                terrain.addObject(new HeavyIceBlock(), new Position(row, random.nextInt(size)));
+            }
+            terrains[copy] = terrain;
+        }
+        long after = usedHeap();
+        if (terrains[copies - 1].getRows() != size) { // keeps the terrains reachable until they have been measured
+            throw new IllegalStateException();
+        }
+        return (after - before) / copies;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,71 @@
+package penguingame.benchmark;
+
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.GameLevel;
+import penguingame.game.GameState;
+
+/**
+ * Retained heap of many games that are held at once, all started from the same level.
+ *
+ * The games are created with GameController.fromState (every game builds its own board) and with
+ * GameController.fromLevel (heavy ice blocks, food and positions are shared through a BoardLayout).
+ * Memory is measured right after creating the games and again after every game has played its first turn,
+ * then all games are played to the end. Both ways must end every game the same way.
+ *
+ * Usage: LevelMemoryBenchmark [games] [level seed]   (default: 100000 games of the level with seed 7)
+ */
+public class LevelMemoryBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long levelSeed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+        GameState start = new GameController(GameConfig.defaults(), levelSeed).snapshot();
+        GameLevel level = new GameLevel(start);
+        System.out.println(games + " games, " + level.getLayout().getObjectCount() + " of "
+                + start.getObjectCount() + " objects shared through the layout");
+
+        System.out.printf("%-10s %18s %18s%n", "games", "bytes/game start", "bytes/game turn 1");
+        long stateChecksum = measure("fromState", null, start, games);
+        long levelChecksum = measure("fromLevel", level, start, games);
+        if (stateChecksum != levelChecksum) {
+            throw new IllegalStateException("Games on the shared layout ended differently");
+        }
+    }
+
+    // creates the games, measures them and plays them to the end, returns a checksum of the final states
+    private static long measure(String name, GameLevel level, GameState start, int games) {
+        GameController[] held = new GameController[games];
+        long before = usedHeap();
+        for (int i = 0; i < games; i++) {
+            held[i] = (level == null) ? GameController.fromState(start, i) : GameController.fromLevel(level, i);
+        }
+        long atStart = usedHeap() - before;
+
+        int penguins = start.getPenguinCount();
+        for (GameController game : held) {
+            for (int step = 0; step < penguins && !game.isFinished(); step++) {
+                game.playStep();
+            }
+        }
+        long afterTurn = usedHeap() - before;
+
+        long checksum = 0;
+        for (GameController game : held) {
+            while (!game.isFinished()) {
+                game.playStep();
+            }
+            checksum = checksum * 31 + game.hash();
+        }
+        System.out.printf("%-10s %18d %18d%n", name, atStart / games, afterTurn / games);
+        return checksum;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,61 @@
+package penguingame.benchmark;
+
+import penguingame.ai.MonteCarloStrategy;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.GameResult;
+import penguingame.game.Move;
+
+/**
+ * Compares the Monte Carlo search with the built-in AI on the same seeds.
+ *
+ * Every seed is played twice: once with the built-in AI for all penguins and once with P1 searching.
+ * The other penguins play the built-in AI in both games. Reported are the mean weight of P1 in both games and
+ * the mean of the paired differences with its standard error.
+ *
+ * Usage: MonteCarloBenchmark [games] [ms per move] [threads]   (default: 2000 5 1)
+ */
+public class MonteCarloBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        double millis = args.length > 1 ? Double.parseDouble(args[1]) : 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        GameConfig config = GameConfig.defaults();
+
+        double baselineSum = 0;
+        double searchSum = 0;
+        double diffSum = 0;
+        double diffSquares = 0;
+        long[] searchStats = new long[2]; // searched moves, iterations
+        try (MonteCarloStrategy strategy = MonteCarloStrategy.timed(millis, threads)) {
+            for (long seed = 0; seed < games; seed++) {
+                int baseline = new GameController(config, seed).playGame().getTotalWeight(0);
+
+                GameController game = new GameController(config, seed);
+                game.setStrategy(0, current -> {
+                    Move move = strategy.chooseMove(current);
+                    searchStats[0]++;
+                    searchStats[1] += strategy.getLastIterations();
+                    return move;
+                });
+                GameResult result = game.playGame();
+                int searched = result.getTotalWeight(0);
+
+                baselineSum += baseline;
+                searchSum += searched;
+                double diff = searched - baseline;
+                diffSum += diff;
+                diffSquares += diff * diff;
+            }
+        }
+
+        double meanDiff = diffSum / games;
+        double variance = (diffSquares - games * meanDiff * meanDiff) / Math.max(1, games - 1);
+        System.out.printf("games %d, %.1f ms per move, %d threads, %.0f iterations per move%n",
+                games, millis, threads, (double) searchStats[1] / Math.max(1, searchStats[0]));
+        System.out.printf("built-in AI      mean weight of P1 %.3f%n", baselineSum / games);
+        System.out.printf("Monte Carlo      mean weight of P1 %.3f%n", searchSum / games);
+        System.out.printf("difference       %+.3f +- %.3f (standard error)%n", meanDiff, Math.sqrt(variance / games));
+    }
+}
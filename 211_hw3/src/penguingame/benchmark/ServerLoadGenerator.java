@@ -0,0 +1,205 @@
+package penguingame.benchmark;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import penguingame.server.GameServer;
+
+/**
+ * Plays many games at once against a GameServer on this machine and reports how long the players wait for their turns.
+ *
+ * Every simulated player opens its own connection and plays a whole game: it answers Y/N questions with N three times
+ * out of four and picks a random direction. The turn latency is the time from sending a direction (the end of the
+ * player's turn) until the next question or the end of the game arrives, so it covers the other penguins' turns and
+ * all printing. One thread drives every connection with a selector, like a server would, so thousands of players
+ * do not need thousands of client threads. An optional think time delays every answer.
+ *
+ * Start the server first (SlidingPuzzleApp --server [port]) in its own JVM, a process may not have enough
+ * file descriptors for both ends of every connection.
+ *
+ * Usage: ServerLoadGenerator [players] [port] [think ms] [seed]   (default: 10000 7777 0 1)
+ */
+public class ServerLoadGenerator {
+    private static final int READ_BUFFER = 64 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        long thinkNanos = (long) ((args.length > 2 ? Double.parseDouble(args[2]) : 0) * 1_000_000);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        Selector selector = Selector.open();
+        SplittableRandom random = new SplittableRandom(seed);
+        InetSocketAddress server = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        long start = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            SocketChannel channel = SocketChannel.open(server);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            Player player = new Player(channel, random.split());
+            channel.register(selector, SelectionKey.OP_READ, player);
+            player.send("NEW " + (seed + i));
+        }
+        long connected = System.nanoTime();
+        System.out.printf("%d players connected in %.1f s%n", players, (connected - start) / 1e9);
+
+        Latencies latencies = new Latencies();
+        PriorityQueue<Player> thinking = new PriorityQueue<>((a, b) -> Long.compare(a.answerAt, b.answerAt));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER);
+        int open = players;
+        int finished = 0;
+        while (open > 0) {
+            long timeout = thinking.isEmpty() ? 0 : Math.max(1, (thinking.peek().answerAt - System.nanoTime()) / 1_000_000);
+            selector.select(timeout);
+            for (SelectionKey key : selector.selectedKeys()) {
+                Player player = (Player) key.attachment();
+                buffer.clear();
+                int read;
+                try {
+                    read = player.channel.read(buffer);
+                } catch (IOException e) {
+                    read = -1;
+                }
+                if (read < 0) {
+                    key.cancel();
+                    player.channel.close();
+                    open--;
+                    finished += player.finished ? 1 : 0;
+                    continue;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    if (player.receive(buffer.get(), latencies)) {
+                        player.answerAt = System.nanoTime() + thinkNanos / 2
+                                + (thinkNanos == 0 ? 0 : player.random.nextLong(thinkNanos)); // half to 1.5 times
+                        thinking.add(player);
+                    }
+                }
+            }
+            selector.selectedKeys().clear();
+            long now = System.nanoTime();
+            while (!thinking.isEmpty() && thinking.peek().answerAt <= now) {
+                thinking.poll().answer();
+            }
+        }
+        double seconds = (System.nanoTime() - connected) / 1e9;
+        selector.close();
+
+        long[] turns = latencies.sorted();
+        System.out.printf("%d of %d games finished in %.1f s, %d turns (%.0f turns/s)%n",
+                finished, players, seconds, turns.length, turns.length / seconds);
+        if (turns.length > 0) {
+            System.out.printf("turn latency: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    percentile(turns, 0.50) / 1e6, percentile(turns, 0.99) / 1e6, turns[turns.length - 1] / 1e6);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    // one simulated player and the state of its connection
+    private static final class Player {
+        private static final String[] DIRECTIONS = {"U", "D", "L", "R"};
+
+        final SocketChannel channel;
+        final SplittableRandom random;
+        long answerAt;         // when the answer to the last question is sent
+        private boolean atLineStart = true;
+        private int head;      // first three characters of the current line
+        private int headLength;
+        private int lineLength;
+        private char question; // 'Y' or 'D' for the question to answer next
+        private long turnSent; // when the last direction was sent, 0 if no turn is waiting
+        boolean finished;      // the server sent BYE
+
+        Player(SocketChannel channel, SplittableRandom random) {
+            this.channel = channel;
+            this.random = random;
+        }
+
+        // takes the next byte from the server, returns true once a question is complete
+        boolean receive(byte b, Latencies latencies) {
+            if (atLineStart) {
+                head = 0;
+                headLength = 0;
+                lineLength = 0;
+                atLineStart = false;
+            }
+            if (b == '\r') {
+                return false; // line breaks of the server's platform
+            }
+            if (b != '\n') {
+                if (headLength < 3) {
+                    head = (head << 8) | (b & 0xff);
+                    headLength++;
+                }
+                lineLength++;
+                return false;
+            }
+            atLineStart = true;
+            int first = (headLength > 0) ? (head >>> (8 * (headLength - 1))) : 0;
+            boolean bye = lineLength == 3 && head == (('B' << 16) | ('Y' << 8) | 'E');
+            if (first != '?' && !bye) {
+                if (first == '!') {
+                    throw new IllegalStateException("Server rejected an answer");
+                }
+                return false; // game output
+            }
+            if (turnSent != 0) {
+                latencies.add(System.nanoTime() - turnSent);
+                turnSent = 0;
+            }
+            if (bye) {
+                finished = true;
+                return false;
+            }
+            question = (char) ((head >>> (8 * (headLength - 2))) & 0xff);
+            return true;
+        }
+
+        void answer() throws IOException {
+            if (question == 'Y') {
+                send(random.nextInt(4) == 0 ? "Y" : "N");
+            } else {
+                send(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+                turnSent = System.nanoTime();
+            }
+        }
+
+        void send(String line) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes); // a few bytes, the send buffer always has room for them
+            }
+        }
+    }
+
+    // growing array of turn latencies in nanoseconds
+    private static final class Latencies {
+        private long[] values = new long[1 << 16];
+        private int count;
+
+        void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+
+        long[] sorted() {
+            long[] result = Arrays.copyOf(values, count);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
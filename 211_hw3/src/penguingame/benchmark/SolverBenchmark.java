@@ -0,0 +1,46 @@
+package penguingame.benchmark;
+
+import penguingame.ai.ExactSolver;
+import penguingame.ai.SolverResult;
+import penguingame.enums.OpponentModel;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+
+/**
+ * Solves generated boards for the player's penguin with both opponent models and reports
+ * the best weights next to the weight the built-in AI collects, and the search speed in nodes/second.
+ *
+ * Usage: SolverBenchmark [boards] [threads]   (default: 20 and the number of processors)
+ */
+public class SolverBenchmark {
+
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameConfig config = GameConfig.defaults();
+
+        for (OpponentModel model : OpponentModel.values()) {
+            long builtInSum = 0;
+            long solvedSum = 0;
+            long nodes = 0;
+            long nanos = 0;
+            try (ExactSolver solver = new ExactSolver(model, 0, threads)) {
+                for (long seed = 0; seed < boards; seed++) {
+                    GameController game = new GameController(config, seed);
+                    int player = game.getPlayerIndex();
+                    SolverResult result = solver.solve(game);
+                    builtInSum += game.playGame().getTotalWeight(player);
+                    solvedSum += result.getWeight();
+                    nodes += result.getNodes();
+                    nanos += result.getElapsedNanos();
+                    if (seed < 3) {
+                        System.out.println("seed " + seed + " " + result);
+                    }
+                }
+            }
+            System.out.printf("%-11s boards %d, threads %d: built-in AI %.2f, solved %.2f, %d nodes, %.0f nodes/s%n",
+                    model, boards, threads, (double) builtInSum / boards, (double) solvedSum / boards,
+                    nodes, nodes * 1e9 / Math.max(1, nanos));
+        }
+    }
+}
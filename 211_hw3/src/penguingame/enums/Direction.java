@@ -14,4 +14,22 @@ public enum Direction {
             default: return this;
         }
     }
+
+    // row change of a single step in this direction
+    public int getRowStep() {
+        switch(this) {
+            case UP: return -1;
+            case DOWN: return 1;
+            default: return 0;
+        }
+    }
+
+    // column change of a single step in this direction
+    public int getColStep() {
+        switch(this) {
+            case LEFT: return -1;
+            case RIGHT: return 1;
+            default: return 0;
+        }
+    }
 }
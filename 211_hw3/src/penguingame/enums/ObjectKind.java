@@ -0,0 +1,16 @@
+package penguingame.enums;
+
+// enum for the concrete kind of every terrain object, used where objects are stored as plain numbers (snapshots)
+public enum ObjectKind {
+    KING_PENGUIN, EMPEROR_PENGUIN, ROYAL_PENGUIN, ROCKHOPPER_PENGUIN,
+    LIGHT_ICE_BLOCK, HEAVY_ICE_BLOCK, SEA_LION, HOLE_IN_ICE,
+    FOOD;
+
+    public boolean isPenguin() {
+        return ordinal() <= ROCKHOPPER_PENGUIN.ordinal();
+    }
+
+    public boolean isHazard() {
+        return this != FOOD && !isPenguin();
+    }
+}
@@ -0,0 +1,7 @@
+package penguingame.enums;
+
+// enum for how a solver expects the other penguins to play
+public enum OpponentModel {
+    HEURISTIC,   // the built-in AI, with random numbers fixed by the seed, the turn and the penguin
+    ADVERSARIAL; // every other penguin plays the move that is worst for the solved penguin
+}
@@ -0,0 +1,8 @@
+package penguingame.enums;
+
+// enum for the ways an IcyTerrain can store its squares. All of them follow exactly the same game rules.
+public enum TerrainBackend {
+    GRID,      // a list per square, slides walk square by square
+    BITBOARD,  // a list per square plus occupancy bitboards, slides find their blocker with bit scans
+    SPARSE;    // only occupied squares are stored, for huge boards with few objects
+}
@@ -0,0 +1,88 @@
+package penguingame.events;
+
+import java.io.PrintStream;
+import penguingame.enums.Direction;
+import penguingame.objects.food.Food;
+import penguingame.objects.hazards.HoleInIce;
+import penguingame.objects.penguins.Penguin;
+import penguingame.objects.penguins.RockhopperPenguin;
+import penguingame.objects.penguins.RoyalPenguin;
+
+/**
+ * Tells the story of a game on the console, the narration interactive games always printed.
+ */
+public class ConsoleNarrator implements GameEventListener {
+    private final PrintStream out;
+
+    public ConsoleNarrator(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void onEvent(GameEvent event) {
+        Penguin penguin = event.getPenguin();
+        switch (event.getType()) {
+            case TURN_STARTED:
+                out.println("\n*** Turn " + event.getValue() + " " + penguin.getName()
+                        + (event.isPlayer() ? " (Your Penguin):" : ":"));
+                break;
+            case TURN_SKIPPED:
+                out.println(penguin.getName() + " is stunned and skips this turn.");
+                break;
+            case MOVE_CHOSEN:
+                if (!event.isPlayer()) { // the player's choices are already on the screen
+                    narrateChoice(penguin, event.getDirection(), event.getValue());
+                }
+                break;
+            case SPECIAL_ACTION_USED:
+                if (penguin instanceof RoyalPenguin) {
+                    out.println(penguin.getName() + " moves one square to the " + directionName(event.getDirection()) + ".");
+                } else if (penguin instanceof RockhopperPenguin) {
+                    out.println(penguin.getName() + " prepares to jump over a hazard.");
+                }
+                break;
+            case FOOD_COLLECTED:
+                Food food = (Food) event.getObject();
+                String type = food.getType().toString();
+                out.println(penguin.getName() + " takes the " + type.charAt(0) + type.substring(1).toLowerCase()
+                        + " on the ground. (Weight " + food.getWeight() + " units)");
+                break;
+            case FELL_IN_WATER:
+                if (event.getObject() instanceof HoleInIce) {
+                    out.println(penguin.getDisplaySymbol() + " falls into the water due to HI in its path.");
+                }
+                break;
+            case TURN_ENDED:
+                if (event.getValue() == 1) {
+                    out.println("*** " + penguin.getName() + " IS REMOVED FROM THE GAME!");
+                }
+                out.println("\nNew state of the grid:");
+                break;
+            default:
+                // the other events were never narrated
+        }
+    }
+
+    private void narrateChoice(Penguin penguin, Direction dir, int flags) {
+        if ((flags & GameEvent.MOVE_AUTOMATIC) != 0) {
+            out.println(penguin.getName() + " will automatically USE its special action.");
+        } else if ((flags & GameEvent.MOVE_SPECIAL) != 0) {
+            out.println(penguin.getName() + (penguin instanceof RoyalPenguin
+                    ? " chooses to USE its special action." : " chooses to use its special action."));
+        } else {
+            out.println(penguin.getName() + " does NOT to use its special action.");
+        }
+        out.println(penguin.getName() + " chooses to move " + directionName(dir) + ".");
+    }
+
+    // the name of a direction in the narration
+    private static String directionName(Direction dir) {
+        switch (dir) {
+            case UP: return "UPWARDS";
+            case DOWN: return "DOWNWARDS";
+            case LEFT: return "to the LEFT";
+            case RIGHT: return "to the RIGHT";
+            default: return "";
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package penguingame.events;
+
+import java.util.Arrays;
+
+/**
+ * Counts the events of each type, a listener for simulations that want facts without any narration.
+ * Counting does not allocate.
+ */
+public class EventCounter implements GameEventListener {
+    private static final EventType[] TYPES = EventType.values();
+
+    private final long[] counts = new long[TYPES.length];
+
+    @Override
+    public void onEvent(GameEvent event) {
+        counts[event.getType().ordinal()]++;
+    }
+
+    public long getCount(EventType type) {
+        return counts[type.ordinal()];
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (EventType type : TYPES) {
+            if (counts[type.ordinal()] > 0) {
+                if (text.length() > 0) {
+                    text.append(", ");
+                }
+                text.append(type).append(' ').append(counts[type.ordinal()]);
+            }
+        }
+        return text.toString();
+    }
+}
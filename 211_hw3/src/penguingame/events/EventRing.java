@@ -0,0 +1,113 @@
+package penguingame.events;
+
+import java.util.Arrays;
+import penguingame.enums.Direction;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.penguins.Penguin;
+
+/**
+ * Delivers the events of a game to its listeners.
+ *
+ * Published events are written into preallocated GameEvent slots of a ring and delivered in order when
+ * flush() is called (the game flushes before it prints, draws or reads input, and after every step).
+ * A full ring is flushed before the next event is written, so no event is ever lost.
+ * Without listeners publish() returns right away, so a game nobody listens to pays nothing for its events.
+ * Slots are only allocated when the first listener is added. One ring belongs to one game and one thread.
+ */
+public class EventRing {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final GameEventListener[] NO_LISTENERS = new GameEventListener[0];
+
+    private final int capacity;
+    private GameEvent[] slots;
+    private GameEventListener[] listeners = NO_LISTENERS;
+    private Penguin player;
+    private long published = 0;
+    private long delivered = 0;
+    private boolean flushing = false;
+
+    public EventRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // capacity is rounded up to a power of two
+    public EventRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int rounded = Integer.highestOneBit(capacity);
+        this.capacity = rounded < capacity ? rounded << 1 : rounded;
+    }
+
+    public void addListener(GameEventListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener must not be null");
+        }
+        if (slots == null) {
+            slots = new GameEvent[capacity];
+            for (int i = 0; i < capacity; i++) {
+                slots[i] = new GameEvent();
+            }
+        }
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void removeListener(GameEventListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                GameEventListener[] rest = new GameEventListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, rest, 0, i);
+                System.arraycopy(listeners, i + 1, rest, i, rest.length - i);
+                listeners = rest;
+                return;
+            }
+        }
+    }
+
+    public boolean hasListeners() { return listeners.length > 0; }
+
+    // events about this penguin are marked as the player's, see GameEvent.isPlayer
+    public void setPlayer(Penguin player) { this.player = player; }
+
+    // number of events published while someone was listening
+    public long getPublished() { return published; }
+
+    /**
+     * Publishes an event, see EventType for the fields of every type. Unused fields are null or 0.
+     */
+    public void publish(EventType type, Penguin penguin, ITerrainObject object, Direction direction, int value) {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (published - delivered == capacity) {
+            if (flushing) {
+                throw new IllegalStateException("Event ring is full while its events are delivered");
+            }
+            flush();
+        }
+        slots[(int) published & (capacity - 1)].set(type, published, penguin, object, direction, value,
+                penguin != null && penguin == player);
+        published++;
+    }
+
+    // delivers every published event to the listeners, oldest first
+    public void flush() {
+        if (flushing) {
+            return; // a listener published while being called, the running loop delivers its events too
+        }
+        flushing = true;
+        try {
+            while (delivered < published) {
+                GameEvent event = slots[(int) delivered & (capacity - 1)];
+                delivered++;
+                for (GameEventListener listener : listeners) {
+                    listener.onEvent(event);
+                }
+            }
+        } finally {
+            flushing = false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package penguingame.events;
+
+// enum for the things that happen in a game, see GameEvent for the fields each type fills in
+public enum EventType {
+    TURN_STARTED,        // penguin, value = turn number
+    TURN_SKIPPED,        // penguin, it is stunned
+    MOVE_CHOSEN,         // penguin, direction, value = GameEvent.MOVE_SPECIAL / MOVE_AUTOMATIC flags
+    SPECIAL_ACTION_USED, // penguin, direction
+    SLIDE_STARTED,       // object = the slider (penguin too if it is one), direction, value = start cell
+    FOOD_COLLECTED,      // penguin, object = the food, value = its weight
+    FOOD_LOST,           // penguin, object = the food, value = its weight
+    STUNNED,             // penguin
+    FELL_IN_WATER,       // penguin, object = the hole or null if it slid off the edge, value = cell of the hole
+    HOLE_PLUGGED,        // object = the hole, value = its cell
+    TURN_ENDED;          // penguin, value = 1 if it was removed during the turn
+}
@@ -0,0 +1,52 @@
+package penguingame.events;
+
+import penguingame.enums.Direction;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.penguins.Penguin;
+
+/**
+ * One event of a game. Events are slots of an EventRing that are reused,
+ * so a listener must read what it needs in onEvent and must not keep the event.
+ */
+public final class GameEvent {
+    // flags of MOVE_CHOSEN
+    public static final int MOVE_SPECIAL = 1;   // the special action is used
+    public static final int MOVE_AUTOMATIC = 2; // the built-in AI had to use it (Rockhopper in front of a hazard)
+
+    private EventType type;
+    private long sequence;
+    private Penguin penguin;
+    private ITerrainObject object;
+    private Direction direction;
+    private int value;
+    private boolean player;
+
+    GameEvent() { }
+
+    void set(EventType type, long sequence, Penguin penguin, ITerrainObject object, Direction direction, int value,
+            boolean player) {
+        this.type = type;
+        this.sequence = sequence;
+        this.penguin = penguin;
+        this.object = object;
+        this.direction = direction;
+        this.value = value;
+        this.player = player;
+    }
+
+    public EventType getType() { return type; }
+
+    // number of the event in its game, starting at 0
+    public long getSequence() { return sequence; }
+
+    public Penguin getPenguin() { return penguin; }
+
+    public ITerrainObject getObject() { return object; }
+
+    public Direction getDirection() { return direction; }
+
+    public int getValue() { return value; }
+
+    // true if the event is about the player's penguin
+    public boolean isPlayer() { return player; }
+}
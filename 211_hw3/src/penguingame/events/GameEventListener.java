@@ -0,0 +1,6 @@
+package penguingame.events;
+
+// receives the events of a game in order, see EventRing
+public interface GameEventListener {
+    void onEvent(GameEvent event);
+}
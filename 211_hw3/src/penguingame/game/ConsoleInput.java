@@ -0,0 +1,61 @@
+package penguingame.game;
+
+import java.util.Scanner;
+import penguingame.enums.Direction;
+
+/**
+ * Reads the player's decisions from the console.
+ * Keeps asking until a valid input is provided, input is not case sensitive.
+ */
+public class ConsoleInput implements PlayerInput {
+    private final Scanner scanner;
+
+    public ConsoleInput(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Prompt the user for a Yes/No answer.
+     * returns true if user answered Y, false if user answered N
+     */
+    @Override
+    public boolean getYesNo(String prompt) {
+        // loop continues until user enters a valid input.
+        while (true) {
+            System.out.print(prompt);
+            String input = scanner.nextLine().trim().toUpperCase(); // trims the spaces and converts y,n to Y,N
+
+            if (input.equals("Y")) {
+                return true;
+            }
+            if (input.equals("N")) {
+                return false;
+            }
+
+            // Invalid input, ask again
+            System.out.println("Invalid input. Please enter Y or N.");
+        }
+    }
+
+    /**
+     * Prompts the user for a direction (U/D/L/R).
+     * returns: the chosen Direction
+     */
+    @Override
+    public Direction getDirection(String prompt) {
+        // continues until user enters a valid input
+        while (true) {
+            System.out.print(prompt);
+            String input = scanner.nextLine().trim().toUpperCase(); // again trims and converts u,l,d,r to U,L,D,R if necessary
+
+            switch(input) {
+                case "U": return Direction.UP;
+                case "D": return Direction.DOWN;
+                case "L": return Direction.LEFT;
+                case "R": return Direction.RIGHT;
+                default:
+                    System.out.println("Invalid input. Please use U, D, L, or R.");
+            }
+        }
+    }
+}
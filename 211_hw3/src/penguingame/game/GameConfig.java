@@ -0,0 +1,117 @@
+package penguingame.game;
+
+import penguingame.enums.TerrainBackend;
+
+/**
+ * Settings of a single game.
+ * Configs are immutable, the with... methods return a modified copy.
+ */
+public class GameConfig {
+    private final int rows;          // height of the icy terrain
+    private final int cols;          // width of the icy terrain
+    private final int penguinCount;  // penguins are placed on edge squares
+    private final int hazardCount;
+    private final int foodCount;
+    private final int turns;         // how many turns every penguin plays
+    private final TerrainBackend backend; // how the terrain stores its squares, the rules are the same for all
+
+    private GameConfig(int rows, int cols, int penguinCount, int hazardCount, int foodCount, int turns,
+            TerrainBackend backend) {
+        this.rows = rows;
+        this.cols = cols;
+        this.penguinCount = penguinCount;
+        this.hazardCount = hazardCount;
+        this.foodCount = foodCount;
+        this.turns = turns;
+        this.backend = backend;
+    }
+
+    /**
+     * The settings of the original assignment:
+     * 10x10 grid, 3 penguins, 15 hazards, 20 food items and 4 turns for each penguin.
+     */
+    public static GameConfig defaults() {
+        return new GameConfig(10, 10, 3, 15, 20, 4, TerrainBackend.GRID);
+    }
+
+    /**
+     * Settings with every value given at once, used when reading stored configs.
+     * Throws IllegalArgumentException for settings a game cannot be generated with.
+     */
+    public static GameConfig of(int rows, int cols, int penguinCount, int hazardCount, int foodCount, int turns,
+            TerrainBackend backend) {
+        return new GameConfig(rows, cols, penguinCount, hazardCount, foodCount, turns, backend).validate();
+    }
+
+    public int getRows() { return rows; }
+
+    public int getCols() { return cols; }
+
+    public int getPenguinCount() { return penguinCount; }
+
+    public int getHazardCount() { return hazardCount; }
+
+    public int getFoodCount() { return foodCount; }
+
+    public int getTurns() { return turns; }
+
+    public TerrainBackend getBackend() { return backend; }
+
+    // number of squares on the edge of the grid, the squares penguins can start on
+    public long getEdgeSquareCount() {
+        if (rows == 1 || cols == 1) {
+            return (long) rows * cols;
+        }
+        return 2L * rows + 2L * cols - 4;
+    }
+
+    public GameConfig withBoardSize(int rows, int cols) {
+        return new GameConfig(rows, cols, penguinCount, hazardCount, foodCount, turns, backend).validate();
+    }
+
+    public GameConfig withPenguinCount(int penguinCount) {
+        return new GameConfig(rows, cols, penguinCount, hazardCount, foodCount, turns, backend).validate();
+    }
+
+    public GameConfig withHazardCount(int hazardCount) {
+        return new GameConfig(rows, cols, penguinCount, hazardCount, foodCount, turns, backend).validate();
+    }
+
+    public GameConfig withFoodCount(int foodCount) {
+        return new GameConfig(rows, cols, penguinCount, hazardCount, foodCount, turns, backend).validate();
+    }
+
+    public GameConfig withTurns(int turns) {
+        return new GameConfig(rows, cols, penguinCount, hazardCount, foodCount, turns, backend).validate();
+    }
+
+    public GameConfig withBackend(TerrainBackend backend) {
+        return new GameConfig(rows, cols, penguinCount, hazardCount, foodCount, turns, backend).validate();
+    }
+
+    // rejects settings the game cannot be generated with
+    private GameConfig validate() {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Board must have at least one square: " + rows + "x" + cols);
+        }
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Board squares must fit into an int cell index: " + rows + "x" + cols);
+        }
+        if (penguinCount < 1 || hazardCount < 0 || foodCount < 0) {
+            throw new IllegalArgumentException("Invalid object counts: " + penguinCount + " penguins, "
+                    + hazardCount + " hazards, " + foodCount + " food items");
+        }
+        if (turns < 1) {
+            throw new IllegalArgumentException("A game needs at least one turn: " + turns);
+        }
+        // every object needs its own square, otherwise generating the board would never finish
+        if (penguinCount > getEdgeSquareCount()) {
+            throw new IllegalArgumentException(penguinCount + " penguins do not fit on the "
+                    + getEdgeSquareCount() + " edge squares");
+        }
+        if ((long) penguinCount + hazardCount + foodCount > (long) rows * cols) {
+            throw new IllegalArgumentException("Too many objects for a " + rows + "x" + cols + " board");
+        }
+        return this;
+    }
+}
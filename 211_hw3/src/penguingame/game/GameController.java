@@ -1,12 +1,23 @@
 package penguingame.game;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 import java.util.Scanner;
+import java.util.SplittableRandom;
+import penguingame.ai.HeuristicStrategy;
+import penguingame.ai.PenguinStrategy;
 import penguingame.enums.Direction;
 import penguingame.enums.FoodType;
+import penguingame.enums.ObjectKind;
 import penguingame.enums.PenguinType;
+import penguingame.events.ConsoleNarrator;
+import penguingame.events.EventRing;
+import penguingame.events.EventType;
+import penguingame.events.GameEvent;
+import penguingame.events.GameEventListener;
 import penguingame.objects.IHazard;
 import penguingame.objects.ITerrainObject;
 import penguingame.objects.food.Food;
@@ -19,29 +30,194 @@ import penguingame.objects.penguins.KingPenguin;
 import penguingame.objects.penguins.Penguin;
 import penguingame.objects.penguins.RockhopperPenguin;
 import penguingame.objects.penguins.RoyalPenguin;
+import penguingame.render.BufferedGridRenderer;
+import penguingame.render.GridRenderer;
+import penguingame.render.NullGridRenderer;
 import penguingame.terrain.IcyTerrain;
+import penguingame.util.Cells;
+import penguingame.util.FreeCellPool;
 import penguingame.util.Position;
+import penguingame.util.Zobrist;
 
 /**
  * Main game controller that manages the entire Sliding Penguins Puzzle Game.
  * 
 */
 public class GameController {
+    private static final String[] PENGUIN_NAMES = new String[16]; // P1 to P16, shared by all games
+    static {
+        for (int i = 0; i < PENGUIN_NAMES.length; i++) {
+            PENGUIN_NAMES[i] = "P" + (i + 1);
+        }
+    }
+    
     // Core game components that stores the most important things
-    private IcyTerrain terrain;           // The 10x10 icy grid
-    private List<Penguin> penguins;       // All 3 penguins in the game (p1, p2, and p3)
+    private IcyTerrain terrain;           // The icy grid (10x10 by default)
+    private List<Penguin> penguins;       // All penguins in the game (p1, p2, p3 ...)
+    private List<ITerrainObject> boardObjects; // All hazards and food items that were placed on the grid
     private Penguin playerPenguin;        // The penguin that assigned to the player
     
+    private int playerIndex;              // Index of the player's penguin in the penguins list
+    private int turn = 1;                 // Turn of the next step
+    private int penguinIndex = 0;         // Index of the penguin that plays the next step
+    
     // Utility objects
-    private Scanner scanner;              // For reading user input
-    private Random random;                // For random generation
+    private final PlayerInput input;      // Decisions of the player (null when every penguin is AI-controlled)
+    private SplittableRandom random;      // Random stream of this game, every game has its own
+    private FreeCellPool freeCells;       // Empty squares while the board is generated
+    private final GameConfig config;      // Settings of this game
+    private final long seed;              // Seed of the random stream, reported in the result
+    private final boolean headless;       // Headless games print nothing to the console
+    private final PrintStream out;        // Where an interactive game prints to, null for headless games
+    private final ReplayLog replayLog;    // Seed, settings and player decisions of this game
+    private PenguinStrategy[] strategies; // AI strategy of each penguin, null entries use the built-in AI
+    private GridRenderer renderer;        // Draws the grid, headless games draw nothing
+    private final EventRing events = new EventRing(); // What happens in the game, interactive games narrate it
+    private boolean speculative = true;   // Strategy turns are played ahead while the player is typing
+    private Speculation speculation;      // Strategy moves played ahead, null until the player's first turn
+    private ReplayRecorder recorder;      // Writes every step to a replay file, null when not recording
     
     /**
      * Constructor initializes the scanner and random generator
      */
     public GameController() {
-        this.scanner = new Scanner(System.in);
-        this.random = new Random();
+        this(System.nanoTime());
+    }
+    
+    /**
+     * Interactive game with a fixed seed, the same seed and the same answers always produce the same game.
+     */
+    public GameController(long seed) {
+        this(GameConfig.defaults(), seed, new ConsoleInput(new Scanner(System.in)), System.out);
+    }
+    
+    /**
+     * Interactive game with a player that is not at the console, for example a player of GameServer:
+     * the decisions come from the given input and everything the game prints goes to the given stream.
+     */
+    public GameController(long seed, PlayerInput input, PrintStream out) {
+        this(GameConfig.defaults(), seed, input, out);
+        if (input == null || out == null) {
+            throw new IllegalArgumentException("An interactive game needs an input and an output");
+        }
+    }
+    
+    /**
+     * Constructor for headless games: nothing is read from or printed to the console
+     * and every penguin, including the player's, is controlled by the AI.
+     * The same seed and config always produce the same game.
+     */
+    public GameController(GameConfig config, long seed) {
+        this(config, seed, null, null);
+    }
+    
+    // a game without an output stream is headless
+    private GameController(GameConfig config, long seed, PlayerInput input, PrintStream out) {
+        this.input = input;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.config = config;
+        this.headless = out == null;
+        this.out = out;
+        this.replayLog = new ReplayLog(seed, config);
+        this.renderer = headless ? NullGridRenderer.INSTANCE : new BufferedGridRenderer(out);
+        if (!headless) {
+            events.addListener(new ConsoleNarrator(out));
+        }
+    }
+    
+    /**
+     * Creates a headless game that plays the recorded game again.
+     * The player's decisions are read from the log, so the result is exactly the result of the recorded game.
+     */
+    public static GameController replay(ReplayLog log) {
+        return new GameController(log.getConfig(), log.getSeed(), new ReplayInput(log), null);
+    }
+    
+    // Seed, settings and player decisions of this game so far
+    public ReplayLog getReplayLog() {
+        return replayLog;
+    }
+    
+    /**
+     * Creates a headless game in the given state, every penguin is AI-controlled
+     * and random numbers come from a new stream with the given seed.
+     */
+    public static GameController fromState(GameState state, long seed) {
+        GameController game = new GameController(state.getConfig(), seed);
+        game.restore(state);
+        return game;
+    }
+    
+    /**
+     * Creates a headless game at the start of the given level, like fromState(level.getStart(), seed).
+     * The game shares the level's BoardLayout, so it only keeps its penguins, its moving hazards and the squares it changes.
+     */
+    public static GameController fromLevel(GameLevel level, long seed) {
+        GameController game = new GameController(level.getStart().getConfig(), seed);
+        game.restore(level.getStart(), level);
+        return game;
+    }
+    
+    /**
+     * Lets the given strategy decide the moves of an AI-controlled penguin (index in playing order).
+     * null gives the penguin back to the built-in AI (HeuristicStrategy). Forks do not inherit strategies.
+     */
+    public void setStrategy(int penguinIndex, PenguinStrategy strategy) {
+        if (penguinIndex < 0 || penguinIndex >= config.getPenguinCount()) {
+            throw new IllegalArgumentException("No penguin with index " + penguinIndex);
+        }
+        if (strategies == null) {
+            strategies = new PenguinStrategy[config.getPenguinCount()];
+        }
+        strategies[penguinIndex] = strategy;
+    }
+    
+    /**
+     * Turns speculation on or off (on by default). In an interactive game the penguins with a strategy
+     * then play their next turns in the background, for every possible decision, while the player is typing,
+     * and after the player's move their turns take the precomputed moves. The moves are the same as without
+     * speculation as long as the strategy decides from the game state alone (see MonteCarloStrategy.withIterations).
+     * Headless games never speculate.
+     */
+    public void setSpeculative(boolean speculative) {
+        this.speculative = speculative;
+        if (!speculative && speculation != null) {
+            speculation.close();
+            speculation = null;
+        }
+    }
+    
+    /**
+     * Replaces the renderer that draws the grid after the board is generated and after every turn.
+     * A headless game can get a real renderer to be watched, its other messages stay off.
+     */
+    public void setRenderer(GridRenderer renderer) {
+        if (renderer == null) {
+            throw new IllegalArgumentException("Renderer must not be null, use NullGridRenderer.INSTANCE");
+        }
+        this.renderer = renderer;
+    }
+    
+    /**
+     * Records the steps played from now on into a replay file (see ReplayFile), null stops recording.
+     * A recorder belongs to one game, the caller closes it when the game is over.
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+    
+    /**
+     * Lets the listener follow the game: turns, chosen moves, slides, collected food, penguins falling in the water.
+     * Events are delivered in order at the end of every step and before anything is printed or drawn.
+     * Forks do not inherit listeners.
+     */
+    public void addEventListener(GameEventListener listener) {
+        events.addListener(listener);
+    }
+    
+    public void removeEventListener(GameEventListener listener) {
+        events.removeListener(listener);
     }
     
     /**
@@ -49,64 +225,313 @@ public class GameController {
      * Handles the complete game flow 
      */
     public void startGame() {
-        // Display welcome message
-        System.out.println("Welcome to Sliding Penguins Puzzle Game App. An 10x10 icy terrain grid is being generated.");
-        System.out.println("Penguins, Hazards, and Food items are also being generated. The initial icy terrain grid:");
+        playGame();
+    }
+    
+    /**
+     * Plays a complete game and returns its outcome.
+     * A game that was restored from a state (or forked) continues from that state.
+     * Console output is only produced when the game is not headless.
+     */
+    public GameResult playGame() {
+        if (terrain == null) {
+            // Display welcome message
+            println("Welcome to Sliding Penguins Puzzle Game App. An " + config.getRows() + "x" + config.getCols()
+                    + " icy terrain grid is being generated.");
+            println("Penguins, Hazards, and Food items are also being generated. The initial icy terrain grid:");
+            
+            // Set up the game board and objects
+            initializeGame();
+            
+            // Show the initial state of the grid
+            displayGrid();
+            
+            // Display information about the penguins and which one is the player's
+            displayPenguinInfo();
+        }
+        
+        // Main game loop: every penguin plays once in each turn
+        while (!isFinished()) {
+            playStep();
+        }
         
-        // Set up the game board and objects
-        initializeGame();
+        // Game is over, show the final scoreboard
+        if (speculation != null) {
+            speculation.close();
+            speculation = null;
+        }
+        displayGameOver();
+        return new GameResult(seed, penguins, playerIndex);
+    }
+    
+    // true when every penguin has played all of its turns
+    public boolean isFinished() {
+        return turn > config.getTurns();
+    }
+    
+    /**
+     * Plays the turn of the next penguin (one step of the game).
+     * Penguins play in order P1, P2, P3 ..., then the next turn starts.
+     */
+    public void playStep() {
+        if (terrain == null) {
+            initializeGame();
+        }
+        if (isFinished()) {
+            throw new IllegalStateException("The game is over");
+        }
+        if (recorder != null) {
+            recorder.beginStep(this, seed);
+        }
+        Move move = playTurn(penguins.get(penguinIndex), turn);
+        if (recorder != null) {
+            recorder.endStep(move);
+        }
+        penguinIndex++;
+        if (penguinIndex == penguins.size()) {
+            penguinIndex = 0;
+            turn++;
+        }
+        events.flush();
+    }
+    
+    /**
+     * Takes a snapshot of the current game, see GameState.
+     * The live game is not changed and the snapshot does not change with it.
+     */
+    public GameState snapshot() {
+        if (terrain == null) {
+            initializeGame();
+        }
         
-        // Show the initial state of the grid
-        terrain.displayGrid();
+        // cells of every object that is still on the grid, each square is stored once
+        int[] occupied = new int[penguins.size() + boardObjects.size()];
+        int squareCount = 0;
+        for (Penguin penguin : penguins) {
+            if (isOnTerrain(penguin)) {
+                occupied[squareCount++] = terrain.cellOf(penguin.getPosition());
+            }
+        }
+        for (ITerrainObject obj : boardObjects) {
+            if (isOnTerrain(obj)) {
+                occupied[squareCount++] = terrain.cellOf(obj.getPosition());
+            }
+        }
+        Arrays.sort(occupied, 0, squareCount);
         
-        // Display information about the penguins and which one is the player's
-        displayPenguinInfo();
+        int objectCount = 0;
+        for (int i = 0; i < squareCount; i++) {
+            if (i == 0 || occupied[i] != occupied[i - 1]) {
+                objectCount += terrain.getObjectsAt(occupied[i]).size();
+            }
+        }
+        byte[] kinds = new byte[objectCount];
+        int[] cells = new int[objectCount];
+        int[] data = new int[objectCount];
+        int next = 0;
+        for (int i = 0; i < squareCount; i++) {
+            if (i > 0 && occupied[i] == occupied[i - 1]) {
+                continue;
+            }
+            // objects of a square are stored in the order they lie there
+            List<ITerrainObject> objects = terrain.getObjectsAt(occupied[i]);
+            for (int j = 0; j < objects.size(); j++) {
+                ITerrainObject obj = objects.get(j);
+                kinds[next] = (byte) obj.getKind().ordinal();
+                cells[next] = occupied[i];
+                if (obj instanceof Penguin) {
+                    data[next] = penguins.indexOf(obj);
+                } else if (obj instanceof Food) {
+                    data[next] = GameState.encodeFood((Food) obj);
+                } else if (obj instanceof HoleInIce) {
+                    data[next] = ((HoleInIce) obj).isPlugged() ? 1 : 0;
+                }
+                next++;
+            }
+        }
         
-        // Main game loop: 4 turns for each of the 3 penguins
-        for (int turn = 1; turn <= 4; turn++) {
-            for (Penguin penguin : penguins) {
-                playTurn(penguin, turn);
+        int count = penguins.size();
+        byte[] penguinKinds = new byte[count];
+        int[] penguinCells = new int[count];
+        byte[] penguinFlags = new byte[count];
+        int[] foodStart = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            foodStart[i + 1] = foodStart[i] + penguins.get(i).getCollectedFood().size();
+        }
+        int[] collectedFood = new int[foodStart[count]];
+        for (int i = 0; i < count; i++) {
+            Penguin penguin = penguins.get(i);
+            penguinKinds[i] = (byte) penguin.getKind().ordinal();
+            penguinCells[i] = isOnTerrain(penguin) ? terrain.cellOf(penguin.getPosition()) : Cells.NONE;
+            boolean preparedToJump = penguin instanceof RockhopperPenguin
+                    && ((RockhopperPenguin) penguin).isPreparedToJump();
+            penguinFlags[i] = GameState.penguinFlags(penguin.isStunned(), penguin.isRemoved(),
+                    penguin.isSpecialActionUsed(), preparedToJump);
+            List<Food> food = penguin.getCollectedFood();
+            for (int j = 0; j < food.size(); j++) {
+                collectedFood[foodStart[i] + j] = GameState.encodeFood(food.get(j));
             }
         }
         
-        // Game is over, show the final scoreboard
-        displayGameOver();
+        return new GameState(config, playerIndex, turn, penguinIndex, kinds, cells, data,
+                penguinKinds, penguinCells, penguinFlags, foodStart, collectedFood);
+    }
+    
+    /**
+     * Puts the game back into the given state.
+     * New terrain and object instances are created, the state itself is not changed and can be restored again.
+     * The random stream of the game is not part of the state and keeps going.
+     */
+    public void restore(GameState state) {
+        restore(state, null);
+    }
+    
+    // restores the state, the objects a level shares are taken from the level instead of being created (level may be null)
+    private void restore(GameState state, GameLevel level) {
+        if (state.getConfig().getRows() != config.getRows() || state.getConfig().getCols() != config.getCols()
+                || state.getPenguinCount() != config.getPenguinCount()) {
+            throw new IllegalArgumentException("State belongs to a game with different settings");
+        }
+        terrain = (level == null) ? new IcyTerrain(config.getRows(), config.getCols(), config.getBackend())
+                : new IcyTerrain(level.getLayout());
+        terrain.setEvents(events);
+        
+        penguins = new ArrayList<>(state.getPenguinCount());
+        for (int i = 0; i < state.getPenguinCount(); i++) {
+            Penguin penguin = (Penguin) newObject(state.getPenguinKind(i), penguinName(i));
+            penguin.setStunned(state.isStunned(i));
+            penguin.setRemoved(state.isRemoved(i));
+            penguin.setSpecialActionUsed(state.isSpecialActionUsed(i));
+            if (penguin instanceof RockhopperPenguin) {
+                ((RockhopperPenguin) penguin).setPreparedToJump(state.isPreparedToJump(i));
+            }
+            for (int j = 0; j < state.getFoodCount(i); j++) {
+                penguin.collectFood(GameState.decodeFood(state.getCollectedFood(i, j)));
+            }
+            terrain.attach(penguin); // also removed penguins, they are part of the hash
+            penguins.add(penguin);
+        }
+        
+        // objects are added in the stored order, so every square gets the same order of objects
+        boardObjects = new ArrayList<>(state.getObjectCount());
+        for (int i = 0; i < state.getObjectCount(); i++) {
+            ObjectKind kind = state.getKind(i);
+            ITerrainObject shared = (level == null) ? null : level.sharedObject(i);
+            if (shared != null) {
+                boardObjects.add(shared); // already on the terrain through the layout
+                continue;
+            }
+            ITerrainObject obj;
+            if (kind.isPenguin()) {
+                obj = penguins.get(state.getData(i));
+            } else if (kind == ObjectKind.FOOD) {
+                obj = GameState.decodeFood(state.getData(i));
+            } else {
+                obj = newObject(kind, null);
+            }
+            terrain.addObject(obj, state.getCell(i));
+            if (obj instanceof HoleInIce && state.getData(i) == 1) {
+                terrain.plugHole((HoleInIce) obj);
+            }
+            if (!kind.isPenguin()) {
+                boardObjects.add(obj);
+            }
+        }
+        
+        playerIndex = state.getPlayerIndex();
+        playerPenguin = (input == null) ? null : penguins.get(playerIndex);
+        events.setPlayer(playerPenguin);
+        turn = state.getTurn();
+        penguinIndex = state.getPenguinIndex();
+    }
+    
+    /**
+     * Creates an independent copy of this game for lookahead: headless, every penguin is AI-controlled
+     * and it draws from its own random stream created from the given seed.
+     * Playing the fork never changes this game.
+     */
+    public GameController fork(long forkSeed) {
+        return fromState(snapshot(), forkSeed);
+    }
+    
+    // whether the object still lies on the terrain (removed objects may keep their last position)
+    private boolean isOnTerrain(ITerrainObject obj) {
+        Position pos = obj.getPosition();
+        if (pos == null || !terrain.isValid(pos)) {
+            return false;
+        }
+        List<ITerrainObject> objects = terrain.getObjectsAt(pos);
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i) == obj) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // name of the penguin with the given index in playing order
+    private static String penguinName(int index) {
+        return index < PENGUIN_NAMES.length ? PENGUIN_NAMES[index] : "P" + (index + 1);
+    }
+    
+    // creates a new penguin or hazard of the given kind (food is created from its type and weight)
+    private static ITerrainObject newObject(ObjectKind kind, String name) {
+        switch(kind) {
+            case KING_PENGUIN: return new KingPenguin(name);
+            case EMPEROR_PENGUIN: return new EmperorPenguin(name);
+            case ROYAL_PENGUIN: return new RoyalPenguin(name);
+            case ROCKHOPPER_PENGUIN: return new RockhopperPenguin(name);
+            case LIGHT_ICE_BLOCK: return new LightIceBlock();
+            case HEAVY_ICE_BLOCK: return new HeavyIceBlock();
+            case SEA_LION: return new SeaLion();
+            case HOLE_IN_ICE: return new HoleInIce();
+            default:
+                throw new IllegalArgumentException("Cannot create " + kind + " without its data");
+        }
     }
     
     /**
      * Initialize all game components:
      */
     private void initializeGame() {
-        terrain = new IcyTerrain();
+        terrain = new IcyTerrain(config.getRows(), config.getCols(), config.getBackend());
+        terrain.setEvents(events);
+        freeCells = new FreeCellPool(terrain.getCellCount());
         
-        // Generate 3 penguins and place them on edge squares. ( Edge positions are determined by a seperate private method)
+        // Generate the penguins and place them on edge squares. ( Edge positions are determined by a seperate private method)
         //It is important to generate penguins first to guarentee the available edge squares
         penguins = generatePenguins();
         
         // Randomly assign one penguin to the player
-        playerPenguin = penguins.get(random.nextInt(3));
+        // (headless games draw it too so they generate exactly the same board as an interactive game)
+        playerIndex = random.nextInt(penguins.size());
+        playerPenguin = (input == null) ? null : penguins.get(playerIndex);
+        events.setPlayer(playerPenguin);
         
         // Place hazards on the grid
+        boardObjects = new ArrayList<>(config.getHazardCount() + config.getFoodCount());
         generateHazards();
         
         // Place food items on the grid
         generateFood();
+        freeCells = null; // only needed while generating
     }
     
     /**
-     * Generates 3 penguins with random types and place them on edge squares.
-     * returns the List of 3 generated penguins
+     * Generates the configured number of penguins (3 by default) with random types and place them on edge squares.
+     * returns the List of generated penguins
      */
     private List<Penguin> generatePenguins() {
 
         List<Penguin> penguins = new ArrayList<>(); // an array list to store penguins
+        FreeCellPool freeEdges = new FreeCellPool((int) config.getEdgeSquareCount());
         PenguinType[] types = PenguinType.values(); // Array of penguin types
         
-        // Create 3 penguins: P1, P2, P3
-        for (int i = 0; i < 3; i++) {
+        // Create the penguins: P1, P2, P3 ...
+        for (int i = 0; i < config.getPenguinCount(); i++) {
             // Randomly select a penguin type (repetitions allowed)
             PenguinType type = types[random.nextInt(types.length)];
-            String name = "P" + (i + 1);
+            String name = penguinName(i);
             
             // Create the appropriate penguin subclass based on type
             Penguin penguin;
@@ -127,14 +552,12 @@ public class GameController {
                     penguin = new KingPenguin(name);
             }
             
-            // Find an available edge position for this penguin
-            Position pos = getRandomEdgePosition();
-            while (!terrain.isEmpty(pos)) {
-                pos = getRandomEdgePosition();
-            }
+            // Take a random free edge square for this penguin
+            int cell = edgeCell(freeEdges.take(random.nextInt(freeEdges.size())));
+            freeCells.remove(cell);
             
             // Place the penguin on the terrain
-            terrain.addObject(penguin, pos);
+            terrain.addObject(penguin, cell);
             penguins.add(penguin);
         }
         
@@ -142,13 +565,13 @@ public class GameController {
     }
     
     /**
-     * Generate 15 hazards with random types and place them on the grid.
+     * Generate the configured number of hazards (15 by default) with random types and place them on the grid.
      * Each hazard has an equal chance of being any of the 4 types.
      * Hazards cannot be placed where penguins already exist.
      */
     private void generateHazards() {
-        // Create exactly 15 hazards
-        for (int i = 0; i < 15; i++) {
+        // Create exactly the configured number of hazards
+        for (int i = 0; i < config.getHazardCount(); i++) {
             IHazard hazard;
             
             // Randomly select a hazard type (equal probability)
@@ -171,79 +594,64 @@ public class GameController {
                     hazard = new LightIceBlock();
             }
             
-            // Find an empty position (no penguins or other hazards)
-            Position pos = getRandomPosition();
-            while (!terrain.isEmpty(pos)) {
-                pos = getRandomPosition();
-            }
+            // Take a random empty square (no penguins or other hazards)
+            int cell = takeFreeCell();
             
             // Place the hazard on the terrain
-            terrain.addObject((ITerrainObject)hazard, pos);
+            terrain.addObject((ITerrainObject)hazard, cell);
+            boardObjects.add(hazard);
         }
     }
     
     /**
-     * Generate 20 food items with random types and weights.
+     * Generate the configured number of food items (20 by default) with random types and weights.
      * Food items cannot be placed where penguins or hazards exist.
      */
     private void generateFood() {
         FoodType[] foodTypes = FoodType.values();
         
-        // Create exactly 20 food items
-        for (int i = 0; i < 20; i++) {
+        // Create exactly the configured number of food items
+        for (int i = 0; i < config.getFoodCount(); i++) {
             // Randomly select food type and weight
             FoodType type = foodTypes[random.nextInt(foodTypes.length)]; // equal probability
             int weight = random.nextInt(5) + 1;  // Weight between 1-5
             Food food = new Food(type, weight);
             
-            // Find a position that doesn't have penguins or hazards
-            Position pos = getRandomPosition();
-            while (!isPositionAvailableForFood(pos)) {
-                pos = getRandomPosition();
-            }
+            // Take a random square that doesn't have penguins, hazards or food
+            int cell = takeFreeCell();
             
             // Place the food on the terrain
-            terrain.addObject(food, pos);
+            terrain.addObject(food, cell);
+            boardObjects.add(food);
         }
     }
     
     /**
-     * Get a random position on the edge of the grid.
+     * The cell of the edge square with the given number (0 to getEdgeSquareCount() - 1):
+     * the top row, the bottom row, then the left and right columns without their corners.
      */
-    private Position getRandomEdgePosition() {
-        int side = random.nextInt(4);
-        // Edge squares are those with row=0, row=9, col=0, or col=9
-        switch(side) {
-            case 0: return new Position(0, random.nextInt(10));          // Top edge
-            case 1: return new Position(9, random.nextInt(10));          // Bottom edge
-            case 2: return new Position(random.nextInt(10), 0);          // Left edge
-            case 3: return new Position(random.nextInt(10), 9);          // Right edge
-            default: return new Position(0, 0);
+    private int edgeCell(int edge) {
+        int rows = config.getRows();
+        int cols = config.getCols();
+        if (rows == 1 || cols == 1) {
+            return edge; // every square is an edge square
         }
+        if (edge < cols) {
+            return terrain.cellOf(0, edge);                                  // Top edge
+        }
+        if (edge < 2 * cols) {
+            return terrain.cellOf(rows - 1, edge - cols);                    // Bottom edge
+        }
+        int side = edge - 2 * cols;
+        if (side < rows - 2) {
+            return terrain.cellOf(side + 1, 0);                              // Left edge
+        }
+        return terrain.cellOf(side - (rows - 2) + 1, cols - 1);              // Right edge
     }
     
-    //Get a random position anywhere on the 10x10 grid.
-    private Position getRandomPosition() {
-        return new Position(random.nextInt(10), random.nextInt(10));
-    }
-    
-    /**
-     * Check if a position is available for placing food.
-     * Food can be placed only if there are no penguins, hazards, OR EXISTING FOOD at that position.
-     * pos: Position to check
-     */
-    private boolean isPositionAvailableForFood(Position pos) {
-        List<ITerrainObject> objects = terrain.getObjectsAt(pos);
-        
-        // Check if any penguin, hazard, OR FOOD is already at this position
-        for (ITerrainObject obj : objects) {
-            // FIX: Added 'obj instanceof Food' to the condition
-            if (obj instanceof Penguin || obj instanceof IHazard || obj instanceof Food) {
-                return false;  // Position is occupied
-            }
-        }
-        
-        return true;  // Position is safe for food
+    // Takes a random empty square, one draw however full the board is (the config guarantees there is one)
+    private int takeFreeCell() {
+        return freeCells.take(random.nextInt(freeCells.size()));
     }
     
     /**
@@ -251,14 +659,17 @@ public class GameController {
      * Shows each penguin's name, type, and marks the player's penguin.
      */
     private void displayPenguinInfo() {
-        System.out.println("\nThese are the penguins on the icy terrain:");
+        if (headless) {
+            return;
+        }
+        println("\nThese are the penguins on the icy terrain:");
         
         for (Penguin penguin : penguins) {
             // Mark the player's penguin with an arrow
             // if penguin is playerPenguin it has a marker of ---> YOUR PENGUİN
             String marker = (penguin == playerPenguin) ? " ---> YOUR PENGUIN" : "";
             
-            System.out.println("- Penguin " + penguin.getName().charAt(1) + 
+            println("- Penguin " + penguin.getName().substring(1) + 
                              " (" + penguin.getName() + "): " + 
                              penguin.getPenguinTypeName() + marker);
         }
@@ -270,50 +681,44 @@ public class GameController {
      * 
      *  penguin The penguin whose turn it is
      *  turnNumber The current turn number (1-4)
+     *  returns the move played, null if the penguin did not move
      */
-    private void playTurn(Penguin penguin, int turnNumber) {
+    private Move playTurn(Penguin penguin, int turnNumber) {
         // Skip turn if penguin has been removed from the game
         if (penguin.isRemoved()) {
-            return;
+            return null;
         }
         
         // Displays turn header (states which's player turn it is)
-        String turnLabel = (penguin == playerPenguin) ? 
-            "*** Turn " + turnNumber + " " + penguin.getName() + " (Your Penguin):" :
-            "*** Turn " + turnNumber + " " + penguin.getName() + ":";
-        System.out.println("\n" + turnLabel);
+        events.publish(EventType.TURN_STARTED, penguin, null, null, turnNumber);
         
         // Check if penguin is stunned (skips turn)
         if (penguin.isStunned()) {
-            System.out.println(penguin.getName() + " is stunned and skips this turn.");
+            events.publish(EventType.TURN_SKIPPED, penguin, null, null, 0);
             penguin.setStunned(false);  // Remove stun for next turn to not penguin for keep Stunned.
-            return;
+            return null;
         }
         
         // Execute turn based on whether it's player or AI
-        if (penguin == playerPenguin) {
-            playPlayerTurn(penguin);
-        } else {
-            playAITurn(penguin);
-        }
+        Move move = (penguin == playerPenguin) ? playPlayerTurn(penguin) : playAITurn(penguin);
         
-        // Announce if penguin was removed during this turn
-        if (penguin.isRemoved()) {
-            System.out.println("*** " + penguin.getName() + " IS REMOVED FROM THE GAME!");
-        }
-        
-        // Display the updated grid after the turn
-        System.out.println("\nNew state of the grid:");
-        terrain.displayGrid();
+        // Announce if penguin was removed during this turn, then display the updated grid
+        events.publish(EventType.TURN_ENDED, penguin, null, null, penguin.isRemoved() ? 1 : 0);
+        displayGrid();
+        return move;
     }
     
     /**
      * Handle a player's turn by asking for input.
      * Player decides whether to use special action and which direction to move.
      * penguin: The player's penguin
+     * returns: the move played
      */
-    private void playPlayerTurn(Penguin penguin) {
+    private Move playPlayerTurn(Penguin penguin) {
 
+        // the AI turns after this one are computed while the player is typing
+        speculate(penguin);
+        
         //flag to determine whether player used his/her special action
         boolean useSpecial = false;
         
@@ -327,354 +732,251 @@ public class GameController {
         Direction dir = getUserDirection("Which direction will " + penguin.getName() + 
                                         " move? Answer with U (Up), D (Down), L (Left), R (Right) --> ");
         
-        // Uses special action if player choses so
+        Move move = Move.of(dir, useSpecial);
+        if (speculation != null) {
+            speculation.commit(move);
+        }
+        events.publish(EventType.MOVE_CHOSEN, penguin, null, dir, useSpecial ? GameEvent.MOVE_SPECIAL : 0);
+        executeMove(penguin, dir, useSpecial);
+        return move;
+    }
+    
+    // starts the background lines of the player's decisions if a penguin after the player has a strategy
+    private void speculate(Penguin penguin) {
+        if (headless || !speculative || strategies == null) {
+            return;
+        }
+        boolean anyStrategy = false;
+        for (PenguinStrategy strategy : strategies) {
+            anyStrategy |= strategy != null && strategy.isDeterministic();
+        }
+        if (!anyStrategy) {
+            return;
+        }
+        if (speculation == null) {
+            speculation = new Speculation();
+        }
+        speculation.start(snapshot(), strategies.clone(), !penguin.isSpecialActionUsed());
+    }
+    
+    /**
+     * Moves a penguin: the special action first (if used), then the slide.
+     * Does not draw random numbers, so the same move on the same board always ends the same way.
+     */
+    private void executeMove(Penguin penguin, Direction dir, boolean useSpecial) {
         if (useSpecial) {
-            announceSpecialAction(penguin, dir, true);
+            events.publish(EventType.SPECIAL_ACTION_USED, penguin, null, dir, 0);
             penguin.useSpecialAction(dir, terrain);
             
             // Royal Penguin's special action is just a single step
-            if (penguin instanceof RoyalPenguin) {
-                handlePositionAfterMove(penguin);
-                //Checks if penguin is removed (fell in water) before sliding
-                if (penguin.isRemoved())  return;
-                 // Don't slide after using Royal penguins ability
+            //Checks if penguin is removed (fell in water) before sliding
+            if (penguin instanceof RoyalPenguin && penguin.isRemoved()) {
+                return;
             }
         }
         
         // Executes the normal slide movement
         penguin.slide(dir, terrain);
-        
-        // Announces any food collected or collided hazards
-        handlePositionAfterMove(penguin);
     }
     
     /**
-     * Handle an AI penguin's turn with automated decision making.
-     * 
-     * AI behavior:
-     *  -special action handling
-     * - Prioritizes moving toward food
-     * - Otherwise moves toward hazards (except HoleInIce)
-     * - Last resort: moves in any direction (even falling into water)
-     * 
-     *  penguin: The AI-controlled penguin
+     * Plays the next step with the given decision instead of asking the player or the AI,
+     * and returns a mark for undoMove. Stunned or removed penguins ignore the decision like in a normal turn,
+     * the special action is only used if it is still available.
+     * No turn messages are printed (listeners only get the events of the move itself)
+     * and no random numbers are drawn, so a search can try moves on this game
+     * and undo them without copying the board.
      */
-    private void playAITurn(Penguin penguin) {
-        boolean useSpecial = false;
-        
-        //chooses the best direction (Prioritizing Food)
-        Direction chosenDir = chooseAIDirection(penguin); 
-        
-        // then checks if we need to use Special Action based on that choice
-        if (penguin instanceof RockhopperPenguin && !penguin.isSpecialActionUsed()) {
-            // Only checks for hazards on the specific  path we just chose
-            List<Direction> hazardDirs = getDirectionsToHazards(penguin, false);
-            
-            // If the path we want to take has a hazard, we MUST jump
-            if (hazardDirs.contains(chosenDir)) {
-                useSpecial = true;
-                System.out.println(penguin.getName() + " will automatically USE its special action.");
-            }
-        } 
-        // Logic for other penguins (30% chance)
-        else if (!penguin.isSpecialActionUsed() && random.nextDouble() < 0.3) {
-            useSpecial = true;                      
-            
-            if (penguin instanceof RoyalPenguin) {
-                System.out.println(penguin.getName() + " chooses to USE its special action.");
+    public int applyMove(Direction dir, boolean useSpecial) {
+        if (terrain == null) {
+            initializeGame();
+        }
+        if (isFinished()) {
+            throw new IllegalStateException("The game is over");
+        }
+        int mark = terrain.mark();
+        Penguin penguin = penguins.get(penguinIndex);
+        if (!penguin.isRemoved()) {
+            if (penguin.isStunned()) {
+                penguin.setStunned(false);
             } else {
-                System.out.println(penguin.getName() + " chooses to use its special action.");
+                executeMove(penguin, dir, useSpecial && !penguin.isSpecialActionUsed());
             }
-        } else {
-            System.out.println(penguin.getName() + " does NOT to use its special action.");
         }
-        
-        // Announcement
-        System.out.println(penguin.getName() + " chooses to move " + getDirectionName(chosenDir) + ".");
-        
-        // Execution
-        if (useSpecial) {
-            announceSpecialAction(penguin, chosenDir, false);
-            penguin.useSpecialAction(chosenDir, terrain);
-            
-            if (penguin instanceof RoyalPenguin) {
-                handlePositionAfterMove(penguin);
-                // Check if penguin is removed before sliding
-                if (penguin.isRemoved()) return;
-            }
+        penguinIndex++;
+        if (penguinIndex == penguins.size()) {
+            penguinIndex = 0;
+            turn++;
         }
-        
-        penguin.slide(chosenDir, terrain);
-        handlePositionAfterMove(penguin);
+        events.flush();
+        return mark;
     }
     
-    /**
-     * Announce what happens when a penguin uses its special action.
-     * Different messages for different penguin types.
-     * 
-     * penguin: The penguin which using its special action
-     * dir: The direction of the movement
-     * isPlayer Whether this is the player's penguin
-     */
-    private void announceSpecialAction(Penguin penguin, Direction dir, boolean isPlayer) {
-        if (penguin instanceof KingPenguin) {
-            // King can stop at the 5th square
-            // Announcement happens after the slide completes
-        } else if (penguin instanceof EmperorPenguin) {
-            // Emperor can stop at 3rd square
-            // Announcement happens after the slide completes
-        } else if (penguin instanceof RoyalPenguin) {
-            // Royal moves one square
-            if (!isPlayer) {
-                // For AI, tries to find a safe direction
-                Direction safeDir = getSafeDirectionForRoyal(penguin);
-                if (safeDir != null) {
-                    dir = safeDir;
-                }
-            }
-            System.out.println(penguin.getName() + " moves one square to the " + 
-                             getDirectionName(dir) + ".");
-        } else if (penguin instanceof RockhopperPenguin) {
-            // Rockhopper prepares to jump
-            System.out.println(penguin.getName() + " prepares to jump over a hazard.");
+    public int applyMove(Move move) {
+        return applyMove(move.getDirection(), move.isSpecial());
+    }
+    
+    // rolls back the step applied with the given mark, steps must be undone in reverse order
+    public void undoMove(int mark) {
+        terrain.undo(mark);
+        if (penguinIndex == 0) {
+            penguinIndex = penguins.size();
+            turn--;
         }
+        penguinIndex--;
     }
     
     /**
-     * Handle announcements after a penguin moves.
-     * Announces food collection, falling into water, or hitting hazards.
-     * 
-     * @param penguin The penguin that just moved
+     * Zobrist hash of the whole game state: the terrain hash (objects, plugged holes, penguin flags and held food)
+     * combined with whose turn it is. Equal states, also in forks and restored games, have equal hashes.
      */
-    private void handlePositionAfterMove(Penguin penguin) {
-        // Check if whether penguin fell off the grid or not
-        if (penguin.isRemoved()) {
-            return;  // Will be announced in playTurn()
+    public long hash() {
+        if (terrain == null) {
+            initializeGame();
         }
-        
-        // Check if penguin collected any food
-        List<Food> collectedFood = penguin.getCollectedFood();
-        if (!collectedFood.isEmpty()) { // if penguin did not collect eny food
-            Food lastFood = collectedFood.get(collectedFood.size() - 1);
-            
-            
-            String foodTypeStr = lastFood.getType().toString();
-            String foodName = foodTypeStr.charAt(0) + foodTypeStr.substring(1).toLowerCase();
-            
-            System.out.println(penguin.getName() + " takes the " + 
-                             foodName + " on the ground. (Weight " + 
-                             lastFood.getWeight() + " units)");
+        return terrain.getHash() ^ Zobrist.stepKey(getStep());
+    }
+    
+    public IcyTerrain getTerrain() { return terrain; }
+    
+    public int getPlayerIndex() {
+        if (terrain == null) {
+            initializeGame();
         }
+        return playerIndex;
     }
     
     /**
-     * Chooses the best direction for an AI penguin to move.
-     * 
-     * Priorities
-     * 1. Directions that lead to food (highest priority)
-     * 2. Directions that lead to hazards (except HoleInIce)
-     * 3. Any random direction (last resort, even if it means falling)
-     * 
-     * penguin: The AI penguin
-     * returns thhe chosen direction
+     * Restarts the random stream of this game with a new seed. A solver uses it to make the built-in AI
+     * play the same way every time it reaches the same step, whatever happened before.
      */
-    private Direction chooseAIDirection(Penguin penguin) {
-        // Priority 1: Move toward food
-        List<Direction> foodDirs = getDirectionsToFood(penguin);
-        if (!foodDirs.isEmpty()) {
-            return foodDirs.get(random.nextInt(foodDirs.size()));
-        }
-        
-        // Priority 2: Move toward hazards except HoleINIce
-        List<Direction> hazardDirs = getDirectionsToHazards(penguin, true);
-        if (!hazardDirs.isEmpty()) {
-            return hazardDirs.get(random.nextInt(hazardDirs.size()));
-        }
-        
-        // Priority 3: Move in any random direction (last resort)
-        Direction[] allDirs = Direction.values();
-        return allDirs[random.nextInt(allDirs.length)];
+    public void reseed(long newSeed) {
+        random = new SplittableRandom(newSeed);
+    }
+    
+    // all penguins of the game in playing order, read-only
+    public List<Penguin> getPenguins() { return Collections.unmodifiableList(penguins); }
+    
+    // the penguin that plays the next step
+    public Penguin getCurrentPenguin() {
+        return penguins.get(penguinIndex);
+    }
+    
+    public int getCurrentPenguinIndex() { return penguinIndex; }
+    
+    // number of steps played so far: (turn - 1) * penguins + index of the next penguin
+    public int getStep() {
+        return (turn - 1) * config.getPenguinCount() + penguinIndex;
     }
     
     /**
-     * Find all directions that lead to food items.
-     * Scans in each direction until hitting the edge or another object.
-     * 
-     * @param penguin The penguin to check from
-     * @return List of directions that have food in them
+     * Starts recording every change and returns a mark for undoTo.
+     * Steps played with playStep or applyMove after the mark can then be rolled back at once.
      */
-    private List<Direction> getDirectionsToFood(Penguin penguin) {
-        List<Direction> directions = new ArrayList<>();
-        Position pos = penguin.getPosition();
-        
-        // Check each of the 4 directions
-        for (Direction dir : Direction.values()) {
-            Position checkPos = pos.getNextPosition(dir);
-            
-            // Slide along this direction until we hit the edge
-            while (checkPos.isValid()) {
-                List<ITerrainObject> objects = terrain.getObjectsAt(checkPos);
-                
-                // Check if there's food at this position
-                for (ITerrainObject obj : objects) {
-                    if (obj instanceof Food) {
-                        directions.add(dir);
-                        break;  // Found food in this direction, no need to check further
-                    }
-                }
-                
-                // Move to next square in this direction
-                checkPos = checkPos.getNextPosition(dir);
-            }
+    public int mark() {
+        if (terrain == null) {
+            initializeGame();
         }
-        
-        return directions;
+        return terrain.mark();
+    }
+    
+    // rolls the game back to a mark taken at the given step (see mark and getStep)
+    public void undoTo(int mark, int step) {
+        terrain.undo(mark);
+        turn = step / config.getPenguinCount() + 1;
+        penguinIndex = step % config.getPenguinCount();
     }
     
     /**
-     * Finds all directions that lead to hazards.
+     * Handle an AI penguin's turn: its strategy chooses the move, penguins without a strategy
+     * play the built-in AI (HeuristicStrategy).
      * 
-     * penguin: The penguin to check from
-     * excludeHoleInIce: Whether to exclude HoleInIce from the search or not
-     * returns the list of directions that have hazards in them
+     *  penguin: The AI-controlled penguin
+     *  returns: the move played, with the special action only if it was still available
      */
-    private List<Direction> getDirectionsToHazards(Penguin penguin, boolean excludeHoleInIce) {
-        List<Direction> directions = new ArrayList<>();
-        Position pos = penguin.getPosition();
+    private Move playAITurn(Penguin penguin) {
+        PenguinStrategy strategy = (strategies == null) ? null : strategies[penguinIndex];
+        Move move = null;
+        if (strategy == null) {
+            strategy = HeuristicStrategy.INSTANCE;
+        } else if (speculation != null) {
+            move = speculation.next(hash());
+        }
+        if (move == null) {
+            move = strategy.chooseMove(this);
+        }
         
-        // Check each of the 4 directions
-        for (Direction dir : Direction.values()) {
-            Position checkPos = pos.getNextPosition(dir);
-            
-            // Slide along this direction until we hit the edge
-            while (checkPos.isValid()) {
-                List<ITerrainObject> objects = terrain.getObjectsAt(checkPos);
-                
-                // Check if there's a hazard at this position
-                for (ITerrainObject obj : objects) {
-                    if (obj instanceof IHazard) {
-                        // Skip HoleInIce if requested so AI can avoid it
-                        if (excludeHoleInIce && obj instanceof HoleInIce) {
-                            continue;
-                        }
-                        
-                        directions.add(dir);
-                        break;  // Found hazard in this direction
-                    }
-                }
-                
-                checkPos = checkPos.getNextPosition(dir);
-            }
+        boolean useSpecial = move.isSpecial() && !penguin.isSpecialActionUsed();
+        int flags = useSpecial ? GameEvent.MOVE_SPECIAL : 0; // MOVE_CHOSEN flags
+        if (useSpecial && strategy == HeuristicStrategy.INSTANCE && penguin instanceof RockhopperPenguin) {
+            flags |= GameEvent.MOVE_AUTOMATIC; // the built-in AI only jumps when a hazard is in the way
         }
         
-        return directions;
+        // Announcement and execution
+        events.publish(EventType.MOVE_CHOSEN, penguin, null, move.getDirection(), flags);
+        executeMove(penguin, move.getDirection(), useSpecial);
+        return Move.of(move.getDirection(), useSpecial);
     }
     
     /**
-     * Find a safe direction for Royal Penguin's single-step move.
-     * Safe means: not into a hazard, not into another penguin, and not off the edge.
-     * penguin: The Royal Penguin
-     * returns a safe direction, or null if no safe direction exists
+     * Draws from the random stream of this game, for strategies that play like the built-in AI.
+     * Moves chosen with it are not a function of the game state (see PenguinStrategy.isDeterministic).
      */
-    private Direction getSafeDirectionForRoyal(Penguin penguin) {
-        //list of safe directions
-        List<Direction> safeDirs = new ArrayList<>();
-        Position pos = penguin.getPosition();
-        
-        // Check each direction for safety
-        for (Direction dir : Direction.values()) {
-            Position next = pos.getNextPosition(dir);
-            
-            // Must be within bounds
-            if (next.isValid()) {
-                List<ITerrainObject> objects = terrain.getObjectsAt(next);
-                boolean safe = true;
-                
-                //Check if position contains a Hazard or a Penguin
-                for (ITerrainObject obj : objects) {
-                    if (obj instanceof IHazard || obj instanceof Penguin) {
-                        safe = false;
-                        break;
-                    }
-                }
-                
-                if (safe) {
-                    safeDirs.add(dir);
-                }
-            }
-        }
-        
-        // Return a random safe direction, or null if none exist
-        if (safeDirs.isEmpty()) {
-            return null;
+    public int nextRandomInt(int bound) {
+        return random.nextInt(bound);
+    }
+    
+    public double nextRandomDouble() {
+        return random.nextDouble();
+    }
+    
+    // Shows the grid with the renderer of this game (headless games use NullGridRenderer), after the pending events
+    private void displayGrid() {
+        events.flush();
+        renderer.render(terrain);
+    }
+    
+    // Console output helpers, headless games print nothing. Pending events are narrated first.
+    private void print(String text) {
+        events.flush();
+        if (!headless) {
+            out.print(text);
         }
-        return safeDirs.get(random.nextInt(safeDirs.size()));
     }
     
-    /**
-     * Convert a Direction enum to the name of the direction for display.
-     * dir The direction
-     * returns direction name
-     */
-    private String getDirectionName(Direction dir) {
-        switch(dir) {
-            case UP: return "UPWARDS";
-            case DOWN: return "DOWNWARDS";
-            case LEFT: return "to the LEFT";
-            case RIGHT: return "to the RIGHT";
-            default: return "";
+    private void println(String text) {
+        events.flush();
+        if (!headless) {
+            out.println(text);
         }
     }
     
     /**
      * Prompt the user for a Yes/No answer.
-     * Keeps asking until a valid input (Y or N) is provided.
-     * Input is not case sensitive
+     * The answer comes from the player input (console or replay) and is recorded in the replay log.
      * 
      * prompt: The question to ask the user
      * returns true if user answered Y, false if user answered N
      */
     private boolean getUserYesNo(String prompt) {
-        // loop continues until user enters a valid input.
-        while (true) {
-            System.out.print(prompt);
-            String input = scanner.nextLine().trim().toUpperCase(); // trims the spaces and converts y,n to Y,N
-            
-            if (input.equals("Y")) {
-                return true;
-            }
-            if (input.equals("N")) {
-                return false;
-            }
-            
-            // Invalid input, ask again
-            System.out.println("Invalid input. Please enter Y or N.");
-        }
+        events.flush(); // the question comes after the narration so far
+        boolean answer = input.getYesNo(prompt);
+        replayLog.recordYesNo(answer); // every decision is recorded so the game can be replayed
+        return answer;
     }
     
     /**
      * Prompts the user for a direction.
-     * Keeps asking until a valid input (U/D/L/R) is provided.
-     * Input is not case senswitive
+     * The direction comes from the player input (console or replay) and is recorded in the replay log.
      * 
      * prompt: the question to ask the user
      * returns: the chosen Direction
      */
     private Direction getUserDirection(String prompt) {
-        // continues until user enters a valid input
-        while (true) {
-            System.out.print(prompt);
-            String input = scanner.nextLine().trim().toUpperCase(); // again trims and converts u,l,d,r to U,L,D,R if necessary
-            
-            switch(input) {
-                case "U": return Direction.UP;
-                case "D": return Direction.DOWN;
-                case "L": return Direction.LEFT;
-                case "R": return Direction.RIGHT;
-                default: 
-                    System.out.println("Invalid input. Please use U, D, L, or R.");
-            }
-        }
+        events.flush();
+        Direction dir = input.getDirection(prompt);
+        replayLog.recordDirection(dir);
+        return dir;
     }
     
     /**
@@ -683,8 +985,11 @@ public class GameController {
      * Displays each penguin's collected food items and total weight.
      */
     private void displayGameOver() {
-        System.out.println("\n***** GAME OVER *****");
-        System.out.println("***** SCOREBOARD FOR THE PENGUINS *****");
+        if (headless) {
+            return;
+        }
+        println("\n***** GAME OVER *****");
+        println("***** SCOREBOARD FOR THE PENGUINS *****");
         
         // Sort penguins by total food weight (highest to lowest)
         List<Penguin> sortedPenguins = new ArrayList<>(penguins);
@@ -706,25 +1011,25 @@ public class GameController {
             String place = getPlaceSuffix(currentRank);
             String yourMarker = (p == playerPenguin) ? " (Your Penguin)" : ""; // adds "your penguin" string if the penguin is controlled by the user.
             
-            System.out.println( place + " place: " + p.getName() + yourMarker);
+            println( place + " place: " + p.getName() + yourMarker);
             
             // Show collected food items
             if (p.getCollectedFood().isEmpty()) {
-                System.out.println("|---> Food items: None");
-                System.out.println("|---> Total weight: 0 units");
+                println("|---> Food items: None");
+                println("|---> Total weight: 0 units");
             } else {
-                System.out.print("|---> Food items: ");
+                print("|---> Food items: ");
                 
                 // List all food items collected
                 for (int j = 0; j < p.getCollectedFood().size(); j++) {
-                    System.out.print(p.getCollectedFood().get(j).toString());
+                    print(p.getCollectedFood().get(j).toString());
                     if (j < p.getCollectedFood().size() - 1) {
-                        System.out.print(", ");
+                        print(", ");
                     }
                 }
                 
-                System.out.println();
-                System.out.println("|---> Total weight: " + p.getTotalFoodWeight() + " units");
+                println("");
+                println("|---> Total weight: " + p.getTotalFoodWeight() + " units");
             }
         }
     }
@@ -733,10 +1038,14 @@ public class GameController {
      * Convert a numeric place (1, 2, 3) to ordinal suffix (1st, 2nd, 3rd).
     */
     private String getPlaceSuffix(int place) {
-        switch(place) {
-            case 1: return "1st";
-            case 2: return "2nd";
-            case 3: return "3rd";
+        // 11th, 12th and 13th are exceptions of the 1st, 2nd, 3rd pattern (21st, 22nd, ...)
+        if (place % 100 >= 11 && place % 100 <= 13) {
+            return place + "th";
+        }
+        switch(place % 10) {
+            case 1: return place + "st";
+            case 2: return place + "nd";
+            case 3: return place + "rd";
             default: return place + "th";
         }
     }
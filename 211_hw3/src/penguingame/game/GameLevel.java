@@ -0,0 +1,63 @@
+package penguingame.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import penguingame.enums.ObjectKind;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.hazards.HeavyIceBlock;
+import penguingame.terrain.BoardLayout;
+
+/**
+ * A starting state that many games are played from at once, for example 100k games of one level on all cores.
+ *
+ * The heavy ice blocks and food items of the state never move and never change, so they are created once and
+ * kept in a BoardLayout that every game of the level shares, together with the interned positions of the board.
+ * A game started with GameController.fromLevel only creates its penguins and the hazards that move or change
+ * (light ice blocks, sea lions, holes) and keeps the squares it changes in an overlay.
+ * A level never changes after it is created and can be used from any number of threads.
+ */
+public final class GameLevel {
+    private final GameState start;
+    private final BoardLayout layout;
+    private final ITerrainObject[] shared; // by object of the start state, null for the objects every game creates
+
+    public GameLevel(GameState start) {
+        this.start = start;
+        this.shared = new ITerrainObject[start.getObjectCount()];
+        List<ITerrainObject> objects = new ArrayList<>();
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < start.getObjectCount(); i++) {
+            ObjectKind kind = start.getKind(i);
+            int cell = start.getCell(i);
+            // objects are stored in cell order, a shared object must be alone on its square
+            boolean alone = (i == 0 || start.getCell(i - 1) != cell)
+                    && (i == start.getObjectCount() - 1 || start.getCell(i + 1) != cell);
+            if (!alone) {
+                continue;
+            }
+            if (kind == ObjectKind.HEAVY_ICE_BLOCK) {
+                shared[i] = new HeavyIceBlock();
+            } else if (kind == ObjectKind.FOOD) {
+                shared[i] = GameState.decodeFood(start.getData(i));
+            } else {
+                continue;
+            }
+            objects.add(shared[i]);
+            cells.add(cell);
+        }
+        int[] cellArray = new int[cells.size()];
+        for (int i = 0; i < cellArray.length; i++) {
+            cellArray[i] = cells.get(i);
+        }
+        this.layout = new BoardLayout(start.getConfig().getRows(), start.getConfig().getCols(),
+                objects.toArray(new ITerrainObject[0]), cellArray);
+    }
+
+    // the state every game of the level starts in
+    public GameState getStart() { return start; }
+
+    public BoardLayout getLayout() { return layout; }
+
+    // the shared instance of an object of the start state, null if every game creates its own
+    ITerrainObject sharedObject(int object) { return shared[object]; }
+}
@@ -0,0 +1,79 @@
+package penguingame.game;
+
+import java.util.List;
+import penguingame.objects.penguins.Penguin;
+
+/**
+ * Final outcome of a finished game.
+ * Holds plain values only so results can be kept around after the game objects are gone.
+ */
+public class GameResult {
+    private final long seed;
+    private final String[] names;         // P1, P2, P3 ...
+    private final String[] typeNames;     // penguin type of each penguin
+    private final int[] totalWeights;     // collected food weight of each penguin
+    private final int[] foodCounts;       // number of collected food items of each penguin
+    private final boolean[] removed;      // whether the penguin fell off the grid or into the water
+    private final int playerIndex;        // index of the penguin assigned to the player
+
+    GameResult(long seed, List<Penguin> penguins, int playerIndex) {
+        int count = penguins.size();
+        this.seed = seed;
+        this.names = new String[count];
+        this.typeNames = new String[count];
+        this.totalWeights = new int[count];
+        this.foodCounts = new int[count];
+        this.removed = new boolean[count];
+        this.playerIndex = playerIndex;
+
+        for (int i = 0; i < count; i++) {
+            Penguin penguin = penguins.get(i);
+            names[i] = penguin.getName();
+            typeNames[i] = penguin.getPenguinTypeName();
+            totalWeights[i] = penguin.getTotalFoodWeight();
+            foodCounts[i] = penguin.getCollectedFood().size();
+            removed[i] = penguin.isRemoved();
+        }
+    }
+
+    public long getSeed() { return seed; }
+
+    public int getPenguinCount() { return names.length; }
+
+    public String getName(int index) { return names[index]; }
+
+    public String getTypeName(int index) { return typeNames[index]; }
+
+    public int getTotalWeight(int index) { return totalWeights[index]; }
+
+    public int getFoodCount(int index) { return foodCounts[index]; }
+
+    public boolean isRemoved(int index) { return removed[index]; }
+
+    public int getPlayerIndex() { return playerIndex; }
+
+    /**
+     * Rank of a penguin the same way the scoreboard computes it: 1 is the heaviest,
+     * penguins with equal weight share the same rank.
+     */
+    public int getRank(int index) {
+        int rank = 1;
+        for (int weight : totalWeights) {
+            if (weight > totalWeights[index]) {
+                rank++;
+            }
+        }
+        return rank;
+    }
+
+    // index of the first penguin with the highest total weight
+    public int getWinnerIndex() {
+        int winner = 0;
+        for (int i = 1; i < totalWeights.length; i++) {
+            if (totalWeights[i] > totalWeights[winner]) {
+                winner = i;
+            }
+        }
+        return winner;
+    }
+}
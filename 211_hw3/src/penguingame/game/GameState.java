@@ -0,0 +1,135 @@
+package penguingame.game;
+
+import penguingame.enums.FoodType;
+import penguingame.enums.ObjectKind;
+import penguingame.objects.food.Food;
+
+/**
+ * Snapshot of a game between two steps, stored in primitive arrays only.
+ * A state shares nothing with the game it was taken from and never changes,
+ * so it can be kept, compared or restored any number of times (see GameController.snapshot/restore/fork).
+ *
+ * Board objects are stored square by square in cell order (see Cells) and, inside a square,
+ * in the order they lie there, so restoring a state rebuilds exactly the same squares.
+ */
+public class GameState {
+    // penguin flags
+    private static final byte STUNNED = 1;
+    private static final byte REMOVED = 2;
+    private static final byte SPECIAL_ACTION_USED = 4;
+    private static final byte PREPARED_TO_JUMP = 8;
+
+    private static final ObjectKind[] KINDS = ObjectKind.values();
+    private static final FoodType[] FOOD_TYPES = FoodType.values();
+
+    private final GameConfig config;
+    private final int playerIndex;
+    private final int turn;           // turn of the next step, getTurns() + 1 when the game is over
+    private final int penguinIndex;   // penguin that plays the next step
+
+    // objects on the board
+    private final byte[] kinds;       // ObjectKind ordinal
+    private final int[] cells;
+    private final int[] data;         // penguin: its index, food: see encodeFood, hole: 1 if plugged
+
+    // penguins, also the removed ones
+    private final byte[] penguinKinds;
+    private final int[] penguinCells;  // Cells.NONE if the penguin is not on the board
+    private final byte[] penguinFlags;
+    private final int[] foodStart;     // food of penguin i is collectedFood[foodStart[i] .. foodStart[i + 1])
+    private final int[] collectedFood; // encodeFood values in collecting order
+
+    GameState(GameConfig config, int playerIndex, int turn, int penguinIndex,
+            byte[] kinds, int[] cells, int[] data,
+            byte[] penguinKinds, int[] penguinCells, byte[] penguinFlags, int[] foodStart, int[] collectedFood) {
+        this.config = config;
+        this.playerIndex = playerIndex;
+        this.turn = turn;
+        this.penguinIndex = penguinIndex;
+        this.kinds = kinds;
+        this.cells = cells;
+        this.data = data;
+        this.penguinKinds = penguinKinds;
+        this.penguinCells = penguinCells;
+        this.penguinFlags = penguinFlags;
+        this.foodStart = foodStart;
+        this.collectedFood = collectedFood;
+    }
+
+    public GameConfig getConfig() { return config; }
+
+    public int getPlayerIndex() { return playerIndex; }
+
+    public int getTurn() { return turn; }
+
+    public int getPenguinIndex() { return penguinIndex; }
+
+    public boolean isFinished() { return turn > config.getTurns(); }
+
+    // board objects, in cell order
+
+    public int getObjectCount() { return kinds.length; }
+
+    public ObjectKind getKind(int object) { return KINDS[kinds[object]]; }
+
+    public int getCell(int object) { return cells[object]; }
+
+    int getData(int object) { return data[object]; }
+
+    // total weight of the food items still lying on the board
+    public int getFoodWeightOnBoard() {
+        int total = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            if (KINDS[kinds[i]] == ObjectKind.FOOD) {
+                total += foodWeight(data[i]);
+            }
+        }
+        return total;
+    }
+
+    // penguins
+
+    public int getPenguinCount() { return penguinKinds.length; }
+
+    public ObjectKind getPenguinKind(int penguin) { return KINDS[penguinKinds[penguin]]; }
+
+    public int getPenguinCell(int penguin) { return penguinCells[penguin]; }
+
+    public boolean isStunned(int penguin) { return (penguinFlags[penguin] & STUNNED) != 0; }
+
+    public boolean isRemoved(int penguin) { return (penguinFlags[penguin] & REMOVED) != 0; }
+
+    public boolean isSpecialActionUsed(int penguin) { return (penguinFlags[penguin] & SPECIAL_ACTION_USED) != 0; }
+
+    public boolean isPreparedToJump(int penguin) { return (penguinFlags[penguin] & PREPARED_TO_JUMP) != 0; }
+
+    public int getFoodCount(int penguin) { return foodStart[penguin + 1] - foodStart[penguin]; }
+
+    public int getTotalWeight(int penguin) {
+        int total = 0;
+        for (int i = foodStart[penguin]; i < foodStart[penguin + 1]; i++) {
+            total += foodWeight(collectedFood[i]);
+        }
+        return total;
+    }
+
+    int getCollectedFood(int penguin, int index) { return collectedFood[foodStart[penguin] + index]; }
+
+    static byte penguinFlags(boolean stunned, boolean removed, boolean specialActionUsed, boolean preparedToJump) {
+        return (byte) ((stunned ? STUNNED : 0) | (removed ? REMOVED : 0)
+                | (specialActionUsed ? SPECIAL_ACTION_USED : 0) | (preparedToJump ? PREPARED_TO_JUMP : 0));
+    }
+
+    // a food item as a single int: weight in the high bits, FoodType ordinal in the lowest byte
+    static int encodeFood(Food food) {
+        return food.getWeight() << 8 | food.getType().ordinal();
+    }
+
+    static Food decodeFood(int code) {
+        return new Food(FOOD_TYPES[code & 0xFF], foodWeight(code));
+    }
+
+    private static int foodWeight(int code) {
+        return code >>> 8;
+    }
+}
@@ -0,0 +1,228 @@
+package penguingame.game;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import penguingame.enums.FoodType;
+import penguingame.enums.ObjectKind;
+import penguingame.enums.TerrainBackend;
+import penguingame.util.Cells;
+
+/**
+ * Compact binary form of a GameState, a few bytes per object.
+ *
+ * Numbers are unsigned varints (7 bits per byte, the high bit says another byte follows). Objects are stored in
+ * cell order, so their squares are written as the distance to the square of the previous object, usually one byte.
+ * An object is its square, one byte with the kind (low 4 bits) and a plugged hole (bit 4), then for a penguin
+ * its index and for food the packed food (weight << 3 | FoodType ordinal). A penguin is one byte with its kind
+ * and flags, its collected food count and the packed food items. The squares of the penguins are not stored,
+ * they follow from the penguins on the board.
+ *
+ * A position of the default game takes about 105 bytes, 117 at the start (38 objects and 3 penguins).
+ */
+public final class GameStateCodec {
+    private static final int VERSION = 1;
+    private static final int FOOD_TYPE_BITS = 3;
+    private static final int PLUGGED = 1 << 4; // object byte: the hole is plugged
+    private static final ObjectKind[] KINDS = ObjectKind.values();
+    private static final int FOOD_TYPES = FoodType.values().length;
+    private static final TerrainBackend[] BACKENDS = TerrainBackend.values();
+
+    static {
+        if (FOOD_TYPES > 1 << FOOD_TYPE_BITS || KINDS.length > 16) {
+            throw new IllegalStateException("Food types or object kinds do not fit the packed format");
+        }
+    }
+
+    private GameStateCodec() { }
+
+    // the state as a new array of exactly its encoded bytes
+    public static byte[] encode(GameState state) {
+        ByteBuffer buffer = ByteBuffer.allocate(maxEncodedSize(state));
+        encode(state, buffer);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * An upper bound of the encoded size, a buffer with this much room always takes the state.
+     */
+    public static int maxEncodedSize(GameState state) {
+        int collected = 0;
+        for (int penguin = 0; penguin < state.getPenguinCount(); penguin++) {
+            collected += state.getFoodCount(penguin);
+        }
+        return 1 + 13 * 5 + 1 + state.getObjectCount() * (5 + 1 + 5) + state.getPenguinCount() * (1 + 5)
+                + collected * 5;
+    }
+
+    /**
+     * Writes the state at the position of the buffer and moves the position past it.
+     * Throws BufferOverflowException if the buffer has less room than needed (see maxEncodedSize).
+     */
+    public static void encode(GameState state, ByteBuffer out) {
+        GameConfig config = state.getConfig();
+        if (state.getPenguinCount() != config.getPenguinCount()) {
+            throw new IllegalArgumentException(state.getPenguinCount() + " penguins in a game of "
+                    + config.getPenguinCount());
+        }
+        out.put((byte) VERSION);
+        putVarint(out, config.getRows());
+        putVarint(out, config.getCols());
+        putVarint(out, config.getPenguinCount());
+        putVarint(out, config.getHazardCount());
+        putVarint(out, config.getFoodCount());
+        putVarint(out, config.getTurns());
+        out.put((byte) config.getBackend().ordinal());
+        putVarint(out, state.getPlayerIndex());
+        putVarint(out, state.getTurn());
+        putVarint(out, state.getPenguinIndex());
+
+        putVarint(out, state.getObjectCount());
+        int previousCell = 0;
+        for (int i = 0; i < state.getObjectCount(); i++) {
+            ObjectKind kind = state.getKind(i);
+            int cell = state.getCell(i);
+            putVarint(out, cell - previousCell);
+            previousCell = cell;
+            boolean plugged = kind == ObjectKind.HOLE_IN_ICE && state.getData(i) == 1;
+            out.put((byte) (kind.ordinal() | (plugged ? PLUGGED : 0)));
+            if (kind == ObjectKind.FOOD) {
+                putVarint(out, packFood(state.getData(i)));
+            } else if (kind.isPenguin()) {
+                putVarint(out, state.getData(i));
+            }
+        }
+
+        for (int penguin = 0; penguin < state.getPenguinCount(); penguin++) {
+            int flags = GameState.penguinFlags(state.isStunned(penguin), state.isRemoved(penguin),
+                    state.isSpecialActionUsed(penguin), state.isPreparedToJump(penguin));
+            out.put((byte) (state.getPenguinKind(penguin).ordinal() | flags << 4));
+            putVarint(out, state.getFoodCount(penguin));
+            for (int j = 0; j < state.getFoodCount(penguin); j++) {
+                putVarint(out, packFood(state.getCollectedFood(penguin, j)));
+            }
+        }
+    }
+
+    public static GameState decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads a state from the position of the buffer and moves the position past it.
+     * Throws IllegalArgumentException if the bytes are not a state written by encode.
+     */
+    public static GameState decode(ByteBuffer in) {
+        try {
+            return read(in);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Encoded game state is cut off or corrupt", e);
+        }
+    }
+
+    private static GameState read(ByteBuffer in) {
+        int version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown game state version: " + version);
+        }
+        int rows = getVarint(in);
+        int cols = getVarint(in);
+        int penguinCount = getVarint(in);
+        int hazardCount = getVarint(in);
+        int foodCount = getVarint(in);
+        int turns = getVarint(in);
+        TerrainBackend backend = BACKENDS[in.get()];
+        GameConfig config = GameConfig.of(rows, cols, penguinCount, hazardCount, foodCount, turns, backend);
+        int playerIndex = getVarint(in);
+        int turn = getVarint(in);
+        int penguinIndex = getVarint(in);
+
+        int objectCount = getVarint(in);
+        if (objectCount < 0 || objectCount > in.remaining() / 2) { // an object takes at least 2 bytes
+            throw new IllegalArgumentException("More objects than bytes left: " + objectCount);
+        }
+        byte[] kinds = new byte[objectCount];
+        int[] cells = new int[objectCount];
+        int[] data = new int[objectCount];
+        int[] penguinCells = new int[penguinCount];
+        Arrays.fill(penguinCells, Cells.NONE);
+        int cell = 0;
+        for (int i = 0; i < objectCount; i++) {
+            cell += getVarint(in);
+            if (cell < 0 || cell >= rows * cols) {
+                throw new IllegalArgumentException("Object outside of the board: cell " + cell);
+            }
+            int code = in.get() & 0xFF;
+            ObjectKind kind = KINDS[code & 0xF];
+            kinds[i] = (byte) kind.ordinal();
+            cells[i] = cell;
+            if (kind == ObjectKind.FOOD) {
+                data[i] = unpackFood(getVarint(in));
+            } else if (kind.isPenguin()) {
+                data[i] = getVarint(in);
+                penguinCells[data[i]] = cell;
+            } else if (kind == ObjectKind.HOLE_IN_ICE) {
+                data[i] = (code & PLUGGED) != 0 ? 1 : 0;
+            }
+        }
+
+        byte[] penguinKinds = new byte[penguinCount];
+        byte[] penguinFlags = new byte[penguinCount];
+        int[] foodStart = new int[penguinCount + 1];
+        int[] collectedFood = new int[8];
+        for (int penguin = 0; penguin < penguinCount; penguin++) {
+            int code = in.get() & 0xFF;
+            penguinKinds[penguin] = (byte) KINDS[code & 0xF].ordinal();
+            penguinFlags[penguin] = (byte) (code >>> 4);
+            int count = getVarint(in);
+            long foodEnd = (long) foodStart[penguin] + count;
+            if (count < 0 || count > in.remaining() || foodEnd > Integer.MAX_VALUE) { // a food item takes at least 1 byte
+                throw new IllegalArgumentException("More food items than bytes left: " + count);
+            }
+            foodStart[penguin + 1] = (int) foodEnd;
+            if (foodStart[penguin + 1] > collectedFood.length) {
+                collectedFood = Arrays.copyOf(collectedFood, Math.max(collectedFood.length * 2, foodStart[penguin + 1]));
+            }
+            for (int j = foodStart[penguin]; j < foodStart[penguin + 1]; j++) {
+                collectedFood[j] = unpackFood(getVarint(in));
+            }
+        }
+        return new GameState(config, playerIndex, turn, penguinIndex, kinds, cells, data,
+                penguinKinds, penguinCells, penguinFlags, foodStart,
+                Arrays.copyOf(collectedFood, foodStart[penguinCount]));
+    }
+
+    // GameState.encodeFood (weight << 8 | type) to weight << 3 | type, one byte for weights up to 15
+    private static int packFood(int code) {
+        return (code >>> 8) << FOOD_TYPE_BITS | (code & 0xFF);
+    }
+
+    private static int unpackFood(int packed) {
+        int type = packed & ((1 << FOOD_TYPE_BITS) - 1);
+        if (type >= FOOD_TYPES) {
+            throw new IllegalArgumentException("Unknown food type: " + type);
+        }
+        return (packed >>> FOOD_TYPE_BITS) << 8 | type;
+    }
+
+    // unsigned LEB128, the value must not be negative
+    public static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is longer than 5 bytes");
+    }
+}
@@ -0,0 +1,48 @@
+package penguingame.game;
+
+import penguingame.enums.Direction;
+
+/**
+ * A decision of a penguin in one turn: the direction and whether the special action is used.
+ * There are only 8 moves, the same instances are always returned.
+ */
+public final class Move {
+    public static final int COUNT = 8;
+
+    private static final Move[] MOVES = new Move[COUNT];
+    static {
+        for (Direction dir : Direction.values()) {
+            MOVES[dir.ordinal() * 2] = new Move(dir, false);
+            MOVES[dir.ordinal() * 2 + 1] = new Move(dir, true);
+        }
+    }
+
+    private final Direction direction;
+    private final boolean special;
+
+    private Move(Direction direction, boolean special) {
+        this.direction = direction;
+        this.special = special;
+    }
+
+    public static Move of(Direction direction, boolean special) {
+        return MOVES[direction.ordinal() * 2 + (special ? 1 : 0)];
+    }
+
+    // the move with the given index (0 to COUNT - 1), see getIndex
+    public static Move byIndex(int index) {
+        return MOVES[index];
+    }
+
+    public Direction getDirection() { return direction; }
+
+    public boolean isSpecial() { return special; }
+
+    // direction ordinal * 2, plus 1 if the special action is used
+    public int getIndex() { return direction.ordinal() * 2 + (special ? 1 : 0); }
+
+    @Override
+    public String toString() {
+        return direction + (special ? " with special action" : "");
+    }
+}
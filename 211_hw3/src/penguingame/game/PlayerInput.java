@@ -0,0 +1,15 @@
+package penguingame.game;
+
+import penguingame.enums.Direction;
+
+/**
+ * Source of the decisions of the player's penguin.
+ * The console asks the user, a replay reads the decisions recorded in an earlier game.
+ */
+public interface PlayerInput {
+    // returns true if the player answered yes
+    boolean getYesNo(String prompt);
+
+    // returns the direction the player wants to move to
+    Direction getDirection(String prompt);
+}
@@ -0,0 +1,199 @@
+package penguingame.game;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A replay file written by ReplayRecorder, opened to jump to any step of the recorded game.
+ *
+ * seek(step) decodes the last keyframe at or before the step and plays the recorded moves after it with applyMove,
+ * so it costs one keyframe and at most keyframe turns * penguins moves, however long the game is.
+ * Moves do not draw random numbers, so the game reached is exactly the recorded one.
+ *
+ * The file is mapped read-only when it is opened and only the keyframe offsets are read then.
+ * Every seek returns a new game, a ReplayFile can be used by several threads at once.
+ */
+public final class ReplayFile {
+    private final ByteBuffer data;    // the whole file, never moved (readers use duplicates)
+    private final long seed;
+    private final int keyframeTurns;
+    private final int keyframeSteps;  // steps of a block
+    private final GameConfig config;
+    private final int firstStep;      // step of the first keyframe
+    private final int[] keyframes;    // offset of the keyframe of each block
+    private final int[] moves;        // offset of the first move of each block
+    private final int stepCount;      // recorded moves
+
+    private ReplayFile(ByteBuffer data) {
+        this.data = data;
+        ByteBuffer in = data.duplicate();
+        try {
+            byte[] magic = new byte[ReplayRecorder.MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, ReplayRecorder.MAGIC)) {
+                throw new IllegalArgumentException("Not a replay file");
+            }
+            seed = in.getLong();
+            keyframeTurns = GameStateCodec.getVarint(in);
+            if (keyframeTurns < 1) {
+                throw new IllegalArgumentException("Invalid keyframe interval: " + keyframeTurns);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Replay file is cut off", e);
+        }
+
+        // the blocks, up to the first keyframe that is cut off
+        int[] keyframeOffsets = new int[16];
+        int[] moveOffsets = new int[16];
+        int blocks = 0;
+        int steps = 0;
+        int blockSteps = Integer.MAX_VALUE; // known with the first keyframe
+        GameState first = null;
+        while (in.hasRemaining()) {
+            int offset = in.position();
+            int length;
+            try {
+                length = GameStateCodec.getVarint(in);
+            } catch (BufferUnderflowException e) {
+                break;
+            }
+            if (length > in.remaining()) {
+                break;
+            }
+            if (first == null) {
+                first = keyframe(offset);
+                blockSteps = (int) Math.min(Integer.MAX_VALUE, (long) keyframeTurns * first.getPenguinCount());
+            }
+            if (blocks == keyframeOffsets.length) {
+                keyframeOffsets = Arrays.copyOf(keyframeOffsets, blocks * 2);
+                moveOffsets = Arrays.copyOf(moveOffsets, blocks * 2);
+            }
+            keyframeOffsets[blocks] = offset;
+            moveOffsets[blocks++] = in.position() + length;
+            int count = Math.min(blockSteps, in.remaining() - length);
+            steps += count;
+            in.position(in.position() + length + count);
+            if (count < blockSteps) {
+                break; // the last block
+            }
+        }
+        if (first == null) {
+            throw new IllegalArgumentException("Replay file has no keyframe");
+        }
+        config = first.getConfig();
+        firstStep = stepOf(first);
+        keyframeSteps = blockSteps;
+        keyframes = Arrays.copyOf(keyframeOffsets, blocks);
+        moves = Arrays.copyOf(moveOffsets, blocks);
+        stepCount = steps;
+    }
+
+    /**
+     * Opens a replay file written by ReplayRecorder.
+     * Throws IllegalArgumentException if the file is not a replay file.
+     */
+    public static ReplayFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Replay file is too large: " + path);
+            }
+            // the mapping stays valid after the channel is closed
+            return new ReplayFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public long getSeed() { return seed; }
+
+    public GameConfig getConfig() { return config; }
+
+    public int getKeyframeTurns() { return keyframeTurns; }
+
+    public int getKeyframeCount() { return keyframes.length; }
+
+    // step of the first recorded position, 0 unless the recording started in the middle of a game
+    public int getFirstStep() { return firstStep; }
+
+    // step after the last recorded move, the end of the game once the whole game was recorded
+    public int getLastStep() { return firstStep + stepCount; }
+
+    /**
+     * The move played in the given step, null if the penguin was removed or stunned and did not move.
+     */
+    public Move getMove(int step) {
+        if (step < firstStep || step >= getLastStep()) {
+            throw new IllegalArgumentException("Step " + step + " is not recorded, the replay has steps "
+                    + firstStep + " to " + (getLastStep() - 1));
+        }
+        int block = (step - firstStep) / keyframeSteps;
+        int code = data.get(moves[block] + (step - firstStep) % keyframeSteps) & 0xFF;
+        if (code > ReplayRecorder.NO_MOVE) {
+            throw new IllegalArgumentException("Invalid move " + code + " at step " + step);
+        }
+        return code == ReplayRecorder.NO_MOVE ? null : Move.byIndex(code);
+    }
+
+    /**
+     * Creates a headless game at the given step (see GameController.getStep), from getFirstStep() to getLastStep().
+     * Random numbers of the game come from a new stream with the recorded seed.
+     */
+    public GameController seek(int step) {
+        if (step < firstStep || step > getLastStep()) {
+            throw new IllegalArgumentException("Step " + step + " is not recorded, the replay has steps "
+                    + firstStep + " to " + getLastStep());
+        }
+        int block = Math.min((step - firstStep) / keyframeSteps, keyframes.length - 1);
+        GameState state = keyframe(keyframes[block]);
+        int blockStep = firstStep + block * keyframeSteps;
+        if (stepOf(state) != blockStep) {
+            throw new IllegalArgumentException("Keyframe " + block + " is at step " + stepOf(state)
+                    + " instead of " + blockStep);
+        }
+        GameController game = GameController.fromState(state, seed);
+        for (int s = blockStep; s < step; s++) {
+            Move move = getMove(s);
+            if (move == null) {
+                if (!game.getCurrentPenguin().isRemoved() && !game.getCurrentPenguin().isStunned()) {
+                    throw new IllegalArgumentException("Step " + s + " has no move but the penguin can move");
+                }
+                move = Move.byIndex(0); // ignored by the removed or stunned penguin
+            }
+            game.applyMove(move);
+        }
+        game.getTerrain().stopRecording(); // applyMove keeps its changes for undoMove, the game does not need them
+        return game;
+    }
+
+    // seeks to the first step of the given turn, turns after the last one seek to the end of the replay
+    public GameController seekTurn(int turn) {
+        if (turn < 1) {
+            throw new IllegalArgumentException("Turns start at 1: " + turn);
+        }
+        long step = (long) (turn - 1) * config.getPenguinCount();
+        return seek((int) Math.min(step, getLastStep()));
+    }
+
+    private GameState keyframe(int offset) {
+        ByteBuffer in = data.duplicate();
+        in.position(offset);
+        try {
+            int length = GameStateCodec.getVarint(in);
+            int start = in.position();
+            GameState state = GameStateCodec.decode(in);
+            if (in.position() - start != length) {
+                throw new IllegalArgumentException("Keyframe at offset " + offset + " has the wrong length");
+            }
+            return state;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Keyframe at offset " + offset + " is cut off", e);
+        }
+    }
+
+    private static int stepOf(GameState state) {
+        return (state.getTurn() - 1) * state.getPenguinCount() + state.getPenguinIndex();
+    }
+}
@@ -0,0 +1,31 @@
+package penguingame.game;
+
+import penguingame.enums.Direction;
+
+/**
+ * Plays the decisions of a replay log back in the order they were recorded.
+ * Prompts are ignored, nothing is printed.
+ */
+public class ReplayInput implements PlayerInput {
+    private final ReplayLog log;
+    private int next;   // index of the next decision to play
+
+    public ReplayInput(ReplayLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public boolean getYesNo(String prompt) {
+        return log.yesNoAt(next++);
+    }
+
+    @Override
+    public Direction getDirection(String prompt) {
+        return log.directionAt(next++);
+    }
+
+    // true when every recorded decision has been played
+    public boolean isFinished() {
+        return next == log.getDecisionCount();
+    }
+}
@@ -0,0 +1,119 @@
+package penguingame.game;
+
+import penguingame.enums.Direction;
+import penguingame.enums.TerrainBackend;
+
+/**
+ * Everything needed to play a game again exactly as it was played:
+ * the seed, the settings and every decision of the player, in order.
+ * AI decisions are not stored, they follow from the seed.
+ *
+ * The log is written as one line of text, for example
+ * 1234;10;10;3;15;20;4;GRID;YRNUDL
+ * where Y/N answer the special action question and U/D/L/R are the chosen directions.
+ */
+public class ReplayLog {
+    private final long seed;
+    private final GameConfig config;
+    private char[] decisions = new char[16];
+    private int decisionCount;
+
+    public ReplayLog(long seed, GameConfig config) {
+        this.seed = seed;
+        this.config = config;
+    }
+
+    public long getSeed() { return seed; }
+
+    public GameConfig getConfig() { return config; }
+
+    public int getDecisionCount() { return decisionCount; }
+
+    public void recordYesNo(boolean answer) {
+        record(answer ? 'Y' : 'N');
+    }
+
+    public void recordDirection(Direction dir) {
+        record(directionCode(dir));
+    }
+
+    // Y or N at the given decision index, throws if the player made a different decision there
+    boolean yesNoAt(int index) {
+        char code = decisionAt(index);
+        if (code != 'Y' && code != 'N') {
+            throw new IllegalStateException("Replay expected a Y/N decision at " + index + " but found " + code);
+        }
+        return code == 'Y';
+    }
+
+    Direction directionAt(int index) {
+        char code = decisionAt(index);
+        switch(code) {
+            case 'U': return Direction.UP;
+            case 'D': return Direction.DOWN;
+            case 'L': return Direction.LEFT;
+            case 'R': return Direction.RIGHT;
+            default:
+                throw new IllegalStateException("Replay expected a direction at " + index + " but found " + code);
+        }
+    }
+
+    private char decisionAt(int index) {
+        if (index >= decisionCount) {
+            throw new IllegalStateException("Replay has only " + decisionCount + " decisions");
+        }
+        return decisions[index];
+    }
+
+    private void record(char code) {
+        if (decisionCount == decisions.length) {
+            char[] bigger = new char[decisions.length * 2];
+            System.arraycopy(decisions, 0, bigger, 0, decisionCount);
+            decisions = bigger;
+        }
+        decisions[decisionCount++] = code;
+    }
+
+    private static char directionCode(Direction dir) {
+        switch(dir) {
+            case UP: return 'U';
+            case DOWN: return 'D';
+            case LEFT: return 'L';
+            default: return 'R';
+        }
+    }
+
+    @Override
+    public String toString() {
+        return seed + ";" + config.getRows() + ";" + config.getCols() + ";" + config.getPenguinCount() + ";"
+                + config.getHazardCount() + ";" + config.getFoodCount() + ";" + config.getTurns() + ";"
+                + config.getBackend() + ";" + new String(decisions, 0, decisionCount);
+    }
+
+    /**
+     * Reads a log written by toString().
+     * Throws IllegalArgumentException if the text is not a valid replay log.
+     */
+    public static ReplayLog parse(String text) {
+        String[] parts = text.trim().split(";", -1);
+        if (parts.length != 9) {
+            throw new IllegalArgumentException("Invalid replay log: " + text);
+        }
+        ReplayLog log;
+        try {
+            GameConfig config = GameConfig.of(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                    Integer.parseInt(parts[3]), Integer.parseInt(parts[4]), Integer.parseInt(parts[5]),
+                    Integer.parseInt(parts[6]), TerrainBackend.valueOf(parts[7]));
+            log = new ReplayLog(Long.parseLong(parts[0]), config);
+        } catch (IllegalArgumentException e) { // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid replay log: " + text, e);
+        }
+        for (char code : parts[8].toCharArray()) {
+            if ("YNUDLR".indexOf(code) < 0) {
+                throw new IllegalArgumentException("Invalid decision '" + code + "' in replay log");
+            }
+            log.record(code);
+        }
+        return log;
+    }
+}
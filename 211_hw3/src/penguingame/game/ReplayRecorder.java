@@ -0,0 +1,93 @@
+package penguingame.game;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a replay file while a game is played (see GameController.setRecorder and ReplayFile).
+ *
+ * Unlike a ReplayLog, which only keeps the player's decisions and needs the whole game to be played again,
+ * the file keeps the move of every step, AI moves included, and the full state of the game every few turns.
+ * The file starts with an 8 byte header, the seed of the game (8 bytes) and the keyframe interval in turns (varint).
+ * Then blocks follow: a keyframe (the length of the state as a varint and the state as written by GameStateCodec)
+ * and the moves of the steps after it, one byte each (Move.getIndex, or NO_MOVE for a removed or stunned penguin).
+ * Every block but the last has the moves of keyframe turns * penguins steps.
+ *
+ * Only steps played with playStep are recorded, moves tried with applyMove are not.
+ * The file is complete once the recorder is closed, a file cut off by a crash still reads up to its last keyframe.
+ */
+public final class ReplayRecorder implements Closeable {
+    static final byte[] MAGIC = {'P', 'G', 'R', 'E', 'P', 'L', 'Y', '1'};
+    static final int NO_MOVE = Move.COUNT; // the penguin was removed or stunned and did not move
+
+    private final DataOutputStream out;
+    private final int keyframeTurns;
+    private GameController game;  // the recorded game, null until its first step
+    private int keyframeSteps;    // steps of a block
+    private int stepsInBlock;     // moves written since the last keyframe
+    private final ByteBuffer length = ByteBuffer.allocate(5); // varint in front of a keyframe
+
+    /**
+     * Creates (or replaces) the replay file, a keyframe is written at the first recorded step and every
+     * keyframeTurns turns after it. Smaller intervals seek faster and make larger files.
+     */
+    public ReplayRecorder(Path file, int keyframeTurns) throws IOException {
+        if (keyframeTurns < 1) {
+            throw new IllegalArgumentException("Keyframes need an interval of at least one turn: " + keyframeTurns);
+        }
+        this.keyframeTurns = keyframeTurns;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+    }
+
+    // called by the game before each step, writes the header with the first step and a keyframe at the start of a block
+    void beginStep(GameController game, long seed) {
+        try {
+            if (this.game == null) {
+                this.game = game;
+                keyframeSteps = (int) Math.min(Integer.MAX_VALUE, (long) keyframeTurns * game.getPenguins().size());
+                out.write(MAGIC);
+                out.writeLong(seed);
+                writeVarint(keyframeTurns);
+            } else if (this.game != game) {
+                throw new IllegalStateException("A replay recorder records a single game");
+            }
+            if (stepsInBlock == 0) {
+                byte[] state = GameStateCodec.encode(game.snapshot());
+                writeVarint(state.length);
+                out.write(state);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // called by the game after each step with the move played, null if the penguin did not move
+    void endStep(Move move) {
+        try {
+            out.write(move == null ? NO_MOVE : move.getIndex());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (++stepsInBlock == keyframeSteps) {
+            stepsInBlock = 0;
+        }
+    }
+
+    private void writeVarint(int value) throws IOException {
+        length.clear();
+        GameStateCodec.putVarint(length, value);
+        out.write(length.array(), 0, length.position());
+    }
+
+    // writes the rest of the file and closes it
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,160 @@
+package penguingame.game;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import penguingame.ai.PenguinStrategy;
+import penguingame.objects.penguins.Penguin;
+
+/**
+ * Plays the AI turns after the player's turn in the background while the player is still typing.
+ *
+ * When the player's turn starts, every decision the player can make (4 directions, with or without the special
+ * action) is played on its own copy of the game, and the penguins after the player choose their moves with
+ * their strategies, up to the player's next turn. Once the player has decided, the other copies are cancelled
+ * and the real game takes the moves of the matching copy instead of searching again.
+ *
+ * Only penguins with a deterministic strategy are played ahead: such a strategy decides from the game state alone,
+ * while the built-in AI draws from the random stream of the real game, which a copy cannot reproduce. A line of moves
+ * stops at the first penguin of the built-in AI or another strategy that is not deterministic.
+ * Every move is stored with the hash of the state it was chosen in and is only used
+ * when the real game reaches that state. Strategies are called from several threads at once, each on its own copy.
+ */
+final class Speculation {
+    private final ExecutorService pool;
+    private final Future<?>[] running = new Future<?>[Move.COUNT]; // line of every player decision, by move index
+    private Future<Line> chosen; // line of the decision the player made, not taken yet
+    private Line line;           // line the AI turns are taken from, null when there is none
+    private int cursor;          // next move of the line
+
+    Speculation() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "speculation");
+            thread.setDaemon(true); // the player may quit while lines are still computed
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a line for every decision of the player, whose penguin plays the next step of the given state.
+     * Lines of an earlier turn are cancelled.
+     */
+    void start(GameState state, PenguinStrategy[] strategies, boolean specialAvailable) {
+        discard();
+        for (int index = 0; index < Move.COUNT; index++) {
+            Move move = Move.byIndex(index);
+            if (move.isSpecial() && !specialAvailable) {
+                continue; // the player is not asked, the move is never chosen
+            }
+            running[index] = pool.submit(() -> play(state, move, strategies));
+        }
+    }
+
+    // the player made this decision: its line is kept and the others are cancelled
+    @SuppressWarnings("unchecked")
+    void commit(Move move) {
+        chosen = (Future<Line>) running[move.getIndex()];
+        running[move.getIndex()] = null;
+        cancelRunning();
+    }
+
+    /**
+     * The precomputed move for the game state with the given hash, null if there is none (then the strategy is asked).
+     * Waits for the line of the player's decision if it is not finished yet, it was started long before a new search would be.
+     */
+    Move next(long stateHash) {
+        if (chosen != null) {
+            line = await(chosen);
+            chosen = null;
+            cursor = 0;
+        }
+        if (line != null && cursor < line.count && line.hashes[cursor] == stateHash) {
+            return line.moves[cursor++];
+        }
+        line = null; // the game went another way, the rest of the line is of no use
+        return null;
+    }
+
+    // cancels every line and forgets the one that was chosen
+    void discard() {
+        cancelRunning();
+        if (chosen != null) {
+            chosen.cancel(true);
+            chosen = null;
+        }
+        line = null;
+    }
+
+    void close() {
+        discard();
+        pool.shutdownNow();
+    }
+
+    private void cancelRunning() {
+        for (int index = 0; index < Move.COUNT; index++) {
+            if (running[index] != null) {
+                running[index].cancel(true);
+                running[index] = null;
+            }
+        }
+    }
+
+    private static Line await(Future<Line> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | CancellationException e) {
+            return null; // the strategy is asked again in the real game
+        }
+    }
+
+    // plays the player's move on a copy of the game, then the strategy moves up to the player's next turn
+    private static Line play(GameState state, Move playerMove, PenguinStrategy[] strategies) {
+        GameController game = GameController.fromState(state, 0); // no random numbers are drawn
+        int playerIndex = game.getCurrentPenguinIndex();
+        game.applyMove(playerMove);
+        Line line = new Line(strategies.length);
+        while (!game.isFinished() && game.getCurrentPenguinIndex() != playerIndex) {
+            if (Thread.currentThread().isInterrupted()) {
+                return line;
+            }
+            Penguin penguin = game.getCurrentPenguin();
+            if (penguin.isRemoved() || penguin.isStunned()) {
+                game.applyMove(playerMove); // the move is ignored, the penguin only skips its turn
+                continue;
+            }
+            PenguinStrategy strategy = strategies[game.getCurrentPenguinIndex()];
+            if (strategy == null || !strategy.isDeterministic()) {
+                break; // the built-in AI moves at random
+            }
+            Move move = strategy.chooseMove(game);
+            line.add(game.hash(), move);
+            game.applyMove(move);
+        }
+        return line;
+    }
+
+    // the strategy moves that follow one decision of the player, in playing order
+    private static final class Line {
+        final long[] hashes; // hash of the game state each move was chosen in
+        final Move[] moves;
+        int count;
+
+        Line(int capacity) {
+            hashes = new long[capacity];
+            moves = new Move[capacity];
+        }
+
+        void add(long hash, Move move) {
+            hashes[count] = hash;
+            moves[count] = move;
+            count++;
+        }
+    }
+}
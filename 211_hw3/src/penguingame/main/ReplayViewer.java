@@ -0,0 +1,94 @@
+package penguingame.main;
+
+import java.io.PrintStream;
+import java.util.Scanner;
+import penguingame.game.GameController;
+import penguingame.game.Move;
+import penguingame.game.ReplayFile;
+import penguingame.objects.penguins.Penguin;
+import penguingame.render.BufferedGridRenderer;
+import penguingame.render.GridRenderer;
+
+/**
+ * Shows the board of a recorded game at any step, for example to look at the position before a bad AI move.
+ *
+ * Commands: a number jumps to the start of that turn, "s <step>" jumps to a step, an empty line or "n" goes to
+ * the next step, "p" to the previous one and "q" quits. Every jump is a ReplayFile.seek, so it only loads the
+ * nearest keyframe and plays the moves after it, wherever the step is in the game.
+ */
+public class ReplayViewer {
+    private final ReplayFile replay;
+    private final Scanner scanner;
+    private final PrintStream out;
+    private final GridRenderer renderer;
+
+    public ReplayViewer(ReplayFile replay, Scanner scanner, PrintStream out) {
+        this.replay = replay;
+        this.scanner = scanner;
+        this.out = out;
+        this.renderer = new BufferedGridRenderer(out);
+    }
+
+    // shows the start of the given turn, then follows the commands until "q" or the end of the input
+    public void run(int turn) {
+        out.println("Replay of seed " + replay.getSeed() + ": steps " + replay.getFirstStep() + " to "
+                + replay.getLastStep() + ", " + replay.getKeyframeCount() + " keyframes every "
+                + replay.getKeyframeTurns() + " turns");
+        int penguins = replay.getConfig().getPenguinCount();
+        int step = clamp((long) (turn - 1) * penguins);
+        show(step);
+        while (true) {
+            out.print("Turn number, s <step>, n (next), p (previous) or q (quit) --> ");
+            if (!scanner.hasNextLine()) {
+                return;
+            }
+            String command = scanner.nextLine().trim().toLowerCase();
+            try {
+                if (command.equals("q")) {
+                    return;
+                } else if (command.isEmpty() || command.equals("n")) {
+                    step = clamp(step + 1L);
+                } else if (command.equals("p")) {
+                    step = clamp(step - 1L);
+                } else if (command.startsWith("s ")) {
+                    step = clamp(Long.parseLong(command.substring(2).trim()));
+                } else {
+                    step = clamp((Long.parseLong(command) - 1) * penguins);
+                }
+            } catch (NumberFormatException e) {
+                out.println("Invalid command: " + command);
+                continue;
+            }
+            show(step);
+        }
+    }
+
+    private int clamp(long step) {
+        return (int) Math.max(replay.getFirstStep(), Math.min(replay.getLastStep(), step));
+    }
+
+    private void show(int step) {
+        long start = System.nanoTime();
+        GameController game = replay.seek(step);
+        long micros = (System.nanoTime() - start) / 1000;
+
+        int penguins = replay.getConfig().getPenguinCount();
+        out.println();
+        out.println("Turn " + (step / penguins + 1) + ", step " + step + " (loaded in " + micros + " us)");
+        renderer.render(game.getTerrain());
+        for (int i = 0; i < penguins; i++) {
+            Penguin penguin = game.getPenguins().get(i);
+            out.println("- " + penguin.getName() + " (" + penguin.getPenguinTypeName() + ")"
+                    + (i == game.getPlayerIndex() ? " player" : "") + ": " + penguin.getTotalFoodWeight() + " units"
+                    + (penguin.isRemoved() ? ", removed" : "") + (penguin.isStunned() ? ", stunned" : "")
+                    + (penguin.isSpecialActionUsed() ? ", special action used" : ""));
+        }
+        if (step == replay.getLastStep()) {
+            out.println(game.isFinished() ? "The game is over." : "The recording ends here.");
+        } else {
+            Move move = replay.getMove(step);
+            out.println("Next: " + game.getCurrentPenguin().getName()
+                    + (move == null ? " does not move" : " moves " + move));
+        }
+    }
+}
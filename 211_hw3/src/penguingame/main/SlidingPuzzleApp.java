@@ -1,10 +1,102 @@
 package penguingame.main;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Scanner;
+import penguingame.ai.MonteCarloStrategy;
+import penguingame.game.GameConfig;
 import penguingame.game.GameController;
+import penguingame.game.GameResult;
+import penguingame.game.ReplayFile;
+import penguingame.game.ReplayLog;
+import penguingame.game.ReplayRecorder;
+import penguingame.render.AnsiDeltaRenderer;
+import penguingame.server.GameServer;
 
 public class SlidingPuzzleApp {
-    public static void main(String[] args) {
+    private static final int SEARCH_ITERATIONS = 20000; // iterations of the search AI per move
+    private static final int KEYFRAME_TURNS = 10;       // turns between the keyframes of a recorded replay file
+    
+    public static void main(String[] args) throws IOException {
+        // "--replay <log>" plays a recorded game again without the console
+        if (args.length == 2 && args[0].equals("--replay")) {
+            GameResult result = GameController.replay(ReplayLog.parse(args[1])).playGame();
+            for (int i = 0; i < result.getPenguinCount(); i++) {
+                System.out.println(result.getName(i) + ": " + result.getTotalWeight(i) + " units"
+                        + (result.isRemoved(i) ? " (removed)" : ""));
+            }
+            return;
+        }
+        
+        // "--view <replay file> [turn]" shows a game recorded with --record, starting at the given turn
+        if (args.length >= 2 && args[0].equals("--view")) {
+            int turn = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+            new ReplayViewer(ReplayFile.open(Paths.get(args[1])), new Scanner(System.in), System.out).run(turn);
+            return;
+        }
+        
+        // "--server [port]" hosts games for players on other connections of this machine, see GameServer
+        if (args.length >= 1 && args[0].equals("--server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+            try (GameServer server = new GameServer(port, System.nanoTime())) {
+                System.out.println("Hosting games on localhost:" + server.getPort() + " with sessions on "
+                        + (server.usesVirtualThreads() ? "virtual" : "platform") + " threads");
+                server.serve();
+            }
+            return;
+        }
+        
+        // "--ansi" keeps the grid at the top of the terminal and only redraws the squares that changed
+        // "--search" lets the other penguins choose their moves with a Monte Carlo search instead of the built-in AI,
+        // their turns are searched in the background while the player is typing
+        // "--record <file>" writes every move and a keyframe every few turns to a replay file for --view
+        boolean ansi = false;
+        boolean search = false;
+        String recordFile = null;
+        int seedArg = 0;
+        while (seedArg < args.length && args[seedArg].startsWith("--")) {
+            if (args[seedArg].equals("--ansi")) {
+                ansi = true;
+            } else if (args[seedArg].equals("--search")) {
+                search = true;
+            } else if (args[seedArg].equals("--record") && seedArg + 1 < args.length) {
+                recordFile = args[++seedArg];
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[seedArg]);
+            }
+            seedArg++;
+        }
+        
         // initializes a game controller then starts the game, startGame() method determines the flow of entire game.
-        GameController controller = new GameController();
-        controller.startGame();
+        // an optional seed argument plays the game with that seed
+        GameController controller = args.length > seedArg
+                ? new GameController(Long.parseLong(args[seedArg])) : new GameController();
+        if (search) {
+            // a fixed number of iterations: the same state always gets the same move, searched ahead or not
+            MonteCarloStrategy strategy = MonteCarloStrategy.withIterations(SEARCH_ITERATIONS, 1);
+            // the player's penguin is never asked, so every penguin gets it (the player is chosen with the board)
+            for (int i = 0; i < GameConfig.defaults().getPenguinCount(); i++) {
+                controller.setStrategy(i, strategy);
+            }
+        }
+        ReplayRecorder recorder = null;
+        if (recordFile != null) {
+            recorder = new ReplayRecorder(Paths.get(recordFile), KEYFRAME_TURNS);
+            controller.setRecorder(recorder);
+        }
+        if (ansi) {
+            try (AnsiDeltaRenderer renderer = new AnsiDeltaRenderer(System.out)) {
+                controller.setRenderer(renderer);
+                controller.startGame();
+            }
+        } else {
+            controller.startGame();
+        }
+        if (recorder != null) {
+            recorder.close();
+            System.out.println("\nReplay file of this game: " + recordFile + " (view it with --view " + recordFile + ")");
+        }
+        if (!search) { // a replay plays the other penguins with the built-in AI
+            System.out.println("\nReplay log of this game: " + controller.getReplayLog());
+        }
     }
 }
@@ -1,4 +1,5 @@
 package penguingame.objects;
+import penguingame.enums.ObjectKind;
 import penguingame.util.Position;
 
 // An interface for all terrain objects that is on the terrain -> all objects must have position and a diplay symbol.
@@ -6,5 +7,6 @@ public interface ITerrainObject {
     Position getPosition();
     void setPosition(Position position);
     String getDisplaySymbol();
+    ObjectKind getKind();
     
 }
\ No newline at end of file
@@ -1,4 +1,5 @@
 package penguingame.objects;
+import penguingame.enums.ObjectKind;
 import penguingame.util.Position;
 
 //Abstract base class for all terrain objects
@@ -6,14 +7,22 @@ import penguingame.util.Position;
 public abstract class TerrainObject implements ITerrainObject {
     protected Position position;
     protected String displaySymbol;
+    private final ObjectKind kind; // fixed for the life of the object, the terrain dispatches collisions on it
     
     /**
-     * Default constructor.
+     * Constructor with the concrete kind of the object.
      * Position will be set when object is added to terrain
      */
-    public TerrainObject() {
+    protected TerrainObject(ObjectKind kind) {
         this.position = null;
         this.displaySymbol = null;
+        this.kind = kind;
+    }
+    
+    // final, so the terrain's calls bind to this one method whatever the object is
+    @Override
+    public final ObjectKind getKind() {
+        return kind;
     }
     
     @Override
@@ -1,5 +1,6 @@
 package penguingame.objects.food;
 import penguingame.enums.FoodType;
+import penguingame.enums.ObjectKind;
 import penguingame.objects.TerrainObject;
 
 // Food class for all types of food.
@@ -8,6 +9,7 @@ public class Food extends TerrainObject {
     private int weight;
 
     public Food(FoodType type, int weight) {
+        super(ObjectKind.FOOD);
         this.type = type;
         this.weight = weight;
         this.displaySymbol = type.getShortHand();
@@ -23,5 +25,4 @@ public class Food extends TerrainObject {
     }
 
     public int getWeight() { return weight; }
-    
 }
@@ -0,0 +1,225 @@
+package penguingame.objects.food;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import penguingame.util.Zobrist;
+
+/**
+ * The food a penguin carries, in collecting order.
+ *
+ * The total weight is kept as a running sum, so reading it is O(1). The lightest item (the first one
+ * collected if several weigh the same) is found with a min-heap keyed by (weight, slot) and removed
+ * in O(log n). Every item keeps the slot it was collected into, a lost item leaves an empty slot behind
+ * so nothing has to be shifted. A Fenwick tree counts the held items per slot, so the read-only list view
+ * finds the i-th held item in O(log n) (O(1) while nothing was lost).
+ *
+ * The Zobrist keys of the held items are summed up as well, so the game hash covers every held weight.
+ *
+ * Slots are also how changes are undone: removeLast undoes add, restore(slot) undoes remove(slot).
+ * Undo must happen in reverse order.
+ */
+public class FoodInventory {
+    private static final int MIN_CAPACITY = 8;
+    private static final Food[] NO_ITEMS = new Food[0];
+    private static final int[] NO_SLOTS = new int[0];
+    private static final int[] EMPTY_TREE = new int[1];
+
+    // the arrays are allocated with the first item, many penguins never collect anything
+    private Food[] items = NO_ITEMS;     // by slot, null once the item is lost
+    private int slots;                   // slots used so far
+    private int size;                    // items held
+    private int totalWeight;
+    private long keySum;                 // sum of Zobrist.heldFoodKey of the held items
+    private int[] heap = NO_SLOTS;       // slots of the held items, min-heap by (weight, slot)
+    private int[] heapIndex = NO_SLOTS;  // position of every held slot in the heap
+    private int heapSize;
+    private int[] tree = EMPTY_TREE;     // Fenwick tree over the slots (1-based), 1 for every held item
+    private final List<Food> view = new View();
+
+    // number of items held
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public int getTotalWeight() { return totalWeight; }
+
+    // for the game hash, see Zobrist.inventoryKey
+    public long getKeySum() { return keySum; }
+
+    // read-only, it always shows the current items in collecting order (copy it to keep a snapshot)
+    public List<Food> asList() { return view; }
+
+    // adds an item after all the others
+    public void add(Food food) {
+        if (slots == items.length) {
+            grow();
+        }
+        int slot = slots++;
+        items[slot] = food;
+        hold(slot);
+    }
+
+    // slot of the lightest item (the earliest one of equal weights), -1 if the inventory is empty
+    public int lightestSlot() {
+        return heapSize == 0 ? -1 : heap[0];
+    }
+
+    // removes the item in the given slot and returns it, the slot stays empty
+    public Food remove(int slot) {
+        Food food = itemAt(slot);
+        release(slot);
+        items[slot] = null;
+        return food;
+    }
+
+    // puts an item back into the slot it was removed from
+    public void restore(int slot, Food food) {
+        if (slot < 0 || slot >= slots || items[slot] != null) {
+            throw new IllegalArgumentException("Slot " + slot + " cannot be restored");
+        }
+        items[slot] = food;
+        hold(slot);
+    }
+
+    // removes the item that was added last (undo of add) and returns it
+    public Food removeLast() {
+        Food food = remove(slots - 1);
+        slots--;
+        return food;
+    }
+
+    private Food itemAt(int slot) {
+        if (slot < 0 || slot >= slots || items[slot] == null) {
+            throw new IllegalArgumentException("No food in slot " + slot);
+        }
+        return items[slot];
+    }
+
+    private void hold(int slot) {
+        size++;
+        totalWeight += items[slot].getWeight();
+        keySum += key(items[slot]);
+        treeAdd(slot, 1);
+        heap[heapSize] = slot;
+        heapIndex[slot] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private void release(int slot) {
+        size--;
+        totalWeight -= items[slot].getWeight();
+        keySum -= key(items[slot]);
+        treeAdd(slot, -1);
+        int index = heapIndex[slot];
+        int last = heap[--heapSize];
+        if (index < heapSize) {
+            heap[index] = last;
+            heapIndex[last] = index;
+            siftDown(index);
+            siftUp(index);
+        }
+    }
+
+    private static long key(Food food) {
+        return Zobrist.heldFoodKey(food.getWeight(), food.getType().ordinal());
+    }
+
+    private void grow() {
+        int capacity = Math.max(MIN_CAPACITY, items.length * 2);
+        items = Arrays.copyOf(items, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+        // a Fenwick tree cannot simply be extended, it is built again in O(n)
+        tree = new int[capacity + 1];
+        for (int slot = 0; slot < slots; slot++) {
+            if (items[slot] != null) {
+                tree[slot + 1]++;
+            }
+        }
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    // heap order: lighter first, the earlier slot first among equal weights
+    private boolean before(int slotA, int slotB) {
+        int weightA = items[slotA].getWeight();
+        int weightB = items[slotB].getWeight();
+        return weightA < weightB || (weightA == weightB && slotA < slotB);
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(slot, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heapIndex[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = slot;
+        heapIndex[slot] = index;
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], slot)) {
+                break;
+            }
+            heap[index] = heap[child];
+            heapIndex[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = slot;
+        heapIndex[slot] = index;
+    }
+
+    private void treeAdd(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // slot of the index-th held item (0-based), found by walking down the Fenwick tree
+    private int slotOfIndex(int index) {
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position; // 1-based position of the item is position + 1
+    }
+
+    private final class View extends AbstractList<Food> {
+        @Override
+        public Food get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            }
+            return size == slots ? items[index] : items[slotOfIndex(index)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
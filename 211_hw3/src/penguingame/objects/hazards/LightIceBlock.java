@@ -1,18 +1,18 @@
 package penguingame.objects.hazards;
 
 import penguingame.enums.Direction;
+import penguingame.enums.ObjectKind;
 import penguingame.objects.IHazard;
 import penguingame.objects.ISlidable;
 import penguingame.objects.ITerrainObject;
 import penguingame.objects.TerrainObject;
-import penguingame.objects.penguins.Penguin;
 import penguingame.terrain.CollisionResult;
 import penguingame.terrain.IcyTerrain;
 // LightIceBlock object that can slide if another slidable object collides with it
 public class LightIceBlock extends TerrainObject implements IHazard, ISlidable {
     
-    
-    public LightIceBlock() { 
+    public LightIceBlock() {
+        super(ObjectKind.LIGHT_ICE_BLOCK);
         this.displaySymbol = "LB"; 
     }
 
@@ -24,14 +24,9 @@ public class LightIceBlock extends TerrainObject implements IHazard, ISlidable {
         terrain.slide(this, direction);
     }
     
+    // a penguin is stunned (a turn is skipped), the block slides to the same direction as the collider
     @Override
     public CollisionResult handleCollision(ITerrainObject collider, IcyTerrain terrain, Direction dir) {
-        if (collider instanceof Penguin) {
-            ((Penguin) collider).setStunned(true); // penguin is stunned after the collision. A turn is skipped.
-        }
-        terrain.slide(this, dir); // LightIceBlock object slides to the same direction with the penguin
-        return new CollisionResult(true, false, null, dir); // returns a CollisionResult object accordingly
+        return terrain.collide(collider, this, dir);
     }
-
-    
-}
\ No newline at end of file
+}
@@ -1,16 +1,19 @@
 package penguingame.objects.hazards;
 
 import penguingame.enums.Direction;
+import penguingame.enums.ObjectKind;
 import penguingame.objects.IHazard;
 import penguingame.objects.ISlidable;
 import penguingame.objects.ITerrainObject;
 import penguingame.objects.TerrainObject;
-import penguingame.objects.penguins.Penguin;
 import penguingame.terrain.CollisionResult;
 import penguingame.terrain.IcyTerrain;
 // a SeaLion hazard object which slides the same direction as penguin after the collision and makes the penguin slide to the opposite direction.
 public class SeaLion extends TerrainObject implements IHazard, ISlidable {
-    public SeaLion() { this.displaySymbol = "SL"; }
+    public SeaLion() {
+        super(ObjectKind.SEA_LION);
+        this.displaySymbol = "SL";
+    }
     
     @Override
     public boolean canSlide() { return true; } // slidable
@@ -20,17 +23,9 @@ public class SeaLion extends TerrainObject implements IHazard, ISlidable {
         terrain.slide(this, direction);
     }
     
+    // penguins and light ice blocks push the sea lion, a penguin bounces back (see CollisionRule)
     @Override
     public CollisionResult handleCollision(ITerrainObject collider, IcyTerrain terrain, Direction dir) {
-        // if collider is a slidable object
-        if (collider instanceof Penguin || collider instanceof LightIceBlock) {
-            terrain.slide(this, dir);
-            if (collider instanceof Penguin) {
-                return new CollisionResult(true, true, collider, dir.getOpposite());
-            } else {
-                return new CollisionResult(true, false, null, dir);
-            }
-        }
-        return new CollisionResult(true, false, null, dir);
+        return terrain.collide(collider, this, dir);
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,16 @@
 package penguingame.objects.penguins;
 
 import penguingame.enums.Direction;
+import penguingame.enums.ObjectKind;
 import penguingame.terrain.IcyTerrain;
 // Penguin type that can chooes to stop at the 3rd square across chosen direction.
 public class EmperorPenguin extends Penguin {
-    public EmperorPenguin(String name) { super(name); }
+    public EmperorPenguin(String name) { super(name, ObjectKind.EMPEROR_PENGUIN); }
     
     @Override
     public void useSpecialAction(Direction dir, IcyTerrain terrain) {
         terrain.slideWithStop(this, dir, 3);
-        specialActionUsed = true;
+        setSpecialActionUsed(true);
     }
     
     @Override
@@ -1,25 +1,34 @@
 package penguingame.objects.penguins;
 
-import java.util.ArrayList;
 import java.util.List;
 import penguingame.enums.Direction;
+import penguingame.enums.ObjectKind;
 import penguingame.objects.ISlidable;
 import penguingame.objects.TerrainObject;
 import penguingame.objects.food.Food;
+import penguingame.objects.food.FoodInventory;
 import penguingame.terrain.IcyTerrain;
 
 // Abstract Penguin class for all Penguin Types to inherit 
 public abstract class Penguin extends TerrainObject implements ISlidable {
+    // changes of a penguin that are reported to its terrain (undo log and state hash)
+    public static final int STUNNED = 0;
+    public static final int REMOVED = 1;
+    public static final int SPECIAL_ACTION_USED = 2;
+    public static final int PREPARED_TO_JUMP = 3;
+    public static final int FOOD_COLLECTED = 4;
+    public static final int FOOD_LOST = 5;
 
     protected String name;
-    protected List<Food> collectedFood; //list of collected foods
+    private final FoodInventory inventory = new FoodInventory(); // collected foods, with the running total weight
     protected boolean specialActionUsed; // flag that indicates whether specail action is used
     protected boolean isStunned; // flag that indicates whether penguin is stunned.
     protected boolean isRemoved; // turn is skipped if ai penguin is removed
+    protected IcyTerrain terrain; // the terrain the penguin is placed on, every change is reported to it
 
-    public Penguin(String name) {
+    protected Penguin(String name, ObjectKind kind) {
+        super(kind);
         this.name = name;
-        this.collectedFood = new ArrayList<>();
         this.specialActionUsed = false;
         this.isStunned = false;
         this.isRemoved = false;
@@ -30,7 +39,8 @@ public abstract class Penguin extends TerrainObject implements ISlidable {
     // some getters and setters
     public String getName() { return name; }
 
-    public List<Food> getCollectedFood() { return new ArrayList<>(collectedFood); }
+    // read-only, it always shows the current food of the penguin (copy it to keep a snapshot)
+    public List<Food> getCollectedFood() { return inventory.asList(); }
 
     public boolean isSpecialActionUsed() { return specialActionUsed; }
 
@@ -38,44 +48,89 @@ public abstract class Penguin extends TerrainObject implements ISlidable {
 
     public boolean isRemoved() { return isRemoved; }
 
-    public void setStunned(boolean stunned) { isStunned = stunned; }
+    public void setStunned(boolean stunned) {
+        boolean previous = isStunned;
+        isStunned = stunned;
+        changed(STUNNED, previous ? 1 : 0, null);
+    }
+
+    public void setRemoved(boolean removed) {
+        boolean previous = isRemoved;
+        isRemoved = removed;
+        changed(REMOVED, previous ? 1 : 0, null);
+    }
+
+    // set when the special action is used, also used when a penguin is rebuilt from a saved game state
+    public void setSpecialActionUsed(boolean used) {
+        boolean previous = specialActionUsed;
+        specialActionUsed = used;
+        changed(SPECIAL_ACTION_USED, previous ? 1 : 0, null);
+    }
+
+    public IcyTerrain getTerrain() { return terrain; }
 
-    public void setRemoved(boolean removed) { isRemoved = removed; }
+    // called by IcyTerrain.attach
+    public void setTerrain(IcyTerrain terrain) { this.terrain = terrain; }
 
     // collecting food if it is available (food: food that is at the same square as the penguin)
     public void collectFood(Food food) {
-        collectedFood.add(food);
+        inventory.add(food);
+        changed(FOOD_COLLECTED, 0, food);
     }
 
-    // removes the lightest food that penguin carries if penguin crashes with a HeavyIceBlock object
+    // removes the lightest food that penguin carries if penguin crashes with a HeavyIceBlock object (O(log n), see FoodInventory)
     public Food removeLightestFood() {
-        if (collectedFood.isEmpty()) { 
-            return null; 
-        }  
-        Food lightest = collectedFood.get(0);
-
-        for (Food food : collectedFood) {// loop that determines the lightest food.
-            if (food.getWeight() < lightest.getWeight()) {
-                lightest = food;
-            }
+        int slot = inventory.lightestSlot();
+        if (slot < 0) {
+            return null;
         }
+        Food lost = inventory.remove(slot);
+        changed(FOOD_LOST, slot, lost);
+        return lost;
+    }
 
-        collectedFood.remove(lightest);
-        return lightest;
+    // reports a change that was just made to the terrain (after the change, with the previous value)
+    protected void changed(int change, int previous, Food food) {
+        if (terrain != null) {
+            terrain.penguinChanged(this, change, previous, food);
+        }
     }
 
-    // determines the total food weight. Useful for determining the rank at the end of the game.
-    public int getTotalFoodWeight() {
-        if (collectedFood.isEmpty() || collectedFood == null) {
-            return 0;
+    // current value of a flag change (1 = true), used for hashing
+    public int getFlag(int change) {
+        switch (change) {
+            case STUNNED: return isStunned ? 1 : 0;
+            case REMOVED: return isRemoved ? 1 : 0;
+            case SPECIAL_ACTION_USED: return specialActionUsed ? 1 : 0;
+            default: return 0;
         }
-        int total = 0;
-        for (Food food : collectedFood) {
-            total += food.getWeight();
+    }
+
+    /**
+     * Rolls back one recorded change, called by the undo log of the terrain.
+     * previous is the old flag value (1 = true) or, for FOOD_LOST, the inventory slot the food was taken from.
+     */
+    public void undoChange(int change, int previous, Food food) {
+        switch (change) {
+            case STUNNED: isStunned = previous == 1; break;
+            case REMOVED: isRemoved = previous == 1; break;
+            case SPECIAL_ACTION_USED: specialActionUsed = previous == 1; break;
+            case FOOD_COLLECTED: inventory.removeLast(); break;
+            case FOOD_LOST: inventory.restore(previous, food); break;
+            default: throw new IllegalArgumentException("Unknown penguin change: " + change);
         }
-        return total;
+    }
+
+    // determines the total food weight. Useful for determining the rank at the end of the game. Kept as a running total.
+    public int getTotalFoodWeight() {
+        return inventory.getTotalWeight();
     }
     
+    // the carried food for the hash of the terrain (see Zobrist.inventoryKey)
+    public long getFoodKeySum() {
+        return inventory.getKeySum();
+    }
+
     @Override // determines whether penguin can slide or not.
     public boolean canSlide() { return true; }
 
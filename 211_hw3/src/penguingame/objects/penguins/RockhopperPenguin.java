@@ -1,5 +1,7 @@
 package penguingame.objects.penguins;
 import penguingame.enums.Direction;
+import penguingame.enums.ObjectKind;
+import penguingame.objects.food.Food;
 import penguingame.terrain.IcyTerrain;
 
 // Penguin capable of jumping over an obstacle during it's slide
@@ -7,17 +9,35 @@ public class RockhopperPenguin extends Penguin {
     private boolean preparedToJump;
     
     public RockhopperPenguin(String name) {
-        super(name);
+        super(name, ObjectKind.ROCKHOPPER_PENGUIN);
         this.preparedToJump = false;
     }
     //getter and setter of ability of RockHopperPenguin's ability of jumping ( Can only jump once during each slide )   
     public boolean isPreparedToJump() { return preparedToJump; }
-    public void setPreparedToJump(boolean prepared) { this.preparedToJump = prepared; }
+    public void setPreparedToJump(boolean prepared) {
+        boolean previous = preparedToJump;
+        this.preparedToJump = prepared;
+        changed(PREPARED_TO_JUMP, previous ? 1 : 0, null);
+    }
+    
+    @Override
+    public int getFlag(int change) {
+        return change == PREPARED_TO_JUMP ? (preparedToJump ? 1 : 0) : super.getFlag(change);
+    }
     
     @Override
     public void useSpecialAction(Direction dir, IcyTerrain terrain) {
-        this.preparedToJump = true;
-        specialActionUsed = true;
+        setPreparedToJump(true);
+        setSpecialActionUsed(true);
+    }
+    
+    @Override
+    public void undoChange(int change, int previous, Food food) {
+        if (change == PREPARED_TO_JUMP) {
+            preparedToJump = previous == 1;
+        } else {
+            super.undoChange(change, previous, food);
+        }
     }
     
     @Override
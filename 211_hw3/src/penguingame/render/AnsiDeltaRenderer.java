@@ -0,0 +1,92 @@
+package penguingame.render;
+
+import java.io.PrintStream;
+import java.util.Objects;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * Keeps the grid at the top of an ANSI terminal and only redraws the squares that changed since the last frame.
+ *
+ * The first frame clears the screen, draws the whole grid and limits scrolling to the lines below it,
+ * so the rest of the game's output scrolls under a fixed grid. Later frames save the cursor, move it to every
+ * changed square, write the square and restore the cursor. The grid has to fit on the screen.
+ * close() gives the whole screen back to scrolling.
+ */
+public class AnsiDeltaRenderer implements GridRenderer, AutoCloseable {
+    private static final String ESC = "\u001b[";
+
+    private final PrintStream out;
+    private final StringBuilder frame = new StringBuilder();
+    private String[] shown;   // symbol drawn on every square, null for empty squares
+    private IcyTerrain shownTerrain;
+    private int rows;
+    private int cols;
+
+    public AnsiDeltaRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void render(IcyTerrain terrain) {
+        frame.setLength(0);
+        if (terrain != shownTerrain || terrain.getRows() != rows || terrain.getCols() != cols) {
+            drawFull(terrain);
+        } else {
+            drawChanges(terrain);
+        }
+        if (frame.length() > 0) {
+            out.print(frame);
+            out.flush();
+        }
+    }
+
+    private void drawFull(IcyTerrain terrain) {
+        shownTerrain = terrain;
+        rows = terrain.getRows();
+        cols = terrain.getCols();
+        shown = new String[rows * cols];
+        for (int cell = 0; cell < shown.length; cell++) {
+            shown[cell] = GridText.symbolAt(terrain, cell);
+        }
+
+        frame.append(ESC).append("r");         // whole screen scrolls while drawing
+        frame.append(ESC).append("2J").append(ESC).append("H");
+        GridText.appendFrame(frame, terrain);
+        int gridLines = 2 * rows + 1;
+        frame.append(ESC).append(gridLines + 1).append('r');     // only the lines below the grid scroll
+        frame.append(ESC).append(gridLines + 1).append(";1H");
+    }
+
+    private void drawChanges(IcyTerrain terrain) {
+        boolean saved = false;
+        for (int cell = 0; cell < shown.length; cell++) {
+            String symbol = GridText.symbolAt(terrain, cell);
+            if (Objects.equals(symbol, shown[cell])) {
+                continue;
+            }
+            shown[cell] = symbol;
+            if (!saved) {
+                frame.append("\u001b7"); // save the cursor
+                saved = true;
+            }
+            int row = cell / cols;
+            int col = cell % cols;
+            // screen lines and columns start at 1, the first line is the top border
+            frame.append(ESC).append(2 * row + 2).append(';').append(col * GridText.SQUARE_WIDTH + 2).append('H');
+            GridText.appendSquare(frame, symbol);
+        }
+        if (saved) {
+            frame.append("\u001b8"); // restore the cursor
+        }
+    }
+
+    // lets the whole screen scroll again, the next frame is drawn in full
+    @Override
+    public void close() {
+        if (shownTerrain != null) {
+            out.print(ESC + "r");
+            out.flush();
+            shownTerrain = null;
+        }
+    }
+}
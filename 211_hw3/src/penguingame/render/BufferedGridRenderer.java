@@ -0,0 +1,25 @@
+package penguingame.render;
+
+import java.io.PrintStream;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * Draws the whole grid in every frame. The frame is built in one StringBuilder that is reused for every frame
+ * and written to the stream with a single print.
+ */
+public class BufferedGridRenderer implements GridRenderer {
+    private final PrintStream out;
+    private final StringBuilder frame = new StringBuilder();
+
+    public BufferedGridRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void render(IcyTerrain terrain) {
+        frame.setLength(0);
+        GridText.appendFrame(frame, terrain);
+        out.print(frame);
+        out.flush();
+    }
+}
@@ -0,0 +1,11 @@
+package penguingame.render;
+
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * Draws the icy terrain. The game calls render after the board is generated and after every turn.
+ * See BufferedGridRenderer (full frames), AnsiDeltaRenderer (only changed squares) and NullGridRenderer.
+ */
+public interface GridRenderer {
+    void render(IcyTerrain terrain);
+}
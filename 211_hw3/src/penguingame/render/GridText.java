@@ -0,0 +1,57 @@
+package penguingame.render;
+
+import penguingame.objects.ITerrainObject;
+import penguingame.terrain.IcyTerrain;
+
+// text layout of the grid shared by the renderers: every square is 4 characters wide plus its border
+final class GridText {
+    static final int SQUARE_WIDTH = 5;
+
+    private GridText() { }
+
+    // symbol of the object shown on a square, null for an empty square
+    static String symbolAt(IcyTerrain terrain, int cell) {
+        ITerrainObject shown = terrain.displayedObjectAt(cell);
+        return shown == null ? null : shown.getDisplaySymbol();
+    }
+
+    // the symbol centered in 4 characters, without the border
+    static void appendSquare(StringBuilder out, String symbol) {
+        if (symbol == null) {
+            out.append("    ");
+            return;
+        }
+        int padding = (4 - symbol.length()) / 2;
+        appendSpaces(out, padding);
+        out.append(symbol);
+        appendSpaces(out, 4 - symbol.length() - padding);
+    }
+
+    static void appendSeparator(StringBuilder out, int cols) {
+        for (int i = cols * SQUARE_WIDTH + 1; i > 0; i--) {
+            out.append('-');
+        }
+        out.append('\n');
+    }
+
+    // the whole grid, the same text IcyTerrain.displayGrid always printed
+    static void appendFrame(StringBuilder out, IcyTerrain terrain) {
+        int cols = terrain.getCols();
+        appendSeparator(out, cols);
+        for (int row = 0, cell = 0; row < terrain.getRows(); row++) {
+            out.append('|');
+            for (int col = 0; col < cols; col++, cell++) {
+                appendSquare(out, symbolAt(terrain, cell));
+                out.append('|');
+            }
+            out.append('\n');
+            appendSeparator(out, cols);
+        }
+    }
+
+    private static void appendSpaces(StringBuilder out, int count) {
+        for (int i = 0; i < count; i++) {
+            out.append(' ');
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package penguingame.render;
+
+import penguingame.terrain.IcyTerrain;
+
+// draws nothing, for headless games and simulations
+public class NullGridRenderer implements GridRenderer {
+    public static final NullGridRenderer INSTANCE = new NullGridRenderer();
+
+    private NullGridRenderer() { }
+
+    @Override
+    public void render(IcyTerrain terrain) { }
+}
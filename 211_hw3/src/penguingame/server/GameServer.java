@@ -0,0 +1,122 @@
+package penguingame.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many independent interactive games at once, one for every connection on a local TCP port.
+ *
+ * Every session runs the same GameController as the console game on its own thread, blocked on its connection while
+ * the player thinks. On Java 21 and later the sessions run on virtual threads, so a waiting session only holds its
+ * game and its buffers. The game is built for Java 17, where virtual threads do not exist: there the sessions run on
+ * platform threads with small stacks, which is enough for about ten thousand sessions on one machine.
+ *
+ * Line protocol (UTF-8, one message per line):
+ *   client: NEW | NEW <seed>   starts the game, with a server chosen seed or the given one
+ *   server: ...                everything the console game prints (narration, grid, scoreboard)
+ *   server: ?YN <question>     the game waits for Y or N
+ *   server: ?DIR <question>    the game waits for U, D, L or R
+ *   client: <answer>           one answer per line, not case sensitive
+ *   server: !<message>         the answer was invalid, the question is asked again
+ *   server: BYE                the game is over, the server closes the connection
+ */
+public final class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 7777;
+    private static final int BACKLOG = 4096;               // connections waiting for accept, players come in bursts
+    private static final long SESSION_STACK = 256 * 1024;  // stack of a platform session thread, games do not recurse deeply
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final boolean virtualThreads;
+    private final long firstSeed;
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+
+    /**
+     * Listens on the given port of the loopback address, 0 picks a free port (see getPort).
+     * Games without a requested seed get the seeds firstSeed, firstSeed + 1, ... in the order the players connect.
+     */
+    public GameServer(int port, long firstSeed) throws IOException {
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.firstSeed = firstSeed;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.sessions = virtualThreads ? virtual : Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(null, runnable, "session", SESSION_STACK);
+            thread.setDaemon(true); // a session never keeps the server from stopping
+            return thread;
+        });
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() if the running Java has it, null otherwise
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null; // Java 17, or a preview that is not enabled
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    // true if the sessions run on virtual threads
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Accepts players until the server is closed, every connection gets its own session.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return; // closed while waiting
+                }
+                throw e;
+            }
+            long seed = firstSeed + started.getAndIncrement();
+            sessions.execute(new GameSession(socket, seed, this));
+        }
+    }
+
+    // number of sessions started, finished and lost (the player disconnected or the game failed before it was over)
+    public long getStartedSessions() { return started.get(); }
+
+    public long getFinishedSessions() { return finished.get(); }
+
+    public long getLostSessions() { return lost.get(); }
+
+    void sessionFinished() {
+        finished.incrementAndGet();
+    }
+
+    void sessionLost() {
+        lost.incrementAndGet();
+    }
+
+    /**
+     * Stops accepting players. Sessions that are still playing are interrupted, their connections stay open
+     * until their thread ends.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+}
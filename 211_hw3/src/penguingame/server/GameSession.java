@@ -0,0 +1,72 @@
+package penguingame.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import penguingame.game.GameController;
+
+/**
+ * One game of a GameServer, played with the player on the other end of a connection.
+ * The session waits for "NEW" or "NEW <seed>", plays an interactive game that prints to the connection
+ * and reads the player's decisions from it, then sends "BYE" and closes the connection.
+ */
+final class GameSession implements Runnable {
+    // buffers are small, a server holds thousands of sessions and every line is flushed at the next question
+    private static final int IN_BUFFER = 256;
+    private static final int OUT_BUFFER = 4096;
+
+    private final Socket socket;
+    private final long defaultSeed; // seed of the game when the player does not choose one
+    private final GameServer server;
+
+    GameSession(Socket socket, long defaultSeed, GameServer server) {
+        this.socket = socket;
+        this.defaultSeed = defaultSeed;
+        this.server = server;
+    }
+
+    @Override
+    public void run() {
+        try (Socket connection = socket) {
+            connection.setTcpNoDelay(true); // every flush is a question the player waits for
+            PrintStream out = new PrintStream(new BufferedOutputStream(connection.getOutputStream(), OUT_BUFFER),
+                    false, StandardCharsets.UTF_8);
+            LineInput input = new LineInput(new BufferedInputStream(connection.getInputStream(), IN_BUFFER), out);
+            Long seed = readSeed(input.readLine());
+            if (seed == null) {
+                out.println("!Expected NEW or NEW <seed>");
+            } else {
+                new GameController(seed, input, out).playGame();
+                server.sessionFinished();
+            }
+            out.println("BYE");
+            out.flush();
+        } catch (IOException | UncheckedIOException e) {
+            server.sessionLost(); // the player disconnected, the game is dropped
+        } catch (RuntimeException e) {
+            // a failed game is dropped like a disconnected one, the other sessions and the server go on
+            server.sessionLost();
+            e.printStackTrace();
+        }
+    }
+
+    // the seed requested by the first line, null if the line is not a valid request
+    private Long readSeed(String hello) {
+        String[] words = hello.trim().split("\\s+");
+        if (!words[0].equalsIgnoreCase("NEW") || words.length > 2) {
+            return null;
+        }
+        if (words.length == 1) {
+            return defaultSeed;
+        }
+        try {
+            return Long.parseLong(words[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package penguingame.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import penguingame.enums.Direction;
+import penguingame.game.PlayerInput;
+
+/**
+ * Asks the player of a GameServer session over its connection, in the line protocol of GameServer.
+ * Every question is one line starting with "?YN " or "?DIR ", an invalid answer gets a line starting with "!"
+ * and the question is asked again. Answers are not case sensitive, like on the console.
+ * Throws UncheckedIOException when the player disconnects, which ends the session.
+ */
+final class LineInput implements PlayerInput {
+    private static final int MAX_LINE = 256; // longer answers are cut, they are invalid anyway
+
+    private final InputStream in; // buffered by the session
+    private final PrintStream out;
+    private final StringBuilder line = new StringBuilder();
+
+    LineInput(InputStream in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    @Override
+    public boolean getYesNo(String prompt) {
+        while (true) {
+            String input = ask("?YN ", prompt);
+            if (input.equals("Y")) {
+                return true;
+            }
+            if (input.equals("N")) {
+                return false;
+            }
+            out.println("!Invalid input. Please enter Y or N.");
+        }
+    }
+
+    @Override
+    public Direction getDirection(String prompt) {
+        while (true) {
+            switch (ask("?DIR ", prompt)) {
+                case "U": return Direction.UP;
+                case "D": return Direction.DOWN;
+                case "L": return Direction.LEFT;
+                case "R": return Direction.RIGHT;
+                default:
+                    out.println("!Invalid input. Please use U, D, L, or R.");
+            }
+        }
+    }
+
+    // sends the question with everything the game printed before it and waits for the answer
+    private String ask(String tag, String prompt) {
+        out.println(tag + prompt.trim());
+        out.flush();
+        try {
+            return readLine().trim().toUpperCase();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the next line the player sent, without the line break. Throws EOFException if the player disconnected.
+     * The protocol is plain ASCII, so bytes are read as characters.
+     */
+    String readLine() throws IOException {
+        line.setLength(0);
+        while (true) {
+            int c = in.read();
+            if (c < 0) {
+                throw new EOFException("The player disconnected");
+            }
+            if (c == '\n') {
+                return line.toString();
+            }
+            if (c != '\r' && line.length() < MAX_LINE) {
+                line.append((char) c);
+            }
+        }
+    }
+}
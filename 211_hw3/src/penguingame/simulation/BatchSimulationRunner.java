@@ -0,0 +1,85 @@
+package penguingame.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import penguingame.game.GameConfig;
+import penguingame.game.GameResult;
+
+/**
+ * Runs a large number of headless games in parallel on all cores.
+ * Game i of a batch uses seed firstSeed + i, so every game of a batch can be replayed on its own.
+ */
+public class BatchSimulationRunner {
+    private static final int CHUNKS_PER_THREAD = 8; // more chunks than threads keeps all cores busy until the end
+
+    private final GameConfig config;
+    private final int threads;
+
+    public BatchSimulationRunner(GameConfig config, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        }
+        this.config = config;
+        this.threads = threads;
+    }
+
+    /**
+     * Plays the given number of games and returns the combined statistics.
+     */
+    public BatchStatistics run(long firstSeed, long games) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            // split the seed range into chunks, every chunk collects its own statistics
+            long chunkCount = Math.min(games, (long) threads * CHUNKS_PER_THREAD);
+            List<Future<BatchStatistics>> futures = new ArrayList<>();
+            for (long chunk = 0; chunk < chunkCount; chunk++) {
+                long from = firstSeed + games * chunk / chunkCount;
+                long to = firstSeed + games * (chunk + 1) / chunkCount;
+                futures.add(pool.submit(() -> runRange(from, to)));
+            }
+
+            BatchStatistics total = new BatchStatistics();
+            for (Future<BatchStatistics> future : futures) {
+                total.merge(future.get());
+            }
+            total.setElapsedNanos(System.nanoTime() - start);
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch simulation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulated game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // plays the games with seeds in [from, to) on the calling thread
+    private BatchStatistics runRange(long from, long to) {
+        BatchStatistics statistics = new BatchStatistics();
+        for (long seed = from; seed < to; seed++) {
+            GameResult result = GameSimulator.run(seed, config);
+            statistics.add(result);
+        }
+        return statistics;
+    }
+
+    /**
+     * Usage: BatchSimulationRunner [games] [threads] [firstSeed]
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+
+        BatchSimulationRunner runner = new BatchSimulationRunner(GameConfig.defaults(), threads);
+        BatchStatistics statistics = runner.run(firstSeed, games);
+        System.out.println("Played " + statistics.getGames() + " games on " + threads + " threads");
+        System.out.println(statistics);
+    }
+}
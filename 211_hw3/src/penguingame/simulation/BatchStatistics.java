@@ -0,0 +1,68 @@
+package penguingame.simulation;
+
+import penguingame.game.GameResult;
+
+/**
+ * Aggregated numbers of a batch of simulated games.
+ * Each worker fills its own instance, the instances are merged at the end.
+ */
+public class BatchStatistics {
+    private long games;
+    private long penguins;
+    private long removedPenguins;
+    private long totalWeight;        // sum of the collected weight of all penguins
+    private long totalWinningWeight; // sum of the weight of every game's winner
+    private long elapsedNanos;
+
+    // adds the outcome of one game
+    public void add(GameResult result) {
+        games++;
+        for (int i = 0; i < result.getPenguinCount(); i++) {
+            penguins++;
+            totalWeight += result.getTotalWeight(i);
+            if (result.isRemoved(i)) {
+                removedPenguins++;
+            }
+        }
+        totalWinningWeight += result.getTotalWeight(result.getWinnerIndex());
+    }
+
+    // adds the numbers of another batch
+    public void merge(BatchStatistics other) {
+        games += other.games;
+        penguins += other.penguins;
+        removedPenguins += other.removedPenguins;
+        totalWeight += other.totalWeight;
+        totalWinningWeight += other.totalWinningWeight;
+    }
+
+    void setElapsedNanos(long elapsedNanos) { this.elapsedNanos = elapsedNanos; }
+
+    public long getGames() { return games; }
+
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    public double getAverageWeight() {
+        return penguins == 0 ? 0 : (double) totalWeight / penguins;
+    }
+
+    public double getAverageWinningWeight() {
+        return games == 0 ? 0 : (double) totalWinningWeight / games;
+    }
+
+    public double getRemovalRate() {
+        return penguins == 0 ? 0 : (double) removedPenguins / penguins;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games in %.2f s (%.0f games/s), average weight %.2f, "
+                + "average winning weight %.2f, removed penguins %.1f%%",
+                games, elapsedNanos / 1e9, getGamesPerSecond(), getAverageWeight(),
+                getAverageWinningWeight(), getRemovalRate() * 100);
+    }
+}
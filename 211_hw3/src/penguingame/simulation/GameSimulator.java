@@ -0,0 +1,25 @@
+package penguingame.simulation;
+
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.GameResult;
+
+/**
+ * Headless entry point for running games without a console.
+ * Every penguin is controlled by the AI and the same rules as the interactive game are used,
+ * so a seed always produces the same result.
+ */
+public final class GameSimulator {
+
+    private GameSimulator() { }
+
+    // plays one complete game with the given seed and settings
+    public static GameResult run(long seed, GameConfig config) {
+        return new GameController(config, seed).playGame();
+    }
+
+    // plays one complete game with the settings of the original assignment
+    public static GameResult run(long seed) {
+        return run(seed, GameConfig.defaults());
+    }
+}
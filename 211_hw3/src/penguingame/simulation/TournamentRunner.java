@@ -0,0 +1,201 @@
+package penguingame.simulation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import penguingame.ai.HeuristicStrategy;
+import penguingame.ai.MonteCarloStrategy;
+import penguingame.ai.PenguinStrategy;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.GameResult;
+
+/**
+ * Plays strategies against each other on the same boards, in parallel on a fork/join pool.
+ *
+ * Every seed is played once for every rotation of the entrants over the penguins: in rotation r the penguin with
+ * index i (in playing order) plays entrant (i + r) % entrants. Over all rotations every entrant plays every penguin
+ * of every board once, so penguin types and starting squares are shared out evenly. The games of seed s use seed
+ * firstSeed + s, so the standings do not depend on the number of threads.
+ *
+ * Strategies are shared by all threads and must allow calls from several games at once
+ * (HeuristicStrategy and MonteCarloStrategy do).
+ */
+public class TournamentRunner {
+    private static final int TASKS_PER_THREAD = 8; // more tasks than threads keeps all cores busy until the end
+
+    private final GameConfig config;
+    private final List<String> names = new ArrayList<>();
+    private final List<PenguinStrategy> strategies = new ArrayList<>();
+
+    public TournamentRunner(GameConfig config) {
+        this.config = config;
+    }
+
+    public void addEntrant(String name, PenguinStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Entrant " + name + " has no strategy");
+        }
+        names.add(name);
+        strategies.add(strategy);
+    }
+
+    /**
+     * Plays every rotation of the given number of seeds with the given number of threads.
+     * Returns the standings ranked by mean place (then by mean weight), best first.
+     */
+    public List<TournamentStanding> run(long firstSeed, int seeds, int threads) {
+        if (strategies.isEmpty()) {
+            throw new IllegalStateException("A tournament needs at least one entrant");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        }
+        long games = (long) seeds * strategies.size();
+        long leafGames = Math.max(1, games / ((long) threads * TASKS_PER_THREAD));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        TournamentStanding[] standings;
+        try {
+            standings = pool.invoke(new Games(firstSeed, 0, games, leafGames));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<TournamentStanding> ranked = new ArrayList<>(List.of(standings));
+        ranked.sort(Comparator.comparingDouble(TournamentStanding::getMeanPlace)
+                .thenComparing(Comparator.comparingDouble(TournamentStanding::getMeanWeight).reversed()));
+        return ranked;
+    }
+
+    // games [from, to) of the tournament, game g is rotation g % entrants of seed g / entrants
+    @SuppressWarnings("serial") // tasks are never serialized
+    private final class Games extends RecursiveTask<TournamentStanding[]> {
+        private final long firstSeed;
+        private final long from;
+        private final long to;
+        private final long leafGames; // ranges of at most this many games are played without splitting
+
+        Games(long firstSeed, long from, long to, long leafGames) {
+            this.firstSeed = firstSeed;
+            this.from = from;
+            this.to = to;
+            this.leafGames = leafGames;
+        }
+
+        @Override
+        protected TournamentStanding[] compute() {
+            if (to - from <= leafGames) {
+                return play();
+            }
+            long middle = (from + to) >>> 1;
+            Games left = new Games(firstSeed, from, middle, leafGames);
+            left.fork();
+            TournamentStanding[] standings = new Games(firstSeed, middle, to, leafGames).compute();
+            TournamentStanding[] leftStandings = left.join();
+            for (int i = 0; i < standings.length; i++) {
+                standings[i].merge(leftStandings[i]);
+            }
+            return standings;
+        }
+
+        private TournamentStanding[] play() {
+            int entrants = strategies.size();
+            TournamentStanding[] standings = new TournamentStanding[entrants];
+            for (int i = 0; i < entrants; i++) {
+                standings[i] = new TournamentStanding(names.get(i));
+            }
+            for (long game = from; game < to; game++) {
+                int rotation = (int) (game % entrants);
+                GameController controller = new GameController(config, firstSeed + game / entrants);
+                for (int penguin = 0; penguin < config.getPenguinCount(); penguin++) {
+                    controller.setStrategy(penguin, strategies.get((penguin + rotation) % entrants));
+                }
+                GameResult result = controller.playGame();
+                for (int penguin = 0; penguin < result.getPenguinCount(); penguin++) {
+                    standings[(penguin + rotation) % entrants].add(result.getRank(penguin), result.getTotalWeight(penguin));
+                }
+            }
+            return standings;
+        }
+    }
+
+    /**
+     * Plays the tournament once for every thread count and prints the standings and the throughput.
+     * Entrants are "heuristic" (the built-in AI) and "mcts:<iterations>" (MonteCarloStrategy with a fixed number
+     * of iterations per move), separated by commas. The thread counts default to 1, 2, 4, ... up to the cores.
+     * The first thread count plays once more before the measured runs, to warm up the JIT compiler.
+     *
+     * Usage: TournamentRunner [seeds] [entrants] [thread counts]   (default: 1000 heuristic,mcts:100 1,2,4,...)
+     */
+    public static void main(String[] args) {
+        int seeds = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String[] entrants = (args.length > 1 ? args[1] : "heuristic,mcts:100").split(",");
+        List<Integer> threadCounts = new ArrayList<>();
+        if (args.length > 2) {
+            for (String count : args[2].split(",")) {
+                threadCounts.add(Integer.parseInt(count));
+            }
+        } else {
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads < cores; threads *= 2) {
+                threadCounts.add(threads);
+            }
+            threadCounts.add(cores);
+        }
+
+        TournamentRunner runner = new TournamentRunner(GameConfig.defaults());
+        for (String entrant : entrants) {
+            runner.addEntrant(entrant, parseStrategy(entrant));
+        }
+        runner.run(0, seeds, threadCounts.get(0)); // the first run compiles the game and the strategies
+
+        long games = (long) seeds * entrants.length;
+        System.out.printf("%d seeds x %d rotations = %d games%n", seeds, entrants.length, games);
+        System.out.printf("%-8s %10s %12s %8s%n", "threads", "seconds", "games/s", "speedup");
+        List<TournamentStanding> first = null;
+        double firstSeconds = 0;
+        for (int threads : threadCounts) {
+            long start = System.nanoTime();
+            List<TournamentStanding> standings = runner.run(0, seeds, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (first == null) {
+                first = standings;
+                firstSeconds = seconds;
+            } else if (!sameStandings(first, standings)) {
+                throw new IllegalStateException("Standings on " + threads + " threads differ from the first run");
+            }
+            System.out.printf("%-8d %10.2f %12.0f %7.2fx%n", threads, seconds, games / seconds, firstSeconds / seconds);
+        }
+
+        System.out.println();
+        System.out.printf("%-4s %-14s %9s %20s %7s %20s%n",
+                "rank", "strategy", "penguins", "mean place (95% CI)", "wins", "mean weight (95% CI)");
+        for (int i = 0; i < first.size(); i++) {
+            TournamentStanding standing = first.get(i);
+            System.out.printf("%-4d %-14s %9d %12.3f +- %.3f %6.1f%% %12.2f +- %.2f%n", i + 1, standing.getName(),
+                    standing.getPenguins(), standing.getMeanPlace(), standing.getPlaceMargin(),
+                    standing.getWinRate() * 100, standing.getMeanWeight(), standing.getWeightMargin());
+        }
+    }
+
+    private static PenguinStrategy parseStrategy(String name) {
+        if (name.equals("heuristic")) {
+            return HeuristicStrategy.INSTANCE;
+        }
+        if (name.startsWith("mcts:")) {
+            return MonteCarloStrategy.withIterations(Integer.parseInt(name.substring("mcts:".length())), 1);
+        }
+        throw new IllegalArgumentException("Unknown strategy: " + name + " (use heuristic or mcts:<iterations>)");
+    }
+
+    private static boolean sameStandings(List<TournamentStanding> a, List<TournamentStanding> b) {
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).sameAs(b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
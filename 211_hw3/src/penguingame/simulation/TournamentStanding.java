@@ -0,0 +1,87 @@
+package penguingame.simulation;
+
+/**
+ * Results of one strategy in a tournament: the place and the weight of every penguin it played.
+ * Places are the ranks of the scoreboard (GameResult.getRank), penguins with equal weight share a place.
+ * Each fork/join task fills its own instances, the instances are merged at the end.
+ */
+public class TournamentStanding {
+    private static final double Z_95 = 1.96; // normal quantile of a two-sided 95% confidence interval
+
+    private final String name;
+    private long penguins;
+    private long wins;           // first places, shared ones included
+    private long placeSum;
+    private long placeSquares;
+    private long weightSum;
+    private long weightSquares;
+
+    public TournamentStanding(String name) {
+        this.name = name;
+    }
+
+    // adds one penguin the strategy played
+    public void add(int place, int weight) {
+        penguins++;
+        if (place == 1) {
+            wins++;
+        }
+        placeSum += place;
+        placeSquares += (long) place * place;
+        weightSum += weight;
+        weightSquares += (long) weight * weight;
+    }
+
+    // adds the penguins of another standing of the same strategy
+    public void merge(TournamentStanding other) {
+        penguins += other.penguins;
+        wins += other.wins;
+        placeSum += other.placeSum;
+        placeSquares += other.placeSquares;
+        weightSum += other.weightSum;
+        weightSquares += other.weightSquares;
+    }
+
+    public String getName() { return name; }
+
+    public long getPenguins() { return penguins; }
+
+    public double getWinRate() {
+        return penguins == 0 ? 0 : (double) wins / penguins;
+    }
+
+    public double getMeanPlace() {
+        return penguins == 0 ? 0 : (double) placeSum / penguins;
+    }
+
+    // half width of the 95% confidence interval of the mean place
+    public double getPlaceMargin() {
+        return margin(placeSum, placeSquares);
+    }
+
+    public double getMeanWeight() {
+        return penguins == 0 ? 0 : (double) weightSum / penguins;
+    }
+
+    // half width of the 95% confidence interval of the mean weight
+    public double getWeightMargin() {
+        return margin(weightSum, weightSquares);
+    }
+
+    // normal approximation from the sample variance, the penguins are many
+    private double margin(long sum, long squares) {
+        if (penguins < 2) {
+            return Double.NaN;
+        }
+        double mean = (double) sum / penguins;
+        double variance = Math.max(0, (squares - mean * sum) / (penguins - 1));
+        return Z_95 * Math.sqrt(variance / penguins);
+    }
+
+    // the same numbers as another standing, used to check that runs on different thread counts agree
+    public boolean sameAs(TournamentStanding other) {
+        return name.equals(other.name) && penguins == other.penguins && wins == other.wins
+                && placeSum == other.placeSum && placeSquares == other.placeSquares
+                && weightSum == other.weightSum && weightSquares == other.weightSquares;
+    }
+}
@@ -0,0 +1,151 @@
+package penguingame.terrain;
+
+import java.util.List;
+import penguingame.enums.Direction;
+import penguingame.enums.ObjectKind;
+import penguingame.objects.ITerrainObject;
+
+/**
+ * Grid storage that also keeps the occupancy of every row and every column as bitboards.
+ *
+ * There is one layer for penguins, hazards, food and plugged holes. Bit c of row r is set in a layer
+ * when square (r, c) holds such an object, the column bitboards hold the same bits transposed.
+ * A slide finds its blocker with Long.numberOfTrailingZeros / numberOfLeadingZeros on
+ * (penguins | hazards | food) & ~pluggedHoles, one 64 square word at a time.
+ */
+class BitboardStorage extends GridStorage {
+    private static final int PENGUINS = 0;
+    private static final int HAZARDS = 1;
+    private static final int FOOD = 2;
+    private static final int PLUGGED_HOLES = 3;
+    private static final int LAYERS = 4;
+
+    private final int rowWords; // words per row bitboard
+    private final int colWords; // words per column bitboard
+    private final long[][] rowBits = new long[LAYERS][]; // layer -> row * rowWords + (col >>> 6)
+    private final long[][] colBits = new long[LAYERS][]; // layer -> col * colWords + (row >>> 6)
+
+    BitboardStorage(int rows, int cols) {
+        super(rows, cols);
+        this.rowWords = (cols + 63) >>> 6;
+        this.colWords = (rows + 63) >>> 6;
+        for (int layer = 0; layer < LAYERS; layer++) {
+            rowBits[layer] = new long[rows * rowWords];
+            colBits[layer] = new long[cols * colWords];
+        }
+    }
+
+    @Override
+    public void add(ITerrainObject object, int row, int col) {
+        super.add(object, row, col);
+        updateBits(row, col);
+    }
+
+    @Override
+    public void insert(ITerrainObject object, int row, int col, int index) {
+        super.insert(object, row, col, index);
+        updateBits(row, col);
+    }
+
+    @Override
+    public boolean remove(ITerrainObject object, int row, int col) {
+        boolean removed = super.remove(object, row, col);
+        updateBits(row, col);
+        return removed;
+    }
+
+    @Override
+    public void holeChanged(int row, int col) {
+        updateBits(row, col);
+    }
+
+    // recomputes the bits of one square from the objects on it
+    private void updateBits(int row, int col) {
+        boolean penguin = false;
+        boolean hazard = false;
+        boolean food = false;
+        List<ITerrainObject> objects = objectsAt(row, col);
+        for (int i = 0; i < objects.size(); i++) {
+            ObjectKind kind = objects.get(i).getKind();
+            if (kind.isPenguin()) {
+                penguin = true;
+            } else if (kind.isHazard()) {
+                hazard = true;
+            } else {
+                food = true;
+            }
+        }
+        setBit(PENGUINS, row, col, penguin);
+        setBit(HAZARDS, row, col, hazard);
+        setBit(FOOD, row, col, food);
+        setBit(PLUGGED_HOLES, row, col, !objects.isEmpty() && isPassable(objects));
+    }
+
+    private void setBit(int layer, int row, int col, boolean value) {
+        int rowIndex = row * rowWords + (col >>> 6);
+        int colIndex = col * colWords + (row >>> 6);
+        if (value) {
+            rowBits[layer][rowIndex] |= 1L << col;
+            colBits[layer][colIndex] |= 1L << row;
+        } else {
+            rowBits[layer][rowIndex] &= ~(1L << col);
+            colBits[layer][colIndex] &= ~(1L << row);
+        }
+    }
+
+    @Override
+    public int distanceToBlocker(int row, int col, Direction dir) {
+        switch (dir) {
+            case RIGHT: return forward(rowBits, row * rowWords, rowWords, col, cols);
+            case LEFT: return backward(rowBits, row * rowWords, col);
+            case DOWN: return forward(colBits, col * colWords, colWords, row, rows);
+            case UP: return backward(colBits, col * colWords, row);
+            default: throw new IllegalArgumentException("Unknown direction: " + dir);
+        }
+    }
+
+    // squares that stop a slide within one word of a bitboard
+    private static long blocked(long[][] bits, int index) {
+        return (bits[PENGUINS][index] | bits[HAZARDS][index] | bits[FOOD][index]) & ~bits[PLUGGED_HOLES][index];
+    }
+
+    // distance to the first blocked bit after 'from' in a line of 'length' squares starting at word 'base'
+    private static int forward(long[][] bits, int base, int words, int from, int length) {
+        int start = from + 1;
+        if (start >= length) {
+            return 1; // already on the last square, the next one is off the terrain
+        }
+        int word = start >>> 6;
+        long blocked = blocked(bits, base + word) & (-1L << start); // ignore squares before the start
+        while (true) {
+            if (blocked != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(blocked) - from;
+            }
+            word++;
+            if (word == words) {
+                return length - from;
+            }
+            blocked = blocked(bits, base + word);
+        }
+    }
+
+    // distance to the first blocked bit before 'from' in a line starting at word 'base'
+    private static int backward(long[][] bits, int base, int from) {
+        int start = from - 1;
+        if (start < 0) {
+            return 1; // already on the first square, the next one is off the terrain
+        }
+        int word = start >>> 6;
+        long blocked = blocked(bits, base + word) & (-1L >>> (63 - (start & 63))); // ignore squares after the start
+        while (true) {
+            if (blocked != 0) {
+                return from - ((word << 6) + 63 - Long.numberOfLeadingZeros(blocked));
+            }
+            word--;
+            if (word < 0) {
+                return from + 1;
+            }
+            blocked = blocked(bits, base + word);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package penguingame.terrain;
+
+import java.util.Collections;
+import java.util.List;
+import penguingame.enums.ObjectKind;
+import penguingame.objects.ITerrainObject;
+import penguingame.util.Cells;
+import penguingame.util.PositionTable;
+import penguingame.util.Zobrist;
+
+/**
+ * The squares of a level that never change on their own, shared by every terrain that is built on it.
+ *
+ * A layout holds objects that never move and never change (heavy ice blocks and food items, each alone on its square),
+ * the interned Position of every square and the bitboards of the squares its objects block.
+ * Nothing of it is written after the constructor, so any number of terrains on any number of threads can use it
+ * (see IcyTerrain(BoardLayout)). Each terrain keeps the squares its own game changes in an overlay and copies
+ * the bitboards when it first changes whether a square blocks.
+ */
+public final class BoardLayout {
+    private final int rows;
+    private final int cols;
+    private final PositionTable positions;        // every square is filled in, only read afterwards
+    private final List<ITerrainObject>[] squares; // by cell, null for empty squares, the lists cannot be changed
+    private final int objectCount;
+    private final int rowWords;      // words per row bitboard
+    private final int colWords;      // words per column bitboard
+    private final long[] rowBits;    // blocked squares, row * rowWords + (col >>> 6)
+    private final long[] colBits;    // the same bits transposed, col * colWords + (row >>> 6)
+    private final long hash;         // Zobrist hash of the objects, the starting hash of every terrain on the layout
+
+    /**
+     * Creates a layout with the given objects, objects[i] lies on square cells[i] (see Cells).
+     * The objects belong to the layout from now on, they must not be placed on any terrain themselves.
+     */
+    public BoardLayout(int rows, int cols, ITerrainObject[] objects, int[] cells) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Layout must have at least one square: " + rows + "x" + cols);
+        }
+        if (objects.length != cells.length) {
+            throw new IllegalArgumentException(objects.length + " objects but " + cells.length + " cells");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.positions = new PositionTable(rows, cols);
+        if (!positions.isFlat()) {
+            throw new IllegalArgumentException("A board of " + rows + "x" + cols + " squares is too large to be shared");
+        }
+        positions.fill();
+
+        this.squares = TerrainStorage.newSquares(rows * cols);
+        this.rowWords = (cols + 63) >>> 6;
+        this.colWords = (rows + 63) >>> 6;
+        this.rowBits = new long[rows * rowWords];
+        this.colBits = new long[cols * colWords];
+
+        long layoutHash = 0;
+        for (int i = 0; i < objects.length; i++) {
+            ITerrainObject object = objects[i];
+            int cell = cells[i];
+            ObjectKind kind = object.getKind();
+            if (kind != ObjectKind.HEAVY_ICE_BLOCK && kind != ObjectKind.FOOD) {
+                throw new IllegalArgumentException(kind + " can move or change, it cannot be shared");
+            }
+            if (cell < 0 || cell >= squares.length) {
+                throw new IllegalArgumentException("Cell " + cell + " is outside of the layout");
+            }
+            if (squares[cell] != null) {
+                throw new IllegalArgumentException("Two objects on cell " + cell + ", shared objects must be alone");
+            }
+            if (object.getPosition() != null) {
+                throw new IllegalArgumentException("Object is already placed at " + object.getPosition());
+            }
+            int row = Cells.row(cell, cols);
+            int col = Cells.col(cell, cols);
+            object.setPosition(positions.get(row, col));
+            squares[cell] = Collections.singletonList(object);
+            rowBits[row * rowWords + (col >>> 6)] |= 1L << col; // heavy blocks and food both stop a slide
+            colBits[col * colWords + (row >>> 6)] |= 1L << row;
+            layoutHash ^= Zobrist.objectKey(IcyTerrain.objectCode(object), cell);
+        }
+        this.objectCount = objects.length;
+        this.hash = layoutHash;
+    }
+
+    public int getRows() { return rows; }
+
+    public int getCols() { return cols; }
+
+    // number of shared objects
+    public int getObjectCount() { return objectCount; }
+
+    PositionTable positions() { return positions; }
+
+    long hash() { return hash; }
+
+    // objects of a square, an empty list if there are none. The list cannot be changed.
+    List<ITerrainObject> objectsAt(int row, int col) {
+        List<ITerrainObject> square = squares[Cells.index(row, col, cols)];
+        return square == null ? Collections.emptyList() : square;
+    }
+
+    int rowWords() { return rowWords; }
+
+    int colWords() { return colWords; }
+
+    // blocked squares by row and by column, shared: a terrain copies the arrays before it changes them
+    long[] rowBits() { return rowBits; }
+
+    long[] colBits() { return colBits; }
+}
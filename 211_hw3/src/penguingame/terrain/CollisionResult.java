@@ -3,6 +3,7 @@ import penguingame.enums.Direction;
 import penguingame.objects.ITerrainObject;
 
 // Object that represents object's state after a collision.
+// The terrain reuses a single instance for all collisions (see IcyTerrain.collisionResult), so read it right away.
 public class CollisionResult {
     public boolean stopSliding; // if object's sliding is interfered
     public boolean transferMovement; // transfering movement ( seaLion and LightIceBlock )
@@ -15,5 +16,13 @@ public class CollisionResult {
         this.newSlider = newSlider;
         this.newDirection = newDirection;
     }
-    
+
+    // overwrites all fields, used when the instance is reused
+    public CollisionResult set(boolean stopSliding, boolean transferMovement, ITerrainObject newSlider, Direction newDirection) {
+        this.stopSliding = stopSliding;
+        this.transferMovement = transferMovement;
+        this.newSlider = newSlider;
+        this.newDirection = newDirection;
+        return this;
+    }
 }
\ No newline at end of file
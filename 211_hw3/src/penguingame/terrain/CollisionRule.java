@@ -0,0 +1,64 @@
+package penguingame.terrain;
+
+import penguingame.enums.ObjectKind;
+
+/**
+ * What happens when a sliding object runs into the first object of a square.
+ * The rule of every (slider kind, blocker kind) pair is looked up once in a precomputed table,
+ * so the terrain resolves a collision with one array read and one switch instead of instanceof chains.
+ */
+public enum CollisionRule {
+    STOP,              // the slider stops in front of the blocker, nothing else happens
+    COLLECT_FOOD,      // a penguin stops on the food square and takes the food
+    DESTROY_FOOD,      // a sliding hazard crushes the food and keeps sliding
+    PUSH,              // the blocker slides on in the same direction (penguin hits penguin, hazard hits light block or sea lion)
+    STUN_AND_PUSH,     // a penguin hits a light ice block: the penguin is stunned and the block slides on
+    PUSH_AND_BOUNCE,   // a penguin hits a sea lion: the sea lion slides on, then the penguin slides back
+    DROP_LIGHTEST_FOOD,// a penguin hits a heavy ice block and loses its lightest food
+    FALL_IN_HOLE,      // a penguin falls into an open hole and is removed
+    PLUG_HOLE;         // a sliding hazard falls into an open hole and plugs it
+
+    private static final ObjectKind[] KINDS = ObjectKind.values();
+    private static final CollisionRule[] TABLE = new CollisionRule[KINDS.length * KINDS.length];
+
+    static {
+        for (ObjectKind slider : KINDS) {
+            for (ObjectKind blocker : KINDS) {
+                TABLE[slider.ordinal() * KINDS.length + blocker.ordinal()] = decide(slider, blocker);
+            }
+        }
+    }
+
+    public static CollisionRule of(ObjectKind slider, ObjectKind blocker) {
+        return TABLE[slider.ordinal() * KINDS.length + blocker.ordinal()];
+    }
+
+    // the rules of the game, evaluated once per pair when the table is built
+    private static CollisionRule decide(ObjectKind slider, ObjectKind blocker) {
+        boolean penguin = slider.isPenguin();
+        boolean slidingHazard = slider == ObjectKind.LIGHT_ICE_BLOCK || slider == ObjectKind.SEA_LION;
+        if (!penguin && !slidingHazard) {
+            return STOP; // food, heavy ice blocks and holes never slide
+        }
+        if (blocker.isPenguin()) {
+            return penguin ? PUSH : STOP;
+        }
+        switch (blocker) {
+            case FOOD:
+                return penguin ? COLLECT_FOOD : DESTROY_FOOD;
+            case LIGHT_ICE_BLOCK:
+                return penguin ? STUN_AND_PUSH : PUSH;
+            case SEA_LION:
+                if (penguin) {
+                    return PUSH_AND_BOUNCE;
+                }
+                return slider == ObjectKind.LIGHT_ICE_BLOCK ? PUSH : STOP;
+            case HEAVY_ICE_BLOCK:
+                return penguin ? DROP_LIGHTEST_FOOD : STOP;
+            case HOLE_IN_ICE:
+                return penguin ? FALL_IN_HOLE : PLUG_HOLE;
+            default:
+                throw new IllegalStateException("No collision rule for " + slider + " hitting " + blocker);
+        }
+    }
+}
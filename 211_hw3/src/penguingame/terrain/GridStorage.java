@@ -0,0 +1,102 @@
+package penguingame.terrain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import penguingame.enums.Direction;
+import penguingame.enums.ObjectKind;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.hazards.HoleInIce;
+
+/**
+ * The original storage: a list of objects for every square, slides walk square by square.
+ */
+class GridStorage implements TerrainStorage {
+    protected final int rows;
+    protected final int cols;
+    private final List<ITerrainObject>[][] grid;
+    // Each cell is a List<IterainObject> because multiple objects can temporarily occupy the same space.
+    // grid[row] is the array of cells of a row and grid[row][col] is the list of a single cell.
+    // Rows and cells are only allocated when an object is first placed there (null means empty),
+    // so a huge board with few objects does not pay for its empty squares.
+
+    GridStorage(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.grid = newRows(rows); // row arrays are created lazily
+    }
+
+    // like TerrainStorage.newSquares, for the array of rows
+    @SuppressWarnings("unchecked")
+    private static List<ITerrainObject>[][] newRows(int rows) {
+        return (List<ITerrainObject>[][]) new List<?>[rows][];
+    }
+
+    @Override
+    public List<ITerrainObject> objectsAt(int row, int col) {
+        List<ITerrainObject>[] cells = grid[row];
+        if (cells == null || cells[col] == null) {
+            return Collections.emptyList(); // nothing was ever placed here
+        }
+        return cells[col];
+    }
+
+    @Override
+    public void add(ITerrainObject object, int row, int col) {
+        cellFor(row, col).add(object);
+    }
+
+    @Override
+    public void insert(ITerrainObject object, int row, int col, int index) {
+        cellFor(row, col).add(index, object);
+    }
+
+    // the list of a square, created if nothing was placed there yet
+    private List<ITerrainObject> cellFor(int row, int col) {
+        List<ITerrainObject>[] cells = grid[row];
+        if (cells == null) {
+            cells = TerrainStorage.newSquares(cols);
+            grid[row] = cells;
+        }
+        List<ITerrainObject> cell = cells[col];
+        if (cell == null) {
+            cell = new ArrayList<>(2);
+            cells[col] = cell;
+        }
+        return cell;
+    }
+
+    @Override
+    public boolean remove(ITerrainObject object, int row, int col) {
+        return objectsAt(row, col).remove(object);
+    }
+
+    @Override
+    public void holeChanged(int row, int col) {
+        // nothing to update, passability is read from the square itself
+    }
+
+    @Override
+    public int distanceToBlocker(int row, int col, Direction dir) {
+        int rowStep = dir.getRowStep();
+        int colStep = dir.getColStep();
+        int distance = 1;
+        int r = row + rowStep;
+        int c = col + colStep;
+        while (r >= 0 && r < rows && c >= 0 && c < cols && isPassable(objectsAt(r, c))) {
+            distance++;
+            r += rowStep;
+            c += colStep;
+        }
+        return distance;
+    }
+
+    // slides pass over empty squares and plugged holes
+    static boolean isPassable(List<ITerrainObject> objects) {
+        if (objects.isEmpty()) {
+            return true;
+        }
+        ITerrainObject first = objects.get(0);
+        return first.getKind() == ObjectKind.HOLE_IN_ICE && ((HoleInIce) first).isPlugged();
+    }
+}
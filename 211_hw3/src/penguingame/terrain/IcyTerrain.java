@@ -1,53 +1,228 @@
 package penguingame.terrain;
 
-import java.util.ArrayList;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import penguingame.enums.Direction;
-import penguingame.objects.IHazard;
-import penguingame.objects.ISlidable;
+import penguingame.enums.ObjectKind;
+import penguingame.enums.TerrainBackend;
+import penguingame.events.EventRing;
+import penguingame.events.EventType;
 import penguingame.objects.ITerrainObject;
 import penguingame.objects.food.Food;
 import penguingame.objects.hazards.HoleInIce;
-import penguingame.objects.hazards.LightIceBlock;
-import penguingame.objects.hazards.SeaLion;
 import penguingame.objects.penguins.Penguin;
 import penguingame.objects.penguins.RockhopperPenguin;
+import penguingame.render.BufferedGridRenderer;
+import penguingame.util.Cells;
 import penguingame.util.Position;
+import penguingame.util.PositionTable;
+import penguingame.util.Zobrist;
 
 //IcyTerrain object that handles and displays the grid
+// Moving objects around does not allocate: slides work on row/column numbers,
+// positions come from an interned table and collisions reuse a single CollisionResult.
 public class IcyTerrain {
-    private List<List<List<ITerrainObject>>> grid;
-    // Each cell is a List<IterainObject> because multiple objects can temporarily occupy the same space.
-    // those Lists of individual cells are contained in a List that represents the columns; List<List<IterrainObject>>
-    // column list is contained in the List that represents row; -> List<List<List<ITerrainObject>>>
-    // and row lists are contained in grid List<List<List<ITerrainObject>>> = grid;
-
+    private final int rows;
+    private final int cols;
+    private final TerrainStorage storage; // keeps the objects of every square, see TerrainBackend
+    private final PositionTable positions; // the one Position object of every square
+    private final CollisionResult collisionResult = new CollisionResult(false, false, null, null); // reused by all collisions
+    private EventRing events = new EventRing(); // events of the terrain and its penguins, nobody listens by default
+    private final UndoLog undoLog = new UndoLog(this); // changes of the terrain and its penguins, see mark() and undo()
+    private long hash = 0; // Zobrist hash of the objects on the terrain and the attached penguins, see getHash()
+    private BufferedGridRenderer display; // draws displayGrid, created by the first call (searches never display)
+    private PrintStream displayOut;       // the System.out it draws to
+
+    // A penguin stuck between two sea lions that cannot move would bounce between them forever.
+    // The bounces whose slides are still being played are remembered with the hash of the board they started on:
+    // the same bounce on the same board always plays the same way, so meeting it again inside its own slides
+    // is a cycle that would never end. A bounce that comes up again after the board changed is played normally.
+    private static final long[] NO_BOUNCES = new long[0];
+    private static final int[] NO_LEVELS = new int[0];
+    private long[] bounces = NO_BOUNCES;      // square * 4 + direction, allocated with the first bounce
+    private long[] bounceHashes = NO_BOUNCES; // hash of the board when the bounce started
+    private int[] bounceLevels = NO_LEVELS;   // stack index the bounce was popped from, its slides are queued above it
+    private int bounceCount = 0;
+
+    // Chain reactions are resolved with an explicit stack of pending slides instead of recursion,
+    // so chains of any length work. The arrays are allocated with the first chain and only grow,
+    // steady-state chains do not allocate.
+    private static final int SLIDE = 0;  // slide an object
+    private static final int BOUNCE = 1; // send a penguin back after a sea lion, unless the bounce is a cycle
+    private static final int MIN_PENDING = 16;
+    private static final int[] NO_KINDS = new int[0];
+    private static final ITerrainObject[] NO_SLIDERS = new ITerrainObject[0];
+    private static final Direction[] NO_DIRECTIONS = new Direction[0];
+    private int[] pendingKinds = NO_KINDS;
+    private ITerrainObject[] pendingSliders = NO_SLIDERS;
+    private Direction[] pendingDirections = NO_DIRECTIONS;
+    private int pendingCount = 0;
+    private boolean resolving = false; // true while a chain is resolved, slides are then queued instead of started
+
+    // the 10*10 terrain of the original game
     public IcyTerrain() {
-        grid = new ArrayList<>(); // list of all squares on the 10*10 grid as mentioned above
-        for(int i=0; i<10; i++) {
-            List<List<ITerrainObject>> row = new ArrayList<>();
-            
-            for(int j=0;j<10;j++) {
-                row.add(new ArrayList<>()); //Empty Cell
-            }
-            grid.add(row);
+        this(10, 10);
+    }
+
+    public IcyTerrain(int rows, int cols) {
+        this(rows, cols, TerrainBackend.GRID);
+    }
+
+    public IcyTerrain(int rows, int cols, TerrainBackend backend) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Terrain must have at least one square: " + rows + "x" + cols);
+        }
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Terrain squares must fit into an int cell index: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.positions = new PositionTable(rows, cols);
+        switch (backend) {
+            case BITBOARD:
+                this.storage = new BitboardStorage(rows, cols);
+                break;
+            case SPARSE:
+                this.storage = new SparseStorage(rows, cols);
+                break;
+            case GRID:
+            default:
+                this.storage = new GridStorage(rows, cols);
+        }
+    }
+
+    /**
+     * A terrain on a shared layout: the objects of the layout lie on the board from the start and every change
+     * of this terrain is kept in its own overlay (see BoardLayout), so many games of one level use little memory.
+     * The rules are the same as on every other terrain.
+     */
+    public IcyTerrain(BoardLayout layout) {
+        this.rows = layout.getRows();
+        this.cols = layout.getCols();
+        this.positions = layout.positions();
+        this.storage = new OverlayStorage(layout);
+        this.hash = layout.hash();
+    }
+
+    public int getRows() { return rows; }
+
+    public int getCols() { return cols; }
+
+    // grid is not valid if it is out of bounds of this terrain
+    public boolean isValid(Position position) {
+        return position.isValid(rows, cols);
+    }
+
+    public boolean isValid(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    // the interned Position of a square of this terrain, the same object is returned every time
+    public Position positionAt(int row, int col) {
+        return positions.get(row, col);
+    }
+
+    // cell index API: a square as the single int row * cols + col (see Cells)
+
+    public int getCellCount() { return rows * cols; }
+
+    public int cellOf(Position position) {
+        return Cells.index(position.getRow(), position.getCol(), cols);
+    }
+
+    public int cellOf(int row, int col) {
+        return Cells.index(row, col, cols);
+    }
+
+    public boolean isValidCell(int cell) {
+        return Cells.isValid(cell, rows, cols);
+    }
+
+    public boolean isEdgeCell(int cell) {
+        return Cells.isEdge(cell, rows, cols);
+    }
+
+    // the neighbouring cell towards the direction, or Cells.NONE if it is outside of this terrain
+    public int neighbor(int cell, Direction dir) {
+        return Cells.neighbor(cell, dir, rows, cols);
+    }
+
+    // the interned Position of a cell
+    public Position positionAt(int cell) {
+        return positions.get(cell);
+    }
+
+    public List<ITerrainObject> getObjectsAt(int cell) {
+        if (!isValidCell(cell)) {
+            return Collections.emptyList();
+        }
+        return storage.objectsAt(Cells.row(cell, cols), Cells.col(cell, cols));
+    }
+
+    public void addObject(ITerrainObject objectToAdd, int cell) {
+        if (isValidCell(cell)) {
+            addObject(objectToAdd, positionAt(cell));
+        }
+    }
+
+    public boolean isEmpty(int cell) {
+        return isValidCell(cell) && getObjectsAt(cell).isEmpty();
+    }
+
+    /**
+     * Returns the result of a collision. The same object is reused for every collision,
+     * so hazards must return it right after filling it and callers must read it right away.
+     */
+    public CollisionResult collisionResult(boolean stopSliding, boolean transferMovement,
+            ITerrainObject newSlider, Direction newDirection) {
+        return collisionResult.set(stopSliding, transferMovement, newSlider, newDirection);
+    }
+
+    // checks whether the square is at the edge of this terrain
+    public boolean isEdge(Position position) {
+        return position.isEdge(rows, cols);
+    }
+
+    // the ring that gets the events of this terrain and its penguins, a game shares its own ring with its terrain
+    public EventRing getEvents() { return events; }
+
+    public void setEvents(EventRing events) {
+        if (events == null) {
+            throw new IllegalArgumentException("Event ring must not be null");
         }
+        this.events = events;
+    }
+
+    // a penguin slid or stepped off the terrain
+    private void fallOffEdge(Penguin penguin) {
+        events.publish(EventType.FELL_IN_WATER, penguin, null, null, Cells.NONE);
+        penguin.setRemoved(true);
     }
 
     // returns the list of object that are at the given position
     // Multiple objects can be at the same position before collision is handled, therefore a list is used
     public List<ITerrainObject> getObjectsAt(Position position) {
-        if(!position.isValid()) {
-            return new ArrayList<>();
+        if(!isValid(position)) {
+            return Collections.emptyList();
         }
-        return grid.get(position.getRow()).get(position.getCol());
+        return storage.objectsAt(position.getRow(), position.getCol());
     }
 
     // adding an object to a location
     public void addObject(ITerrainObject objectToAdd, Position position) {
-        if (position.isValid()) {
-            grid.get(position.getRow()).get(position.getCol()).add(objectToAdd);
-            objectToAdd.setPosition(position);
+        if (isValid(position)) {
+            int cell = cellOf(position);
+            if (undoLog.isRecording()) {
+                undoLog.added(objectToAdd, cell, objectToAdd.getPosition());
+            }
+            if (objectToAdd.getKind().isPenguin()) {
+                attach((Penguin) objectToAdd);
+            }
+            storage.add(objectToAdd, position.getRow(), position.getCol());
+            hash ^= Zobrist.objectKey(objectCode(objectToAdd), cell);
+            setInternedPosition(objectToAdd, cell); // objects only keep interned positions
         }
     }
 
@@ -55,14 +230,195 @@ public class IcyTerrain {
     public void removeObject(ITerrainObject objectToRemove) {
         if (objectToRemove == null) { return; }
         Position pos = objectToRemove.getPosition();
-        if (pos.isValid()) {
-            grid.get(pos.getRow()).get(pos.getCol()).remove(objectToRemove);  
+        if (isValid(pos)) {
+            int cell = cellOf(pos);
+            if (undoLog.isRecording()) {
+                int index = storage.objectsAt(pos.getRow(), pos.getCol()).indexOf(objectToRemove);
+                if (index >= 0) {
+                    undoLog.removed(objectToRemove, cell, index);
+                }
+            }
+            if (storage.remove(objectToRemove, pos.getRow(), pos.getCol())) {
+                hash ^= Zobrist.objectKey(objectCode(objectToRemove), cell);
+            }
+        }
+    }
+
+    /**
+     * Attaches a penguin to this terrain: its changes (stun, removal, special action, food) are recorded
+     * in the undo log and kept in the hash from now on. Penguins are attached when they are first added,
+     * a penguin that is rebuilt off the terrain (already removed) can be attached directly.
+     */
+    public void attach(Penguin penguin) {
+        if (penguin.getTerrain() == this) {
+            return;
+        }
+        penguin.setTerrain(this);
+        long code = penguinCode(penguin);
+        for (int change = Penguin.STUNNED; change <= Penguin.PREPARED_TO_JUMP; change++) {
+            hash ^= Zobrist.penguinKey(code, change, penguin.getFlag(change));
+        }
+        hash ^= Zobrist.inventoryKey(code, penguin.getFoodKeySum());
+    }
+
+    // called by an attached penguin right after it changed
+    public void penguinChanged(Penguin penguin, int change, int previous, Food food) {
+        if (undoLog.isRecording()) {
+            undoLog.penguinChanged(penguin, change, previous, food);
+        }
+        if (change == Penguin.FOOD_COLLECTED) {
+            events.publish(EventType.FOOD_COLLECTED, penguin, food, null, food.getWeight());
+        } else if (change == Penguin.FOOD_LOST) {
+            events.publish(EventType.FOOD_LOST, penguin, food, null, food.getWeight());
+        } else if (change == Penguin.STUNNED && previous == 0 && penguin.isStunned()) {
+            events.publish(EventType.STUNNED, penguin, null, null, 0);
+        }
+        long code = penguinCode(penguin);
+        if (change == Penguin.FOOD_COLLECTED || change == Penguin.FOOD_LOST) {
+            long held = penguin.getFoodKeySum();
+            long item = Zobrist.heldFoodKey(food.getWeight(), food.getType().ordinal());
+            long before = change == Penguin.FOOD_COLLECTED ? held - item : held + item;
+            hash ^= Zobrist.inventoryKey(code, before) ^ Zobrist.inventoryKey(code, held);
+        } else {
+            hash ^= Zobrist.penguinKey(code, change, previous) ^ Zobrist.penguinKey(code, change, penguin.getFlag(change));
+        }
+    }
+
+    // undo of a penguin change, the hash is updated the same way as for the change itself
+    void undoPenguinChange(Penguin penguin, int change, int previous, Food food) {
+        long before = penguinFeatureKey(penguin, change);
+        penguin.undoChange(change, previous, food);
+        hash ^= before ^ penguinFeatureKey(penguin, change);
+    }
+
+    // key of the feature a change touches: the held food for FOOD_COLLECTED and FOOD_LOST, otherwise the flag
+    private static long penguinFeatureKey(Penguin penguin, int change) {
+        long code = penguinCode(penguin);
+        if (change == Penguin.FOOD_COLLECTED || change == Penguin.FOOD_LOST) {
+            return Zobrist.inventoryKey(code, penguin.getFoodKeySum());
+        }
+        return Zobrist.penguinKey(code, change, penguin.getFlag(change));
+    }
+
+    /**
+     * 64-bit Zobrist hash of the terrain: every object per cell (penguins one by one, food with its weight),
+     * plugged holes, and the flags and held food (weights and types) of every attached penguin.
+     * It is kept up to date by every change and every undo, equal states have equal hashes.
+     */
+    public long getHash() { return hash; }
+
+    /**
+     * Computes the hash from scratch by visiting every square, for checking the incremental hash.
+     * penguins are the attached penguins of the game (also the removed ones).
+     */
+    public long recomputeHash(List<Penguin> penguins) {
+        long result = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                List<ITerrainObject> objects = storage.objectsAt(row, col);
+                for (int i = 0; i < objects.size(); i++) {
+                    ITerrainObject obj = objects.get(i);
+                    result ^= Zobrist.objectKey(objectCode(obj), cellOf(row, col));
+                    if (obj.getKind() == ObjectKind.HOLE_IN_ICE && ((HoleInIce) obj).isPlugged()) {
+                        result ^= Zobrist.pluggedHoleKey(cellOf(row, col));
+                    }
+                }
+            }
+        }
+        for (Penguin penguin : penguins) {
+            long code = penguinCode(penguin);
+            for (int change = Penguin.STUNNED; change <= Penguin.PREPARED_TO_JUMP; change++) {
+                result ^= Zobrist.penguinKey(code, change, penguin.getFlag(change));
+            }
+            result ^= Zobrist.inventoryKey(code, penguin.getFoodKeySum());
+        }
+        return result;
+    }
+
+    // tells objects apart in the hash: the kind, plus the weight and type of food and the name of a penguin
+    static long objectCode(ITerrainObject obj) {
+        ObjectKind kind = obj.getKind();
+        if (kind == ObjectKind.FOOD) {
+            Food food = (Food) obj;
+            return ((long) food.getWeight() << 16 | food.getType().ordinal() << 8) | kind.ordinal();
+        }
+        if (kind.isPenguin()) {
+            return penguinCode((Penguin) obj);
+        }
+        return kind.ordinal();
+    }
+
+    // penguins are told apart by their names (P1, P2, ...), so a rebuilt game hashes like the original
+    private static long penguinCode(Penguin penguin) {
+        return 1L << 40 | (penguin.getName().hashCode() & 0xFFFFFFFFL);
+    }
+
+    // plugs a hole on this terrain, slidable objects can pass over it afterwards
+    public void plugHole(HoleInIce hole) {
+        hole.plug();
+        Position pos = hole.getPosition();
+        if (pos != null && isValid(pos)) {
+            if (undoLog.isRecording()) {
+                undoLog.plugged(hole, cellOf(pos));
+            }
+            storage.holeChanged(pos.getRow(), pos.getCol());
+            hash ^= Zobrist.pluggedHoleKey(cellOf(pos));
+            events.publish(EventType.HOLE_PLUGGED, null, hole, null, cellOf(pos));
+        }
+    }
+
+    /**
+     * Starts recording changes (if not already recording) and returns a mark for undo(int).
+     * Every change of the terrain and its penguins after the mark can then be rolled back,
+     * so a search can try moves on this terrain and go back without copying it.
+     */
+    public int mark() {
+        undoLog.setRecording(true);
+        return undoLog.size();
+    }
+
+    // rolls back every change made after the mark, newest first. Marks must be undone in reverse order.
+    public void undo(int mark) {
+        undoLog.undo(mark);
+    }
+
+    // stops recording and forgets the recorded changes
+    public void stopRecording() {
+        undoLog.setRecording(false);
+        undoLog.clear();
+    }
+
+    // undo of addObject: takes the object off the square it was added to (it is the last one there)
+    void undoAdd(ITerrainObject object, int cell, Position previous) {
+        storage.remove(object, Cells.row(cell, cols), Cells.col(cell, cols));
+        hash ^= Zobrist.objectKey(objectCode(object), cell);
+        object.setPosition(previous);
+    }
+
+    // undo of removeObject: puts the object back at its old place in the square's list
+    void undoRemove(ITerrainObject object, int cell, int index) {
+        storage.insert(object, Cells.row(cell, cols), Cells.col(cell, cols), index);
+        hash ^= Zobrist.objectKey(objectCode(object), cell);
+        setInternedPosition(object, cell);
+    }
+    
+    // objects shared through a BoardLayout already have the interned position and are never written
+    private void setInternedPosition(ITerrainObject object, int cell) {
+        Position position = positionAt(cell);
+        if (object.getPosition() != position) {
+            object.setPosition(position);
         }
     }
 
+    void undoPlug(HoleInIce hole, int cell) {
+        hole.unplug();
+        storage.holeChanged(Cells.row(cell, cols), Cells.col(cell, cols));
+        hash ^= Zobrist.pluggedHoleKey(cell);
+    }
+
     // checks if given square is empty
     public boolean isEmpty(Position pos) {
-        return pos.isValid() && getObjectsAt(pos).isEmpty();
+        return isValid(pos) && getObjectsAt(pos).isEmpty();
     }
 
     //sliding = moving one square at the time back to back
@@ -70,23 +426,33 @@ public class IcyTerrain {
 
         //determining the current and next position
         Position current = penguin.getPosition();
-        Position next = current.getNextPosition(dir);
+        int nextRow = current.getRow() + dir.getRowStep();
+        int nextCol = current.getCol() + dir.getColStep();
         
         removeObject(penguin);// removing the object to move it
         
         //if next tile is not valid, penguin is removed from the game
-        if (!next.isValid()) {
-            penguin.setRemoved(true);
+        if (!isValid(nextRow, nextCol)) {
+            fallOffEdge(penguin);
             return;
         }
         
-
-        
-        List<ITerrainObject> objectsAtNext = getObjectsAt(next);
-        for (ITerrainObject obj : objectsAtNext) {
-            if (obj instanceof IHazard) {
+        Position next = positionAt(nextRow, nextCol);
+        List<ITerrainObject> objectsAtNext = storage.objectsAt(nextRow, nextCol);
+        for (int i = 0; i < objectsAtNext.size(); i++) {
+            ITerrainObject obj = objectsAtNext.get(i);
+            if (obj.getKind().isHazard()) {
                 // Trigger the collision logic (falling in hole, bouncing off sea lion, etc.)
-                ((IHazard) obj).handleCollision(penguin, this, dir);
+                // and play the slides it starts before the penguin takes the square
+                boolean outer = beginChain();
+                try {
+                    collide(penguin, obj, dir);
+                    if (outer) {
+                        resolvePending(0);
+                    }
+                } finally {
+                    endChain(outer);
+                }
                 
         // If the penguin wasn't removed (e.g., just bounced), ensure it's on the board
         //  handleCollision often handles placement/sliding, so we only add if the penguin is still active and hasn't been moved by the collision handler.
@@ -104,154 +470,250 @@ public class IcyTerrain {
     // method that handles the special action King and Emperor penguins.
     public void slideWithStop(Penguin penguin, Direction dir, int stopAtSquare) {
 
-        Position current = penguin.getPosition();
+        Position start = penguin.getPosition();
+        int row = start.getRow();
+        int col = start.getCol();
+        events.publish(EventType.SLIDE_STARTED, penguin, penguin, dir, cellOf(row, col));
         removeObject(penguin);
-        int squaresMoved = 0;
 
-        while (true) { 
-            Position next = current.getNextPosition(dir);
+        // Squares before the blocker are empty or Plugged Holes (Safe to pass)
+        int distance = storage.distanceToBlocker(row, col, dir);
+        int squaresToPass = distance - 1;
 
-            if(!(next.isValid())) {
-                penguin.setRemoved(true);
-                return;
-            }
+        // Stops at the given square if it is reachable
+        if (stopAtSquare >= 1 && stopAtSquare <= squaresToPass) {
+            Position current = positionAt(row + stopAtSquare * dir.getRowStep(), col + stopAtSquare * dir.getColStep());
+            addObject(penguin, current);
+            handlePositionInteractions(current);
+            return;
+        }
 
-            List<ITerrainObject> objectsAtNext = getObjectsAt(next);
+        int nextRow = row + distance * dir.getRowStep();
+        int nextCol = col + distance * dir.getColStep();
+        if(!isValid(nextRow, nextCol)) {
+            fallOffEdge(penguin);
+            return;
+        }
 
-            // Checks if its a Plugged Hole (Safe to pass)
-            boolean isPluggedHole = false;
-            if (!objectsAtNext.isEmpty()) {
-                ITerrainObject obj = objectsAtNext.get(0);
-                if (obj instanceof HoleInIce && ((HoleInIce) obj).isPlugged()) {
-                    isPluggedHole = true;
-                }
+        Position current = positionAt(row + squaresToPass * dir.getRowStep(), col + squaresToPass * dir.getColStep());
+        addObject(penguin,current);
+        ITerrainObject blocker = storage.objectsAt(nextRow, nextCol).get(0);
+        boolean outer = beginChain();
+        try {
+            handleCollision(CollisionRule.of(penguin.getKind(), blocker.getKind()), penguin, blocker, dir);
+            if (outer) {
+                resolvePending(0);
             }
+        } finally {
+            endChain(outer);
+        }
+    }
+
+    /**
+     * Slides an object until it is stopped and resolves the whole chain reaction it starts.
+     * Called while a chain is resolved (by a hazard that starts sliding), the slide is queued
+     * and played after the current slide, in the order the rules would play it.
+     */
+    public void slide(ITerrainObject slider, Direction dir) {
+        push(SLIDE, slider, dir);
+        if (resolving) {
+            return;
+        }
+        beginChain();
+        try {
+            resolvePending(0);
+        } finally {
+            endChain(true);
+        }
+    }
 
-            // Allow move if Empty or Plugged Hole
-            if (objectsAtNext.isEmpty() || isPluggedHole) {
-                current = next;
-                squaresMoved++;
+    // starts resolving a chain, returns false if one is already being resolved
+    private boolean beginChain() {
+        if (resolving) {
+            return false;
+        }
+        resolving = true;
+        return true;
+    }
 
-                if (squaresMoved == stopAtSquare) {
-                    addObject(penguin, current);
-                    handlePositionInteractions(current);
-                    return;
-                }
-            } else {
-                addObject(penguin,current);
-                handleCollision(penguin, objectsAtNext.get(0), dir, current); {
-                    return;
-                }
+    // ends the chain started by the outer call: the bounce history and the stack are cleared (also after an exception)
+    private void endChain(boolean outer) {
+        if (outer) {
+            resolving = false;
+            bounceCount = 0;
+            while (pendingCount > 0) {
+                pendingSliders[--pendingCount] = null;
+            }
+        }
+    }
+
+    private void push(int kind, ITerrainObject slider, Direction dir) {
+        if (pendingCount == pendingKinds.length) {
+            int capacity = Math.max(MIN_PENDING, pendingCount * 2);
+            pendingKinds = Arrays.copyOf(pendingKinds, capacity);
+            pendingSliders = Arrays.copyOf(pendingSliders, capacity);
+            pendingDirections = Arrays.copyOf(pendingDirections, capacity);
+        }
+        pendingKinds[pendingCount] = kind;
+        pendingSliders[pendingCount] = slider;
+        pendingDirections[pendingCount] = dir;
+        pendingCount++;
+    }
 
+    /**
+     * Plays the queued slides until the chain has settled, queuedFrom is where the slides queued by the last step start.
+     * The slides one step queues are reversed before the next pop, so they run in the order they were queued
+     * and each finishes its own chain before the next one starts, exactly like nested calls would.
+     */
+    private void resolvePending(int queuedFrom) {
+        reversePending(queuedFrom);
+        while (pendingCount > 0) {
+            pendingCount--;
+            int kind = pendingKinds[pendingCount];
+            ITerrainObject slider = pendingSliders[pendingCount];
+            Direction dir = pendingDirections[pendingCount];
+            pendingSliders[pendingCount] = null;
+            queuedFrom = pendingCount;
+            while (bounceCount > 0 && bounceLevels[bounceCount - 1] > pendingCount) {
+                bounceCount--; // the slides of this bounce are all played
             }
 
+            // a bounce that started again from the same board inside its own slides would repeat forever, the slider stops
+            if (kind == SLIDE) {
+                slideFrom(slider, dir);
+            } else if (rememberBounce(slider.getPosition(), dir, pendingCount)) {
+                removeObject(slider);
+                slideFrom(slider, dir);
+            }
+            reversePending(queuedFrom);
         }
+    }
 
+    private void reversePending(int from) {
+        for (int i = from, j = pendingCount - 1; i < j; i++, j--) {
+            int kind = pendingKinds[i];
+            pendingKinds[i] = pendingKinds[j];
+            pendingKinds[j] = kind;
+            ITerrainObject slider = pendingSliders[i];
+            pendingSliders[i] = pendingSliders[j];
+            pendingSliders[j] = slider;
+            Direction dir = pendingDirections[i];
+            pendingDirections[i] = pendingDirections[j];
+            pendingDirections[j] = dir;
+        }
     }
 
-    public void slide(ITerrainObject slider, Direction dir) {
-        Position current = slider.getPosition();
+    private void slideFrom(ITerrainObject slider, Direction dir) {
+        Position start = slider.getPosition();
+        int row = start.getRow();
+        int col = start.getCol();
+        int rowStep = dir.getRowStep();
+        int colStep = dir.getColStep();
+        ObjectKind kind = slider.getKind();
+        events.publish(EventType.SLIDE_STARTED, kind.isPenguin() ? (Penguin) slider : null, slider, dir,
+                cellOf(row, col));
         removeObject(slider);
 
         boolean canJump = false;
-            if (slider instanceof RockhopperPenguin) {
+        if (kind == ObjectKind.ROCKHOPPER_PENGUIN) {
             RockhopperPenguin rp = (RockhopperPenguin) slider;
             canJump = rp.isPreparedToJump();
-
         }
 
         while (true) { 
-            Position next = current.getNextPosition(dir);
+            // every square before the blocker is empty or a Plugged Hole (Safe to pass),
+            // so the slider moves directly to the square in front of the blocker
+            int distance = storage.distanceToBlocker(row, col, dir);
+            int nextRow = row + distance * rowStep;
+            int nextCol = col + distance * colStep;
+            row += (distance - 1) * rowStep;
+            col += (distance - 1) * colStep;
             
-            if (!(next.isValid())) {
-                if (slider instanceof Penguin) {
-                    ((Penguin) slider).setRemoved(true);
+            if (!isValid(nextRow, nextCol)) {
+                if (kind.isPenguin()) {
+                    fallOffEdge((Penguin) slider);
                 }
                 return;
             }
 
-            List<ITerrainObject> objectsAtNext = getObjectsAt(next);
+            List<ITerrainObject> objectsAtNext = storage.objectsAt(nextRow, nextCol);
 
-            // 1. Check if the square is empty OR if it is a Plugged Hole (Safe to pass)
-            boolean isPluggedHole = false;
-            if (!objectsAtNext.isEmpty()) {
-                ITerrainObject obj = objectsAtNext.get(0);
-                if (obj instanceof HoleInIce && ((HoleInIce) obj).isPlugged()) {
-                    isPluggedHole = true;
-                }
-            }
-            // if next tile is empty or it is PH, then it is safe to move directly by settin current position to next
-            if (objectsAtNext.isEmpty() || isPluggedHole) {
-                //that means it is safe to slide, update the position and continue the loop
-                current = next;
-                // If it's a plugged hole, we technically "occupy" it briefly while passing through (priority)
-                continue;
+            // the blocker is the first object on the next square
+            ITerrainObject blocker = objectsAtNext.get(0);
 
-            } else { // if next tile is not empty: 
-                ITerrainObject blocker = objectsAtNext.get(0);
-
-                // logic to allow jumping if target has Food (but not hazards/penguins)
-                if (canJump && blocker instanceof IHazard) {
-                    Position jumpTo = next.getNextPosition(dir);
-                    
-                    // Check if jumpTo is safe (is Valid and no Hazard AND no Penguin)
-                    // We manually check objects to allow Food
-                    boolean isSafeJump = jumpTo.isValid();
-                    if (isSafeJump) {
-                        for (ITerrainObject obj : getObjectsAt(jumpTo)) {
-                            if (obj instanceof IHazard || obj instanceof Penguin) {
-                                isSafeJump = false;
-                                break;
-                            }
+            // logic to allow jumping if target has Food (but not hazards/penguins)
+            if (canJump && blocker.getKind().isHazard()) {
+                int jumpRow = nextRow + rowStep;
+                int jumpCol = nextCol + colStep;
+                
+                // Check if jumpTo is safe (is Valid and no Hazard AND no Penguin)
+                // We manually check objects to allow Food
+                boolean isSafeJump = isValid(jumpRow, jumpCol);
+                if (isSafeJump) {
+                    List<ITerrainObject> objectsAtJump = storage.objectsAt(jumpRow, jumpCol);
+                    for (int i = 0; i < objectsAtJump.size(); i++) {
+                        ITerrainObject obj = objectsAtJump.get(i);
+                        if (obj.getKind() != ObjectKind.FOOD) { // a hazard or a penguin
+                            isSafeJump = false;
+                            break;
                         }
                     }
+                }
 
-                    if(isSafeJump) {
-                        current = jumpTo;
-                        canJump = false;
-                        ((RockhopperPenguin)slider).setPreparedToJump(false);
-                        
-                        // Important: If we jumped onto Food, we must handle it (collect & stop)
-                        // If handlePositionInteractions collects food, we should probably stop sliding
-                        // to adhere to "stop on food" rule.
-                        addObject(slider, current); // Temporarily place to check interactions
-                        handlePositionInteractions(current);
-                        
-                        // If food was collected (grid is now empty or contains us), we stop.
-                        // If empty (no food), we continue sliding.
-                        if (!isEmpty(current) && !(getObjectsAt(current).get(0) instanceof Penguin)) {
-                             // Food likely still there or other interaction
-                        } else if (getObjectsAt(current).size() == 1 && getObjectsAt(current).get(0) == slider) {
-                             // We are the only thing there (food collected), stop!
-                             return; 
-                        }
-                        
-                        // If it was truly empty, continue sliding
-                        removeObject(slider); 
-                        continue;
-                    }
-                    else {
-                        canJump = false;
-                        ((RockhopperPenguin)slider).setPreparedToJump(false);
+                if(isSafeJump) {
+                    row = jumpRow;
+                    col = jumpCol;
+                    Position current = positionAt(row, col);
+                    canJump = false;
+                    ((RockhopperPenguin)slider).setPreparedToJump(false);
+                    
+                    // Important: If we jumped onto Food, we must handle it (collect & stop)
+                    // If handlePositionInteractions collects food, we should probably stop sliding
+                    // to adhere to "stop on food" rule.
+                    addObject(slider, current); // Temporarily place to check interactions
+                    handlePositionInteractions(current);
+                    
+                    // If food was collected (grid is now empty or contains us), we stop.
+                    // If empty (no food), we continue sliding.
+                    if (!isEmpty(current) && !getObjectsAt(current).get(0).getKind().isPenguin()) {
+                         // Food likely still there or other interaction
+                    } else if (getObjectsAt(current).size() == 1 && getObjectsAt(current).get(0) == slider) {
+                         // We are the only thing there (food collected), stop!
+                         return; 
                     }
+                    
+                    // If it was truly empty, continue sliding
+                    removeObject(slider); 
+                    continue;
                 }
-                if (slider instanceof Penguin && blocker instanceof Food) {
-                    // Penguin stops ON the food square, not before it
-                    addObject(slider, next);
-                    handlePositionInteractions(next);
-                    return;
+                else {
+                    canJump = false;
+                    ((RockhopperPenguin)slider).setPreparedToJump(false);
                 }
-                addObject(slider, current);
-                handleCollision(slider, blocker, dir, current);
+            }
+            CollisionRule rule = CollisionRule.of(kind, blocker.getKind());
+            if (rule == CollisionRule.COLLECT_FOOD) {
+                // Penguin stops ON the food square, not before it
+                Position next = positionAt(nextRow, nextCol);
+                addObject(slider, next);
+                handlePositionInteractions(next);
                 return;
             }
-            
+            if (rule == CollisionRule.DESTROY_FOOD) {
+                // a sliding hazard destroys the food and keeps sliding from where it is
+                removeObject(blocker);
+                continue;
+            }
+            addObject(slider, positionAt(row, col));
+            handleCollision(rule, slider, blocker, dir);
+            return;
         }
     }
 
-    private void handleCollision(ITerrainObject slider, ITerrainObject blocker, Direction dir, Position sliderPos) {
+    // resolves the collision of a slider that stopped in front of the blocker, see CollisionRule
+    private void handleCollision(CollisionRule rule, ITerrainObject slider, ITerrainObject blocker, Direction dir) {
         //  Penguin moves to the food square, then collects it.
-        if (slider instanceof Penguin && blocker instanceof Food) {
+        if (rule == CollisionRule.COLLECT_FOOD) {
             Penguin p = (Penguin) slider;
             Food f = (Food) blocker;
             
@@ -267,30 +729,85 @@ public class IcyTerrain {
             return;
         }
 
-        if (slider instanceof Penguin && blocker instanceof Penguin) {
-            slide(blocker, dir);
-            return;
-        }
-        
-        // handles the collision in the case of collision with the food. (Non-penguin with food)
-        if (slider instanceof ISlidable && blocker instanceof Food) {
-            removeObject(blocker);
-            removeObject(slider);
-            slide(slider, dir);
-            return;
+        CollisionResult result = applyRule(rule, slider, blocker, dir);
+        // the result object is reused, so its values are copied before anything else collides
+        ITerrainObject newSlider = result.newSlider;
+        Direction newDirection = result.newDirection;
+        if (result.transferMovement && newSlider != null) {
+            // queued after the slides the hazard started, the bounce is checked when it is played
+            push(BOUNCE, newSlider, newDirection);
         }
+    }
 
-        if ((slider instanceof LightIceBlock || slider instanceof SeaLion) && blocker instanceof Penguin ) {
-            return; 
+    /**
+     * A collider runs into a hazard: applies the rule of the pair (see CollisionRule) and returns the result,
+     * which asks for a bounce when a penguin hits a sea lion. The hazards' handleCollision methods come here.
+     * Slides the collision starts are queued if a chain is being resolved.
+     */
+    public CollisionResult collide(ITerrainObject collider, ITerrainObject hazard, Direction dir) {
+        return applyRule(CollisionRule.of(collider.getKind(), hazard.getKind()), collider, hazard, dir);
+    }
+
+    private CollisionResult applyRule(CollisionRule rule, ITerrainObject collider, ITerrainObject blocker, Direction dir) {
+        switch (rule) {
+            case PUSH:
+                slide(blocker, dir);
+                break;
+            case STUN_AND_PUSH:
+                ((Penguin) collider).setStunned(true); // penguin is stunned after the collision. A turn is skipped.
+                slide(blocker, dir);
+                break;
+            case PUSH_AND_BOUNCE:
+                slide(blocker, dir); // the sea lion slides on, the penguin slides back after it
+                return collisionResult(true, true, collider, dir.getOpposite());
+            case DROP_LIGHTEST_FOOD:
+                ((Penguin) collider).removeLightestFood(); // nothing happens to a penguin without food
+                break;
+            case FALL_IN_HOLE:
+                if (((HoleInIce) blocker).isPlugged()) {
+                    return collisionResult(false, false, null, dir); // slides pass over plugged holes
+                }
+                Penguin penguin = (Penguin) collider;
+                events.publish(EventType.FELL_IN_WATER, penguin, blocker, null, cellOf(blocker.getPosition()));
+                // Remove from terrain FIRST (while it's still at the previous square), then keep the hole's position
+                penguin.setRemoved(true);
+                removeObject(penguin);
+                penguin.setPosition(blocker.getPosition());
+                break;
+            case PLUG_HOLE:
+                if (((HoleInIce) blocker).isPlugged()) {
+                    return collisionResult(false, false, null, dir);
+                }
+                removeObject(collider);
+                plugHole((HoleInIce) blocker);
+                break;
+            default:
+                // STOP, food is handled by the slides themselves
         }
+        return collisionResult(true, false, null, dir);
+    }
 
-        if (blocker instanceof IHazard) {
-            CollisionResult result = ((IHazard) blocker).handleCollision(slider, this, dir);
-            if (result.transferMovement && result.newSlider != null) {
-                removeObject(result.newSlider);
-                slide(result.newSlider, result.newDirection);
+    /**
+     * Records a bounce popped from the given stack index, returns false if it is a cycle:
+     * the same bounce on the same board is still being played (the new one is part of its slides).
+     */
+    private boolean rememberBounce(Position from, Direction dir, int level) {
+        long bounce = ((long) from.getRow() * cols + from.getCol()) * 4 + dir.ordinal();
+        for (int i = 0; i < bounceCount; i++) {
+            if (bounces[i] == bounce && bounceHashes[i] == hash) {
+                return false;
             }
         }
+        if (bounceCount == bounces.length) {
+            int capacity = Math.max(8, bounceCount * 2);
+            bounces = Arrays.copyOf(bounces, capacity);
+            bounceHashes = Arrays.copyOf(bounceHashes, capacity);
+            bounceLevels = Arrays.copyOf(bounceLevels, capacity);
+        }
+        bounces[bounceCount] = bounce;
+        bounceHashes[bounceCount] = hash;
+        bounceLevels[bounceCount++] = level;
+        return true;
     }
 
     // handles the interaction between food and penguin in a tile.
@@ -298,62 +815,51 @@ public class IcyTerrain {
         List<ITerrainObject> objects = getObjectsAt(pos); // objects at the given position
         
         Penguin penguin = null;
-        List<Food> foodItems = new ArrayList<>();
-        
-        for (ITerrainObject obj : objects) {
-            if (obj instanceof Penguin) {
-                penguin = (Penguin) obj;
-            } else if (obj instanceof Food) {
-                foodItems.add((Food) obj);
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i).getKind().isPenguin()) {
+                penguin = (Penguin) objects.get(i);
             }
         }
-        //penguin collects the food in the square. Food is then removed
+        //penguin collects the food in the square (in the order it lies there). Food is then removed
         if (penguin != null) {
-            for (Food food : foodItems) {
-                penguin.collectFood(food);
-                removeObject(food);
+            int i = 0;
+            while (i < objects.size()) {
+                ITerrainObject obj = objects.get(i);
+                if (obj.getKind() == ObjectKind.FOOD) {
+                    penguin.collectFood((Food) obj);
+                    removeObject(obj); // the next object moves to index i
+                } else {
+                    i++;
+                }
             }
         }
     }
 
-    //displays the grid in terminal for the user
+    // displays the grid in terminal for the user, see GridRenderer for the other ways to draw it
     public void displayGrid() {
-        System.out.println("---------------------------------------------------");
-
-        // displaying rows
-        for (int row = 0; row < 10; row++) {
-            System.out.print("|");
-            //displaying each individual square within the row
-            for (int col = 0; col < 10; col++) {
-                Position pos = new Position(row, col);
-                List<ITerrainObject> objects = getObjectsAt(pos);
-                
-                if (objects.isEmpty()) {
-                    System.out.print("    |");
-                } else {
-                    ITerrainObject toDisplay = getPriorityObject(objects); // only the most prioritized object in the position.
-                    String symbol = toDisplay.getDisplaySymbol();
-                    int padding = (4 - symbol.length()) / 2;
-                    String paddedSymbol = " ".repeat(padding) + symbol + 
-                                         " ".repeat(4 - symbol.length() - padding); // adjusts the string to fit in the square
-                    System.out.print(paddedSymbol + "|");
-                }
-            }
-            System.out.println();
-            System.out.println("---------------------------------------------------"); 
+        if (display == null || displayOut != System.out) { // System.out may have been replaced since the last frame
+            displayOut = System.out;
+            display = new BufferedGridRenderer(displayOut);
         }
+        display.render(this);
+    }
+
+    // the object shown on a square (penguins first, then hazards), null for an empty square
+    public ITerrainObject displayedObjectAt(int cell) {
+        List<ITerrainObject> objects = getObjectsAt(cell);
+        return objects.isEmpty() ? null : getPriorityObject(objects);
     }
 
     // getting the priority object in the position to display.
     private ITerrainObject getPriorityObject(List<ITerrainObject> objects) {
-        for (ITerrainObject obj : objects) {
-            if (obj instanceof Penguin) { 
-                return obj; 
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i).getKind().isPenguin()) {
+                return objects.get(i); 
             }
         }
-        for (ITerrainObject obj : objects) {
-            if (obj instanceof IHazard) { 
-                return obj;
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i).getKind().isHazard()) {
+                return objects.get(i);
             }    
         }
         return objects.get(0);
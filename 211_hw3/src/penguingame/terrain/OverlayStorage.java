@@ -0,0 +1,196 @@
+package penguingame.terrain;
+
+import java.util.ArrayList;
+import java.util.List;
+import penguingame.enums.Direction;
+import penguingame.objects.ITerrainObject;
+import penguingame.util.Cells;
+import penguingame.util.LongObjectHashMap;
+
+/**
+ * Storage of one game on a shared BoardLayout.
+ *
+ * Squares are read from the layout until the game changes them: the first change of a square copies it into
+ * the overlay, a square that is back to its layout contents leaves the overlay again. Small boards keep the overlay
+ * in an array by cell (about as big as a hash map of a game's squares, and faster), larger boards in a primitive hash map.
+ * Slides find their blocker with bit scans like BitboardStorage, on a single layer of blocked squares by row
+ * and by column. The bitboards are the layout's until a square of this game starts or stops blocking, then they are copied.
+ */
+class OverlayStorage implements TerrainStorage {
+    private static final int MAX_SPARE_SQUARES = 4;
+    private static final int MAX_FLAT_SQUARES = 256; // boards up to 16x16 keep the overlay in an array
+
+    private final BoardLayout layout;
+    private final int rows;
+    private final int cols;
+    private final List<ITerrainObject>[] flat;                 // cell -> square, null on larger boards
+    private final LongObjectHashMap<List<ITerrainObject>> changed; // cell -> square, null on small boards
+    private final int rowWords;
+    private final int colWords;
+    private long[] rowBits; // blocked squares, row * rowWords + (col >>> 6), the layout's array until a square changes
+    private long[] colBits; // the same bits transposed
+    private boolean ownBits; // true once the bitboards were copied
+    // lists of squares that left the overlay, reused so moving objects does not allocate (created with the first one)
+    private List<List<ITerrainObject>> spareSquares;
+
+    OverlayStorage(BoardLayout layout) {
+        this.layout = layout;
+        this.rows = layout.getRows();
+        this.cols = layout.getCols();
+        boolean small = rows * cols <= MAX_FLAT_SQUARES;
+        this.flat = small ? TerrainStorage.newSquares(rows * cols) : null;
+        this.changed = small ? null : new LongObjectHashMap<>();
+        this.rowWords = layout.rowWords();
+        this.colWords = layout.colWords();
+        this.rowBits = layout.rowBits();
+        this.colBits = layout.colBits();
+    }
+
+    @Override
+    public List<ITerrainObject> objectsAt(int row, int col) {
+        List<ITerrainObject> square = overlay(Cells.index(row, col, cols));
+        return square == null ? layout.objectsAt(row, col) : square;
+    }
+
+    // the overlay list of a square, null while the square is as in the layout
+    private List<ITerrainObject> overlay(int cell) {
+        return flat != null ? flat[cell] : changed.get(cell);
+    }
+
+    private void setOverlay(int cell, List<ITerrainObject> square) {
+        if (flat != null) {
+            flat[cell] = square;
+        } else if (square != null) {
+            changed.put(cell, square);
+        } else {
+            changed.remove(cell);
+        }
+    }
+
+    @Override
+    public void add(ITerrainObject object, int row, int col) {
+        cellFor(row, col).add(object);
+        squareChanged(row, col);
+    }
+
+    @Override
+    public void insert(ITerrainObject object, int row, int col, int index) {
+        cellFor(row, col).add(index, object);
+        squareChanged(row, col);
+    }
+
+    @Override
+    public boolean remove(ITerrainObject object, int row, int col) {
+        if (!objectsAt(row, col).contains(object)) {
+            return false;
+        }
+        cellFor(row, col).remove(object);
+        squareChanged(row, col);
+        return true;
+    }
+
+    @Override
+    public void holeChanged(int row, int col) {
+        updateBits(row, col);
+    }
+
+    // the overlay list of a square, copied from the layout on the first change
+    private List<ITerrainObject> cellFor(int row, int col) {
+        int cell = Cells.index(row, col, cols);
+        List<ITerrainObject> square = overlay(cell);
+        if (square == null) {
+            List<ITerrainObject> original = layout.objectsAt(row, col);
+            boolean spare = spareSquares != null && !spareSquares.isEmpty();
+            square = spare ? spareSquares.remove(spareSquares.size() - 1) : new ArrayList<>(2);
+            for (int i = 0; i < original.size(); i++) {
+                square.add(original.get(i)); // addAll would copy the square to a new array first
+            }
+            setOverlay(cell, square);
+        }
+        return square;
+    }
+
+    // drops the square from the overlay once it holds what the layout holds, then updates the bitboards
+    private void squareChanged(int row, int col) {
+        int cell = Cells.index(row, col, cols);
+        List<ITerrainObject> square = overlay(cell);
+        List<ITerrainObject> original = layout.objectsAt(row, col);
+        if (square.size() == original.size() && (square.isEmpty() || square.get(0) == original.get(0))) {
+            setOverlay(cell, null); // layout squares hold one object at most
+            square.clear();
+            if (spareSquares == null) {
+                spareSquares = new ArrayList<>(MAX_SPARE_SQUARES);
+            }
+            if (spareSquares.size() < MAX_SPARE_SQUARES) {
+                spareSquares.add(square);
+            }
+        }
+        updateBits(row, col);
+    }
+
+    private void updateBits(int row, int col) {
+        boolean blocked = !GridStorage.isPassable(objectsAt(row, col));
+        int rowIndex = row * rowWords + (col >>> 6);
+        if (((rowBits[rowIndex] & (1L << col)) != 0) == blocked) {
+            return; // the square blocks as before
+        }
+        if (!ownBits) {
+            rowBits = rowBits.clone(); // first change of this game
+            colBits = colBits.clone();
+            ownBits = true;
+        }
+        rowBits[rowIndex] ^= 1L << col;
+        colBits[col * colWords + (row >>> 6)] ^= 1L << row;
+    }
+
+    @Override
+    public int distanceToBlocker(int row, int col, Direction dir) {
+        switch (dir) {
+            case RIGHT: return forward(rowBits, row * rowWords, rowWords, col, cols);
+            case LEFT: return backward(rowBits, row * rowWords, col);
+            case DOWN: return forward(colBits, col * colWords, colWords, row, rows);
+            case UP: return backward(colBits, col * colWords, row);
+            default: throw new IllegalArgumentException("Unknown direction: " + dir);
+        }
+    }
+
+    // distance to the first blocked bit after 'from' in a line of 'length' squares starting at word 'base'
+    private static int forward(long[] bits, int base, int words, int from, int length) {
+        int start = from + 1;
+        if (start >= length) {
+            return 1; // already on the last square, the next one is off the terrain
+        }
+        int word = start >>> 6;
+        long blocked = bits[base + word] & (-1L << start); // ignore squares before the start
+        while (true) {
+            if (blocked != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(blocked) - from;
+            }
+            word++;
+            if (word == words) {
+                return length - from;
+            }
+            blocked = bits[base + word];
+        }
+    }
+
+    // distance to the first blocked bit before 'from' in a line starting at word 'base'
+    private static int backward(long[] bits, int base, int from) {
+        int start = from - 1;
+        if (start < 0) {
+            return 1; // already on the first square, the next one is off the terrain
+        }
+        int word = start >>> 6;
+        long blocked = bits[base + word] & (-1L >>> (63 - (start & 63))); // ignore squares after the start
+        while (true) {
+            if (blocked != 0) {
+                return from - ((word << 6) + 63 - Long.numberOfLeadingZeros(blocked));
+            }
+            word--;
+            if (word < 0) {
+                return from + 1;
+            }
+            blocked = bits[base + word];
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package penguingame.terrain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import penguingame.enums.Direction;
+import penguingame.objects.ITerrainObject;
+import penguingame.util.LongObjectHashMap;
+import penguingame.util.SortedIntSet;
+
+/**
+ * Storage for huge, mostly empty terrains.
+ *
+ * Only occupied squares are stored, keyed by their packed (row, col) coordinate in a primitive hash map.
+ * Every row and column keeps a sorted index of its squares that stop a slide,
+ * so a slide jumps straight to its blocker with one binary search.
+ * Memory grows with the number of objects (plus one index per row and column), not with the board area.
+ */
+class SparseStorage implements TerrainStorage {
+    private static final int MAX_SPARE_CELLS = 16;
+
+    private final int rows;
+    private final int cols;
+    private final LongObjectHashMap<List<ITerrainObject>> cells = new LongObjectHashMap<>();
+    private final SortedIntSet[] blockersInRow; // row -> columns of the blocking squares, created lazily
+    private final SortedIntSet[] blockersInCol; // col -> rows of the blocking squares, created lazily
+    // lists of squares that became empty, reused for the next occupied square so moving objects does not allocate
+    private final List<List<ITerrainObject>> spareCells = new ArrayList<>(MAX_SPARE_CELLS);
+
+    SparseStorage(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.blockersInRow = new SortedIntSet[rows];
+        this.blockersInCol = new SortedIntSet[cols];
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | col;
+    }
+
+    @Override
+    public List<ITerrainObject> objectsAt(int row, int col) {
+        List<ITerrainObject> cell = cells.get(key(row, col));
+        return cell == null ? Collections.emptyList() : cell;
+    }
+
+    @Override
+    public void add(ITerrainObject object, int row, int col) {
+        List<ITerrainObject> cell = cellFor(row, col);
+        cell.add(object);
+        updateIndex(row, col, cell);
+    }
+
+    @Override
+    public void insert(ITerrainObject object, int row, int col, int index) {
+        List<ITerrainObject> cell = cellFor(row, col);
+        cell.add(index, object);
+        updateIndex(row, col, cell);
+    }
+
+    // the list of a square, an empty square gets a spare list
+    private List<ITerrainObject> cellFor(int row, int col) {
+        long key = key(row, col);
+        List<ITerrainObject> cell = cells.get(key);
+        if (cell == null) {
+            cell = spareCells.isEmpty() ? new ArrayList<>(2) : spareCells.remove(spareCells.size() - 1);
+            cells.put(key, cell);
+        }
+        return cell;
+    }
+
+    @Override
+    public boolean remove(ITerrainObject object, int row, int col) {
+        long key = key(row, col);
+        List<ITerrainObject> cell = cells.get(key);
+        if (cell == null || !cell.remove(object)) {
+            return false;
+        }
+        if (cell.isEmpty()) {
+            cells.remove(key); // empty squares are not stored
+            if (spareCells.size() < MAX_SPARE_CELLS) {
+                spareCells.add(cell);
+            }
+        }
+        updateIndex(row, col, cell);
+        return true;
+    }
+
+    @Override
+    public void holeChanged(int row, int col) {
+        updateIndex(row, col, objectsAt(row, col));
+    }
+
+    // keeps the square in the row and column indexes exactly while it stops slides
+    private void updateIndex(int row, int col, List<ITerrainObject> cell) {
+        if (GridStorage.isPassable(cell)) {
+            if (blockersInRow[row] != null) {
+                blockersInRow[row].remove(col);
+            }
+            if (blockersInCol[col] != null) {
+                blockersInCol[col].remove(row);
+            }
+        } else {
+            if (blockersInRow[row] == null) {
+                blockersInRow[row] = new SortedIntSet();
+            }
+            if (blockersInCol[col] == null) {
+                blockersInCol[col] = new SortedIntSet();
+            }
+            blockersInRow[row].add(col);
+            blockersInCol[col].add(row);
+        }
+    }
+
+    @Override
+    public int distanceToBlocker(int row, int col, Direction dir) {
+        SortedIntSet index;
+        switch (dir) {
+            case RIGHT:
+                index = blockersInRow[row];
+                int right = index == null ? Integer.MAX_VALUE : index.higher(col);
+                return (right == Integer.MAX_VALUE ? cols : right) - col;
+            case LEFT:
+                index = blockersInRow[row];
+                int left = index == null ? Integer.MIN_VALUE : index.lower(col);
+                return col - (left == Integer.MIN_VALUE ? -1 : left);
+            case DOWN:
+                index = blockersInCol[col];
+                int down = index == null ? Integer.MAX_VALUE : index.higher(row);
+                return (down == Integer.MAX_VALUE ? rows : down) - row;
+            case UP:
+                index = blockersInCol[col];
+                int up = index == null ? Integer.MIN_VALUE : index.lower(row);
+                return row - (up == Integer.MIN_VALUE ? -1 : up);
+            default:
+                throw new IllegalArgumentException("Unknown direction: " + dir);
+        }
+    }
+}
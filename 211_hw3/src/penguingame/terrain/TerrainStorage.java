@@ -0,0 +1,40 @@
+package penguingame.terrain;
+
+import java.util.List;
+import penguingame.enums.Direction;
+import penguingame.objects.ITerrainObject;
+
+/**
+ * Storage of the objects on the squares of an IcyTerrain.
+ * IcyTerrain keeps the game rules, a storage only answers what is where.
+ * Positions given to a storage are always valid.
+ */
+interface TerrainStorage {
+
+    // objects on a square, an empty list if there are none. The list must not be changed by callers.
+    List<ITerrainObject> objectsAt(int row, int col);
+
+    void add(ITerrainObject object, int row, int col);
+
+    // puts the object at the given index of the square's list, used to undo a removal
+    void insert(ITerrainObject object, int row, int col, int index);
+
+    // returns false if the object was not on the square
+    boolean remove(ITerrainObject object, int row, int col);
+
+    // called after the hole on the given square has been plugged or unplugged
+    void holeChanged(int row, int col);
+
+    /**
+     * Number of steps from the given square to the first square in the direction that stops a slide,
+     * which is either a square that cannot be passed or the first square outside of the terrain.
+     * A square can be passed when it is empty or its first object is a plugged hole.
+     */
+    int distanceToBlocker(int row, int col, Direction dir);
+
+    // a new array of square lists (all null), Java cannot create an array of List<ITerrainObject> directly
+    @SuppressWarnings("unchecked")
+    static List<ITerrainObject>[] newSquares(int length) {
+        return (List<ITerrainObject>[]) new List<?>[length];
+    }
+}
@@ -0,0 +1,122 @@
+package penguingame.terrain;
+
+import java.util.Arrays;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.food.Food;
+import penguingame.objects.hazards.HoleInIce;
+import penguingame.objects.penguins.Penguin;
+import penguingame.util.Position;
+
+/**
+ * Log of every change made to an IcyTerrain and its penguins while recording is on:
+ * objects added to and removed from squares, plugged holes, penguin flags and food.
+ * Rolling back to a mark undoes the changes after it in reverse order, in O(changes).
+ *
+ * Entries are kept in parallel arrays that only grow, so recording and undoing do not allocate
+ * once the arrays are big enough. See IcyTerrain.mark() and IcyTerrain.undo(int).
+ */
+public class UndoLog {
+    // terrain changes
+    private static final byte ADDED = 0;    // object added to a square, other = its previous position
+    private static final byte REMOVED = 1;  // object removed from index 'value' of a square
+    private static final byte PLUGGED = 2;  // hole plugged
+    private static final byte PENGUIN = 3;  // penguin change, see Penguin.undoChange
+    private static final int MIN_CAPACITY = 64;
+    private static final byte[] NO_TYPES = new byte[0];
+    private static final ITerrainObject[] NO_OBJECTS = new ITerrainObject[0];
+    private static final Object[] NO_OTHERS = new Object[0];
+    private static final int[] NO_INTS = new int[0];
+
+    private final IcyTerrain terrain;
+    private boolean recording = false;
+    private int size = 0;
+    // allocated with the first change, most terrains of a batch never record
+    private byte[] types = NO_TYPES;
+    private ITerrainObject[] objects = NO_OBJECTS;
+    private Object[] others = NO_OTHERS;   // previous Position or the food of a penguin change
+    private int[] cells = NO_INTS;         // square of the change or kind of penguin change
+    private int[] values = NO_INTS;        // list index or previous value
+
+    UndoLog(IcyTerrain terrain) {
+        this.terrain = terrain;
+    }
+
+    public boolean isRecording() { return recording; }
+
+    void setRecording(boolean recording) { this.recording = recording; }
+
+    // number of recorded changes, a mark to undo to
+    public int size() { return size; }
+
+    void clear() {
+        Arrays.fill(objects, 0, size, null);
+        Arrays.fill(others, 0, size, null);
+        size = 0;
+    }
+
+    void added(ITerrainObject object, int cell, Position previous) {
+        record(ADDED, object, previous, cell, 0);
+    }
+
+    void removed(ITerrainObject object, int cell, int index) {
+        record(REMOVED, object, null, cell, index);
+    }
+
+    void plugged(HoleInIce hole, int cell) {
+        record(PLUGGED, hole, null, cell, 0);
+    }
+
+    /**
+     * Records a change of a penguin: the kind of change (see the constants of Penguin),
+     * the previous value and, for food lost, the food item.
+     */
+    void penguinChanged(Penguin penguin, int change, int previous, Food food) {
+        record(PENGUIN, penguin, food, change, previous);
+    }
+
+    // undoes every change recorded after the mark, newest first
+    void undo(int mark) {
+        if (mark < 0 || mark > size) {
+            throw new IllegalArgumentException("Invalid undo mark " + mark + ", the log has " + size + " changes");
+        }
+        boolean wasRecording = recording;
+        recording = false; // undoing must not record anything
+        while (size > mark) {
+            size--;
+            ITerrainObject object = objects[size];
+            switch (types[size]) {
+                case ADDED:
+                    terrain.undoAdd(object, cells[size], (Position) others[size]);
+                    break;
+                case REMOVED:
+                    terrain.undoRemove(object, cells[size], values[size]);
+                    break;
+                case PLUGGED:
+                    terrain.undoPlug((HoleInIce) object, cells[size]);
+                    break;
+                default:
+                    terrain.undoPenguinChange((Penguin) object, cells[size], values[size], (Food) others[size]);
+            }
+            objects[size] = null;
+            others[size] = null;
+        }
+        recording = wasRecording;
+    }
+
+    private void record(byte type, ITerrainObject object, Object other, int cell, int value) {
+        if (size == types.length) {
+            int capacity = Math.max(MIN_CAPACITY, size * 2);
+            types = Arrays.copyOf(types, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+            others = Arrays.copyOf(others, capacity);
+            cells = Arrays.copyOf(cells, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        types[size] = type;
+        objects[size] = object;
+        others[size] = other;
+        cells[size] = cell;
+        values[size] = value;
+        size++;
+    }
+}
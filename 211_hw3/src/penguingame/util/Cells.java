@@ -0,0 +1,47 @@
+package penguingame.util;
+
+import penguingame.enums.Direction;
+
+/**
+ * Helpers for squares encoded as a single int: cell = row * cols + col.
+ * Cells avoid creating Position objects in loops over the board, -1 stands for "outside of the board".
+ */
+public final class Cells {
+    public static final int NONE = -1; // a cell outside of the board
+
+    private Cells() { }
+
+    public static int index(int row, int col, int cols) {
+        return row * cols + col;
+    }
+
+    public static int row(int cell, int cols) {
+        return cell / cols;
+    }
+
+    public static int col(int cell, int cols) {
+        return cell % cols;
+    }
+
+    public static boolean isValid(int cell, int rows, int cols) {
+        return cell >= 0 && cell < rows * cols;
+    }
+
+    // checks whether the cell is at the edge of a rows*cols grid
+    public static boolean isEdge(int cell, int rows, int cols) {
+        int row = row(cell, cols);
+        int col = col(cell, cols);
+        return row == 0 || row == rows - 1 || col == 0 || col == cols - 1;
+    }
+
+    // the neighbouring cell towards the direction, or NONE if that square is outside of the board
+    public static int neighbor(int cell, Direction dir, int rows, int cols) {
+        switch (dir) {
+            case UP: return cell >= cols ? cell - cols : NONE;
+            case DOWN: return cell < (rows - 1) * cols ? cell + cols : NONE;
+            case LEFT: return col(cell, cols) > 0 ? cell - 1 : NONE;
+            case RIGHT: return col(cell, cols) < cols - 1 ? cell + 1 : NONE;
+            default: return NONE;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package penguingame.util;
+
+import java.util.Arrays;
+
+/**
+ * The free values 0 to n - 1 (cells of a board, or edge squares) for random placement:
+ * taking a random free value is a single draw, taking a given value is O(1) too.
+ *
+ * Works like a Fisher-Yates shuffle done lazily: the free values are the first size slots of a virtual array
+ * that starts as 0, 1, 2 ... n - 1, and taking a value moves the value of the last free slot into its slot.
+ * Only slots that were changed are stored (slot to value and value to slot, in open addressing tables),
+ * so the pool needs memory for the taken values only and works for boards of any size.
+ */
+public class FreeCellPool {
+    private int size;
+    private final IntTable valueAt = new IntTable(); // slot -> value, slots that are not stored hold their own index
+    private final IntTable slotOf = new IntTable();  // value -> slot, the same for values
+
+    public FreeCellPool(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Pool size must not be negative: " + n);
+        }
+        this.size = n;
+    }
+
+    // number of free values
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int value) {
+        int slot = slotOf.get(value);
+        return slot < size && valueAt.get(slot) == value;
+    }
+
+    /**
+     * Takes the free value in the given slot (0 to size - 1) and returns it.
+     * A uniformly random slot gives a uniformly random free value.
+     */
+    public int take(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IllegalArgumentException("Slot " + slot + " is not free, the pool has " + size + " free values");
+        }
+        int value = valueAt.get(slot);
+        removeSlot(slot);
+        return value;
+    }
+
+    // takes the given value, returns false if it was already taken
+    public boolean remove(int value) {
+        if (value < 0 || !contains(value)) {
+            return false;
+        }
+        removeSlot(slotOf.get(value));
+        return true;
+    }
+
+    private void removeSlot(int slot) {
+        int last = size - 1;
+        if (slot != last) {
+            int moved = valueAt.get(last);
+            valueAt.put(slot, moved);
+            slotOf.put(moved, slot);
+        }
+        size--;
+    }
+
+    // int to int table with linear probing, keys that are not stored map to themselves
+    private static final class IntTable {
+        private static final int EMPTY = -1;
+
+        private int[] keys = newKeys(16);
+        private int[] values = new int[16];
+        private int count;
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == EMPTY) {
+                    return key;
+                }
+            }
+        }
+
+        void put(int key, int value) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                count++;
+            }
+            values[i] = value;
+            if (count * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[oldKeys.length * 2];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package penguingame.util;
 import penguingame.enums.Direction;
 
-//Position class that handles the position of the squares of 10*10 grid
+//Position class that handles the position of the squares of the grid
 public class Position {
     private final int row;
     private final int col;
@@ -15,9 +15,9 @@ public class Position {
     public int getRow() { return row; }
     public int getCol() { return col; }
     
-    // grid is not valid if it is out of bounds of the 10*10 grid
-    public boolean isValid(){
-        return (row >= 0 && row < 10 && col >= 0 && col < 10);
+    // grid is not valid if it is out of bounds of a rows*cols grid
+    public boolean isValid(int rows, int cols){
+        return (row >= 0 && row < rows && col >= 0 && col < cols);
     }
 
     // gets the next position towards the new direction
@@ -35,12 +35,28 @@ public class Position {
         }
     }
 
-    // checks whether the square is at the edge of the 10*10 grid
-    public boolean isEdge() {
-        return row == 0 || row == 9 || col == 0 || col == 9;
+    // gets the position the given number of squares away towards the direction
+    public Position getNextPosition(Direction dir, int steps) {
+        switch (dir) {
+            case UP: return new Position(this.row - steps, this.col);
+
+            case DOWN: return new Position(this.row + steps, this.col);
+
+            case LEFT: return new Position(this.row, this.col - steps);
+
+            case RIGHT: return new Position(this.row, this.col + steps);
+
+            default: return this;
+        }
+    }
+
+    // checks whether the square is at the edge of a rows*cols grid
+    public boolean isEdge(int rows, int cols) {
+        return row == 0 || row == rows - 1 || col == 0 || col == cols - 1;
     }
 
     // two position is equal if their rows and columns are equal
+    @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof Position)) {
             return false;
@@ -48,4 +64,15 @@ public class Position {
         Position objPosition = (Position) obj;
         return this.row == objPosition.row && this.col == objPosition.col;
     }
+
+    // equal positions must have equal hash codes so positions can be used as hash keys
+    @Override
+    public int hashCode() {
+        return 31 * row + col;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + row + ", " + col + ")";
+    }
 }
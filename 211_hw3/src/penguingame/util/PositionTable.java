@@ -0,0 +1,75 @@
+package penguingame.util;
+
+/**
+ * Interned Position objects of one board (indexed by row/column or by cell, see Cells), so the same square always uses the same Position
+ * and moving objects around does not allocate.
+ * Small boards keep a flat array of all squares, huge boards only remember the squares that were asked for.
+ */
+public class PositionTable {
+    private static final long MAX_FLAT_SQUARES = 1 << 20; // 4 MB of references at most
+
+    private final int rows;
+    private final int cols;
+    private final Position[] flat;                   // row * cols + col, filled lazily (null on huge boards)
+    private final LongObjectHashMap<Position> sparse; // packed (row, col), used on huge boards
+
+    public PositionTable(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        if ((long) rows * cols <= MAX_FLAT_SQUARES) {
+            this.flat = new Position[rows * cols];
+            this.sparse = null;
+        } else {
+            this.flat = null;
+            this.sparse = new LongObjectHashMap<>();
+        }
+    }
+
+    // true when the table keeps every square in one array, see fill
+    public boolean isFlat() {
+        return flat != null;
+    }
+
+    /**
+     * Creates the Position of every square now. Afterwards get() only reads, so the table can be shared
+     * by any number of threads once it has been safely published. Only flat tables can be filled.
+     */
+    public void fill() {
+        if (flat == null) {
+            throw new IllegalStateException("A board of " + rows + "x" + cols + " squares is too large to be filled");
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                get(row, col);
+            }
+        }
+    }
+
+    // the Position of a cell inside the board
+    public Position get(int cell) {
+        return get(Cells.row(cell, cols), Cells.col(cell, cols));
+    }
+
+    // the Position of a square inside the board
+    public Position get(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Square (" + row + ", " + col + ") is outside of the board");
+        }
+        if (flat != null) {
+            int index = row * cols + col;
+            Position position = flat[index];
+            if (position == null) {
+                position = new Position(row, col);
+                flat[index] = position;
+            }
+            return position;
+        }
+        long key = ((long) row << 32) | col;
+        Position position = sparse.get(key);
+        if (position == null) {
+            position = new Position(row, col);
+            sparse.put(key, position);
+        }
+        return position;
+    }
+}
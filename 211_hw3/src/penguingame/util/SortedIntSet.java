@@ -0,0 +1,63 @@
+package penguingame.util;
+
+import java.util.Arrays;
+
+/**
+ * A small set of ints kept in a sorted array.
+ * Lookups of the next higher or lower element use binary search.
+ */
+public class SortedIntSet {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] elements = EMPTY;
+    private int size;
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(elements, 0, size, value) >= 0;
+    }
+
+    // adds the value, returns false if it was already in the set
+    public boolean add(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(4, size * 2));
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+        return true;
+    }
+
+    // removes the value, returns false if it was not in the set
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    // smallest element greater than the value, or Integer.MAX_VALUE if there is none
+    public int higher(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        index = index >= 0 ? index + 1 : -index - 1;
+        return index < size ? elements[index] : Integer.MAX_VALUE;
+    }
+
+    // largest element smaller than the value, or Integer.MIN_VALUE if there is none
+    public int lower(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        index = index >= 0 ? index - 1 : -index - 2;
+        return index >= 0 ? elements[index] : Integer.MIN_VALUE;
+    }
+}
@@ -0,0 +1,118 @@
+package penguingame.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size cache of evaluated positions, keyed by their Zobrist hash.
+ *
+ * Every bucket has two slots: one keeps the entry that was searched deepest, the other is always
+ * overwritten by the newest entry. A new entry replaces the deep slot if it is at least as deep or if
+ * the deep entry is from an older generation (see newGeneration), otherwise it goes into the other slot.
+ *
+ * An entry is two longs: the data (value, depth, generation) and the hash XOR the data.
+ * A reader only accepts an entry whose two words match, so threads can share a table without locks:
+ * an entry that is being overwritten by another thread at the same time is simply a miss.
+ */
+public class TranspositionTable {
+    private static final int SLOTS_PER_BUCKET = 2;
+    private static final long USED = 1L << 15; // set in every stored entry, an empty slot is 0
+    private static final int GENERATION_MASK = 0x7FFF;
+
+    private final long[] checks; // hash ^ data
+    private final long[] data;   // float value (high 32 bits), depth (16 bits), USED bit, generation (15 bits)
+    private final int bucketMask;
+    private int generation = 0;
+
+    // statistics, not exact when several threads use the table
+    private long hits;
+    private long misses;
+    private long stores;
+
+    /**
+     * Creates a table with room for about the given number of entries (rounded up to a power of two).
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < SLOTS_PER_BUCKET) {
+            throw new IllegalArgumentException("Capacity must be at least " + SLOTS_PER_BUCKET + ": " + capacity);
+        }
+        int buckets = Integer.highestOneBit((capacity + SLOTS_PER_BUCKET - 1) / SLOTS_PER_BUCKET);
+        if (buckets * SLOTS_PER_BUCKET < capacity) {
+            buckets <<= 1;
+        }
+        this.bucketMask = buckets - 1;
+        this.checks = new long[buckets * SLOTS_PER_BUCKET];
+        this.data = new long[buckets * SLOTS_PER_BUCKET];
+    }
+
+    public int capacity() { return data.length; }
+
+    // entries of older generations are replaced first, start a new one for every new search
+    public void newGeneration() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * The value stored for the hash if it was evaluated at least minDepth deep, otherwise NaN.
+     */
+    public double get(long hash, int minDepth) {
+        int slot = bucket(hash);
+        for (int i = 0; i < SLOTS_PER_BUCKET; i++, slot++) {
+            long entry = data[slot];
+            if ((checks[slot] ^ entry) == hash && entry != 0 && depth(entry) >= minDepth) {
+                hits++;
+                return Float.intBitsToFloat((int) (entry >>> 32));
+            }
+        }
+        misses++;
+        return Double.NaN;
+    }
+
+    /**
+     * Stores the value of a position that was evaluated to the given depth (0 to 65535).
+     */
+    public void put(long hash, int depth, double value) {
+        if (depth < 0 || depth > 0xFFFF) {
+            throw new IllegalArgumentException("Depth must be between 0 and 65535: " + depth);
+        }
+        long entry = ((long) Float.floatToIntBits((float) value) << 32) | ((long) depth << 16) | USED | generation;
+        int deep = bucket(hash);
+        int newest = deep + 1;
+        long old = data[deep];
+        boolean sameHash = (checks[deep] ^ old) == hash;
+        if (old == 0 || sameHash || depth >= depth(old) || ((int) old & GENERATION_MASK) != generation) {
+            write(deep, hash, entry);
+        } else {
+            write(newest, hash, entry);
+        }
+        stores++;
+    }
+
+    // forgets every entry
+    public void clear() {
+        Arrays.fill(checks, 0);
+        Arrays.fill(data, 0);
+        hits = 0;
+        misses = 0;
+        stores = 0;
+    }
+
+    public long getHits() { return hits; }
+
+    public long getMisses() { return misses; }
+
+    public long getStores() { return stores; }
+
+    private void write(int slot, long hash, long entry) {
+        data[slot] = entry;
+        checks[slot] = hash ^ entry;
+    }
+
+    private int bucket(long hash) {
+        // the hash is already well mixed, its high bits pick the bucket
+        return ((int) (hash >>> 32) & bucketMask) * SLOTS_PER_BUCKET;
+    }
+
+    private static int depth(long entry) {
+        return (int) (entry >>> 16) & 0xFFFF;
+    }
+}
@@ -0,0 +1,73 @@
+package penguingame.util;
+
+/**
+ * Zobrist keys of the game state.
+ *
+ * The hash of a state is the XOR of one 64-bit key per feature (an object on a cell, a plugged hole,
+ * a penguin flag, the food a penguin holds, ...), so adding or removing a feature is a single XOR.
+ * Keys are not stored in random tables: each key is computed by mixing the feature's numbers with the
+ * SplitMix64 finalizer, which works for boards of any size and gives every game the same keys.
+ */
+public final class Zobrist {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    // feature domains, so different features never share a key
+    private static final long OBJECT = 1;
+    private static final long PLUGGED_HOLE = 2;
+    private static final long PENGUIN = 3;
+    private static final long STEP = 4;
+    private static final long HELD_FOOD = 5;
+    private static final long INVENTORY = 6;
+
+    private Zobrist() { }
+
+    // SplitMix64 finalizer, a bijection that spreads every input bit over the whole result
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long key(long domain, long a, long b) {
+        return mix(mix(domain * GOLDEN_GAMMA + a) + b * GOLDEN_GAMMA);
+    }
+
+    // an object lying on a cell, objectCode tells objects apart (kind, food weight, which penguin)
+    public static long objectKey(long objectCode, int cell) {
+        return key(OBJECT, objectCode, cell);
+    }
+
+    public static long pluggedHoleKey(int cell) {
+        return key(PLUGGED_HOLE, cell, 0);
+    }
+
+    // a flag of a penguin. Value 0 of a flag has no key.
+    public static long penguinKey(long penguinCode, int feature, int value) {
+        if (value == 0) {
+            return 0;
+        }
+        return key(PENGUIN, penguinCode, ((long) feature << 32) | (value & 0xFFFFFFFFL));
+    }
+
+    // a food item held by a penguin, the keys of the held items are added up for inventoryKey
+    public static long heldFoodKey(int weight, int type) {
+        return key(HELD_FOOD, weight, type);
+    }
+
+    /**
+     * The food a penguin holds, from the sum of the heldFoodKey of its items. Unlike a XOR, the sum tells
+     * two equal items from none, and like a XOR it does not depend on the order of the items.
+     * An empty inventory has no key.
+     */
+    public static long inventoryKey(long penguinCode, long heldFoodSum) {
+        if (heldFoodSum == 0) {
+            return 0;
+        }
+        return key(INVENTORY, penguinCode, heldFoodSum);
+    }
+
+    // whose turn it is: step = (turn - 1) * penguins + index of the penguin
+    public static long stepKey(int step) {
+        return key(STEP, step, 0);
+    }
+}
@@ -0,0 +1,86 @@
+package penguingame.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import penguingame.enums.OpponentModel;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.Move;
+import penguingame.objects.penguins.Penguin;
+import penguingame.util.Zobrist;
+
+/**
+ * The solver against a plain search of every plan, with the built-in AI reseeded per step like the solver does.
+ * The best weight must match, playing the returned plan must reach it and the adversarial bound must not exceed it.
+ */
+class ExactSolverTest {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L; // step seeds of the heuristic opponents, as in ExactSolver
+    private static final long SEED = 0;
+
+    @Test
+    void solverFindsTheBestPlan() {
+        try (ExactSolver heuristic = new ExactSolver(OpponentModel.HEURISTIC, SEED, 2);
+                ExactSolver adversarial = new ExactSolver(OpponentModel.ADVERSARIAL, SEED, 2)) {
+            for (long seed = 0; seed < 30; seed++) {
+                GameController game = new GameController(GameConfig.defaults(), seed);
+                int player = game.getPlayerIndex();
+                SolverResult result = heuristic.solve(game);
+
+                GameController copy = GameController.fromState(game.snapshot(), 0);
+                int best = bestWeight(copy, copy.getPenguins().get(player));
+                assertEquals(best, result.getWeight(), "seed " + seed);
+                assertEquals(best, playPlan(game, player, result), "plan of seed " + seed);
+                if (seed < 15) {
+                    assertTrue(adversarial.solve(game).getWeight() <= best, "adversarial seed " + seed);
+                }
+            }
+        }
+    }
+
+    // the best weight the penguin can reach, trying every move of its remaining turns
+    private static int bestWeight(GameController game, Penguin me) {
+        if (game.isFinished() || me.isRemoved()) {
+            return me.getTotalFoodWeight();
+        }
+        int step = game.getStep();
+        int mark = game.mark();
+        Penguin current = game.getCurrentPenguin();
+        int best = -1;
+        if (current == me && !current.isStunned()) {
+            for (int move = 0; move < Move.COUNT; move += current.isSpecialActionUsed() ? 2 : 1) {
+                game.applyMove(Move.byIndex(move));
+                best = Math.max(best, bestWeight(game, me));
+                game.undoTo(mark, step);
+            }
+        } else {
+            if (current == me) {
+                game.applyMove(Move.byIndex(0)); // stunned, the move is ignored
+            } else {
+                game.reseed(Zobrist.mix(SEED + step * GOLDEN_GAMMA));
+                game.playStep();
+            }
+            best = bestWeight(game, me);
+            game.undoTo(mark, step);
+        }
+        return best;
+    }
+
+    private static int playPlan(GameController start, int player, SolverResult result) {
+        GameController game = GameController.fromState(start.snapshot(), 0);
+        Penguin me = game.getPenguins().get(player);
+        int next = 0;
+        while (!game.isFinished()) {
+            if (game.getCurrentPenguin() != me) {
+                game.reseed(Zobrist.mix(SEED + game.getStep() * GOLDEN_GAMMA));
+                game.playStep();
+            } else if (me.isRemoved() || me.isStunned()) {
+                game.applyMove(Move.byIndex(0));
+            } else {
+                game.applyMove(result.getPlan().get(next++));
+            }
+        }
+        return me.getTotalFoodWeight();
+    }
+}
@@ -0,0 +1,166 @@
+package penguingame.archive;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import penguingame.enums.ObjectKind;
+import penguingame.enums.TerrainBackend;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.GameState;
+import penguingame.game.GameStateCodec;
+
+/**
+ * States appended to an archive read back as they were stored, while appending, after reopening the file and
+ * next to a record cut off by a crash, and resume as the games they were taken from.
+ */
+class GameArchiveTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendedStatesReadBack() throws IOException {
+        Path file = dir.resolve("games.archive");
+        List<Long> offsets = new ArrayList<>();
+        List<byte[]> records = new ArrayList<>();
+        try (GameArchive archive = GameArchive.open(file)) {
+            for (long seed = 0; seed < 2000; seed++) {
+                GameController game = new GameController(GameConfig.defaults(), seed);
+                game.playStep();
+                GameState state = game.snapshot();
+                offsets.add(archive.append(state));
+                records.add(GameStateCodec.encode(state));
+                int earlier = (int) (seed * 7919 % offsets.size());
+                assertArrayEquals(records.get(earlier), GameStateCodec.encode(archive.read(offsets.get(earlier))));
+                assertArrayEquals(records.get((int) seed), GameStateCodec.encode(archive.read(offsets.get((int) seed))));
+            }
+        }
+        try (GameArchive archive = GameArchive.open(file)) {
+            int i = 0;
+            for (long offset = archive.firstOffset(); offset < archive.size(); offset = archive.next(offset), i++) {
+                assertEquals(offsets.get(i), offset);
+                assertArrayEquals(records.get(i), GameStateCodec.encode(archive.read(offset)));
+            }
+            assertEquals(offsets.size(), i);
+            assertThrows(IllegalArgumentException.class, () -> archive.read(archive.size()));
+            assertThrows(IllegalArgumentException.class, () -> archive.read(archive.firstOffset() - 1));
+        }
+    }
+
+    // every position of a few hundred games, resumed from the archive in random order
+    @Test
+    void storedPositionsResumeAsTheirGames() throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        List<Long> hashes = new ArrayList<>();
+        try (GameArchive archive = GameArchive.open(dir.resolve("positions.archive"))) {
+            for (long seed = 0; seed < 300; seed++) {
+                GameController game = new GameController(GameConfig.defaults(), seed);
+                while (true) {
+                    offsets.add(archive.append(game.snapshot()));
+                    hashes.add(game.hash());
+                    if (game.isFinished()) {
+                        break;
+                    }
+                    game.playStep();
+                }
+            }
+            SplittableRandom random = new SplittableRandom(1);
+            for (int i = 0; i < offsets.size(); i++) {
+                int position = random.nextInt(offsets.size());
+                GameController resumed = GameController.fromState(archive.read(offsets.get(position)), 0);
+                assertEquals(hashes.get(position), resumed.hash(), "position " + position);
+            }
+        }
+    }
+
+    // a read after every append once mapped the file again for every read, until the process ran out of mappings
+    @Test
+    void readsBetweenAppendsMapTheFileFewTimes() throws IOException {
+        byte[][] records = new byte[16][];
+        GameState[] states = new GameState[records.length];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = new GameController(GameConfig.defaults(), i).snapshot();
+            records[i] = GameStateCodec.encode(states[i]);
+        }
+        try (GameArchive archive = GameArchive.open(dir.resolve("interleaved.archive"))) {
+            long first = archive.firstOffset();
+            for (int i = 0; i < 100_000; i++) {
+                long offset = archive.append(states[i % states.length]);
+                assertArrayEquals(records[i % records.length], GameStateCodec.encode(archive.read(offset)));
+                assertArrayEquals(records[0], GameStateCodec.encode(archive.read(first)));
+            }
+            assertTrue(archive.mappingCount() < 64, archive.mappingCount() + " mappings");
+        }
+    }
+
+    @Test
+    void recordCutOffByACrashReadsAsAnError() throws IOException {
+        Path file = dir.resolve("crashed.archive");
+        GameState state = new GameController(GameConfig.defaults(), 1).snapshot();
+        long firstRecord;
+        long last;
+        try (GameArchive archive = GameArchive.open(file)) {
+            firstRecord = archive.append(state);
+            last = archive.append(new GameController(GameConfig.defaults(), 2).snapshot());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(last + 3);
+        }
+        try (GameArchive archive = GameArchive.open(file)) {
+            assertArrayEquals(GameStateCodec.encode(state), GameStateCodec.encode(archive.read(firstRecord)));
+            assertThrows(IllegalArgumentException.class, () -> archive.read(last));
+        }
+    }
+
+    @Test
+    void corruptCountsReadAsAnError() {
+        // a 1x2 board with two penguins and nothing else, the first penguin has collected one food item
+        ByteBuffer header = ByteBuffer.allocate(64);
+        header.put((byte) 1);
+        for (int value : new int[] {1, 2, 2, 0, 0, 1}) {
+            GameStateCodec.putVarint(header, value);
+        }
+        header.put((byte) TerrainBackend.GRID.ordinal());
+        for (int value : new int[] {0, 0, 0, 0}) { // player, turn, penguin to move, no objects
+            GameStateCodec.putVarint(header, value);
+        }
+        header.put((byte) ObjectKind.KING_PENGUIN.ordinal());
+        GameStateCodec.putVarint(header, 1);
+        GameStateCodec.putVarint(header, 1 << 3);
+        header.put((byte) ObjectKind.KING_PENGUIN.ordinal());
+
+        // the second penguin claims more food items than there are bytes, up to an overflow of the total
+        for (int count : new int[] {2, 2_000_000_000, Integer.MAX_VALUE, -1}) {
+            ByteBuffer bytes = ByteBuffer.allocate(64).put(header.duplicate().flip());
+            GameStateCodec.putVarint(bytes, count);
+            byte[] encoded = Arrays.copyOf(bytes.array(), bytes.position());
+            assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(encoded), "count " + count);
+        }
+
+        // objects are bounded by the bytes left too
+        ByteBuffer bytes = ByteBuffer.allocate(64).put(header.duplicate().flip().limit(11));
+        GameStateCodec.putVarint(bytes, -1);
+        byte[] encoded = Arrays.copyOf(bytes.array(), bytes.position());
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(encoded));
+    }
+
+    @Test
+    void otherFilesAreNotOpened() throws IOException {
+        Path file = Files.write(dir.resolve("other"), "hello".getBytes());
+        assertThrows(IOException.class, () -> GameArchive.open(file));
+    }
+}
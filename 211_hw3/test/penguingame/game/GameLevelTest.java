@@ -0,0 +1,47 @@
+package penguingame.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Games on a level's shared BoardLayout against games restored from the same state:
+ * every step must give the same hash, and undo back to the start must give the level's start again.
+ */
+class GameLevelTest {
+
+    @Test
+    void sharedLayoutPlaysLikeRestoredState() {
+        for (int l = 0; l < 60; l++) {
+            GameConfig config = l % 3 == 0 ? GameConfig.defaults() : GameConfig.defaults()
+                    .withBoardSize(6 + l % 70, 5 + l % 90).withHazardCount(10 + l % 30).withFoodCount(5 + l % 25);
+            GameController generator = new GameController(config, l * 31L + 5);
+            for (int s = 0; s < l % 5; s++) {
+                generator.playStep();
+            }
+            GameState start = generator.snapshot();
+            GameLevel level = new GameLevel(start);
+            long startHash = GameController.fromLevel(level, 0).hash();
+
+            for (int seed = 0; seed < 8; seed++) {
+                String where = "level " + l + " seed " + seed;
+                GameController restored = GameController.fromState(start, seed);
+                GameController shared = GameController.fromLevel(level, seed);
+                assertEquals(restored.hash(), shared.hash(), where);
+                int mark = shared.mark();
+                int firstStep = shared.getStep();
+                while (!restored.isFinished()) {
+                    restored.playStep();
+                    shared.playStep();
+                    assertEquals(restored.hash(), shared.hash(), where);
+                    assertEquals(shared.getTerrain().recomputeHash(shared.getPenguins()), shared.getTerrain().getHash(),
+                            where);
+                }
+                assertEquals(StateText.of(restored.snapshot()), StateText.of(shared.snapshot()), where);
+
+                shared.undoTo(mark, firstStep);
+                assertEquals(startHash, shared.hash(), where);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package penguingame.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import penguingame.enums.TerrainBackend;
+
+/**
+ * Snapshots, restore and fork: a game restored from a snapshot plays on exactly like the game it was taken from,
+ * and two forks with the same seed play the same game.
+ */
+class GameStateTest {
+
+    @Test
+    void restoredGamesPlayOnUnchanged() {
+        check(GameConfig.defaults(), 400);
+    }
+
+    @Test
+    void restoredGamesPlayOnUnchangedOnLargeBoards() {
+        check(GameConfig.defaults().withBoardSize(40, 40).withHazardCount(300).withFoodCount(300), 60);
+    }
+
+    private static void check(GameConfig config, int seeds) {
+        for (TerrainBackend backend : TerrainBackend.values()) {
+            GameConfig backendConfig = config.withBackend(backend);
+            int steps = backendConfig.getTurns() * backendConfig.getPenguinCount();
+            for (long seed = 0; seed < seeds; seed++) {
+                String where = backend + " seed " + seed;
+                String expected = outcome(new GameController(backendConfig, seed).playGame());
+
+                GameController game = new GameController(backendConfig, seed);
+                for (int i = 0; i < seed % steps; i++) {
+                    game.playStep();
+                }
+                GameState state = game.snapshot();
+                assertEquals(outcome(game.fork(99).playGame()), outcome(game.fork(99).playGame()), where);
+                game.restore(state);
+                assertEquals(StateText.of(state), StateText.of(game.snapshot()), where);
+                assertEquals(expected, outcome(game.playGame()), where);
+            }
+        }
+    }
+
+    private static String outcome(GameResult result) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < result.getPenguinCount(); i++) {
+            text.append(result.getTotalWeight(i)).append(result.isRemoved(i) ? 'R' : '-')
+                    .append(result.getFoodCount(i)).append(',');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,126 @@
+package penguingame.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import penguingame.ai.MonteCarloStrategy;
+import penguingame.enums.Direction;
+import penguingame.enums.TerrainBackend;
+
+/**
+ * Recorded games seeked to every step: the game a seek returns must have the hash the live game had at that step.
+ */
+class ReplayFileTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void seeksReachEveryRecordedStep() throws IOException {
+        GameConfig[] configs = {GameConfig.defaults(), GameConfig.defaults().withTurns(300),
+                GameConfig.of(40, 40, 5, 60, 200, 200, TerrainBackend.SPARSE)};
+        Path file = directory.resolve("game.replay");
+        for (GameConfig config : configs) {
+            for (int keyframeTurns : new int[] {1, 3, 10, 1000}) {
+                for (long seed = 0; seed < 4; seed++) {
+                    GameController game = new GameController(config, seed);
+                    if (seed % 2 == 1 && config.getTurns() < 100) { // the search is slow in long games
+                        game.setStrategy(0, MonteCarloStrategy.withIterations(50, 1));
+                    }
+                    long[] hashes = record(game, file, keyframeTurns);
+                    ReplayFile replay = ReplayFile.open(file);
+                    assertEquals(0, replay.getFirstStep());
+                    assertEquals(hashes.length - 1, replay.getLastStep());
+                    for (int step = 0; step < hashes.length; step++) {
+                        assertEquals(hashes[step], replay.seek(step).hash(), "step " + step);
+                    }
+                    assertTrue(replay.seekTurn(config.getTurns() + 1).isFinished());
+                }
+            }
+        }
+    }
+
+    @Test
+    void interactiveGamesRecordThePlayersMoves() throws IOException {
+        Path file = directory.resolve("game.replay");
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            PlayerInput input = new PlayerInput() {
+                @Override
+                public boolean getYesNo(String prompt) { return random.nextBoolean(); }
+
+                @Override
+                public Direction getDirection(String prompt) { return Direction.values()[random.nextInt(4)]; }
+            };
+            GameController game = new GameController(seed, input, new PrintStream(OutputStream.nullOutputStream()));
+            long[] hashes = record(game, file, 1);
+            ReplayFile replay = ReplayFile.open(file);
+            for (int step = 0; step < hashes.length; step++) {
+                assertEquals(hashes[step], replay.seek(step).hash(), "seed " + seed + " step " + step);
+            }
+        }
+    }
+
+    // a recording started in the middle of a game, then every prefix of its file as if the game had crashed
+    @Test
+    void cutOffFilesReadUpToTheirLastKeyframe() throws IOException {
+        Path file = directory.resolve("game.replay");
+        GameController game = new GameController(GameConfig.defaults().withTurns(50), 5);
+        for (int i = 0; i < 10; i++) {
+            game.playStep();
+        }
+        long[] hashes = record(game, file, 4);
+        ReplayFile replay = ReplayFile.open(file);
+        assertEquals(10, replay.getFirstStep());
+        for (int step = 10; step <= replay.getLastStep(); step++) {
+            assertEquals(hashes[step - 10], replay.seek(step).hash());
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        for (int length = 0; length < bytes.length; length++) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            ReplayFile cut;
+            try {
+                cut = ReplayFile.open(file);
+            } catch (IllegalArgumentException e) {
+                continue; // cut off before the first keyframe
+            }
+            for (int step = cut.getFirstStep(); step <= cut.getLastStep(); step++) {
+                assertEquals(hashes[step - 10], cut.seek(step).hash(), "length " + length + " step " + step);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> {
+            Files.write(file, "not a replay".getBytes());
+            ReplayFile.open(file);
+        });
+    }
+
+    // plays the game to its end while recording it, returns the hash before every step and at the end
+    private static long[] record(GameController game, Path file, int keyframeTurns) throws IOException {
+        long[] hashes = new long[16];
+        int count = 0;
+        try (ReplayRecorder recorder = new ReplayRecorder(file, keyframeTurns)) {
+            game.setRecorder(recorder);
+            while (true) {
+                if (count == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, count * 2);
+                }
+                hashes[count++] = game.hash();
+                if (game.isFinished()) {
+                    break;
+                }
+                game.playStep();
+            }
+        }
+        return Arrays.copyOf(hashes, count);
+    }
+}
@@ -0,0 +1,46 @@
+package penguingame.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import penguingame.ai.MonteCarloStrategy;
+import penguingame.enums.Direction;
+
+/**
+ * Interactive games against MonteCarloStrategy with and without speculation:
+ * the moves played ahead must be the moves the strategy plays, so both games print the same transcript.
+ */
+class SpeculationTest {
+
+    @Test
+    void speculationDoesNotChangeTheGame() {
+        for (long seed = 0; seed < 6; seed++) {
+            assertEquals(transcript(seed, false), transcript(seed, true), "seed " + seed);
+        }
+    }
+
+    private static String transcript(long seed, boolean speculative) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        PlayerInput input = new PlayerInput() {
+            private int turn;
+
+            @Override
+            public boolean getYesNo(String prompt) { return turn % 3 == 1; }
+
+            @Override
+            public Direction getDirection(String prompt) { return Direction.values()[(int) ((seed + turn++) % 4)]; }
+        };
+        GameController game = new GameController(seed, input, out);
+        MonteCarloStrategy strategy = MonteCarloStrategy.withIterations(300, 1);
+        for (int i = 0; i < GameConfig.defaults().getPenguinCount(); i++) {
+            game.setStrategy(i, strategy);
+        }
+        game.setSpeculative(speculative);
+        game.playGame();
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
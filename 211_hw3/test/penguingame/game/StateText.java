@@ -0,0 +1,24 @@
+package penguingame.game;
+
+// a game state as text, two states are equal if and only if their texts are equal
+final class StateText {
+    private StateText() { }
+
+    static String of(GameState state) {
+        StringBuilder text = new StringBuilder();
+        text.append(state.getTurn()).append('/').append(state.getPenguinIndex()).append(':');
+        for (int i = 0; i < state.getObjectCount(); i++) {
+            text.append(state.getKind(i).ordinal()).append('@').append(state.getCell(i)).append('=')
+                    .append(state.getData(i)).append(' ');
+        }
+        for (int i = 0; i < state.getPenguinCount(); i++) {
+            text.append('|').append(state.getPenguinKind(i)).append('@').append(state.getPenguinCell(i))
+                    .append(state.isStunned(i) ? 'S' : '-').append(state.isRemoved(i) ? 'R' : '-')
+                    .append(state.isSpecialActionUsed(i) ? 'U' : '-').append(state.isPreparedToJump(i) ? 'J' : '-');
+            for (int j = 0; j < state.getFoodCount(i); j++) {
+                text.append(',').append(state.getCollectedFood(i, j));
+            }
+        }
+        return text.toString();
+    }
+}
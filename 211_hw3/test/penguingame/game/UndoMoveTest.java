@@ -0,0 +1,57 @@
+package penguingame.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import penguingame.enums.Direction;
+import penguingame.enums.TerrainBackend;
+
+/**
+ * applyMove and undoMove on a live game against forks: every move tree of three steps is played,
+ * each move must leave the game like the same move on a fork and undoing it must give back the state before it.
+ */
+class UndoMoveTest {
+    private static final int DEPTH = 3;
+
+    @Test
+    void defaultBoards() {
+        checkSeeds(GameConfig.defaults(), 60);
+    }
+
+    @Test
+    void denseBoards() {
+        checkSeeds(GameConfig.defaults().withBoardSize(12, 12).withHazardCount(60).withFoodCount(40), 40);
+    }
+
+    private static void checkSeeds(GameConfig config, int seeds) {
+        for (TerrainBackend backend : TerrainBackend.values()) {
+            for (long seed = 0; seed < seeds; seed++) {
+                GameController game = new GameController(config.withBackend(backend), seed);
+                for (int i = 0; i < seed % 9; i++) {
+                    game.playStep(); // start from different steps of the game
+                }
+                check(game, DEPTH, backend + " seed " + seed);
+            }
+        }
+    }
+
+    private static void check(GameController game, int depth, String where) {
+        if (depth == 0 || game.isFinished()) {
+            return;
+        }
+        String before = StateText.of(game.snapshot());
+        long hash = game.hash();
+        for (int move = 0; move < Move.COUNT; move++) {
+            Direction dir = Move.byIndex(move).getDirection();
+            boolean special = Move.byIndex(move).isSpecial();
+            GameController fork = game.fork(1);
+            int mark = game.applyMove(dir, special);
+            fork.applyMove(dir, special);
+            assertEquals(StateText.of(fork.snapshot()), StateText.of(game.snapshot()), where);
+            check(game, depth - 1, where);
+            game.undoMove(mark);
+            assertEquals(before, StateText.of(game.snapshot()), where);
+            assertEquals(hash, game.hash(), where);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package penguingame.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import penguingame.enums.FoodType;
+import penguingame.enums.TerrainBackend;
+import penguingame.objects.food.Food;
+import penguingame.objects.penguins.KingPenguin;
+import penguingame.objects.penguins.Penguin;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * The incremental hash of the terrain against a hash computed from scratch, after played steps, tried moves and undo.
+ * Forks and restored games must have the hash of their original, and different states must not share a hash.
+ */
+class ZobristHashTest {
+
+    @Test
+    void incrementalHashMatchesRecomputedHash() {
+        for (TerrainBackend backend : TerrainBackend.values()) {
+            GameConfig config = GameConfig.defaults().withBackend(backend);
+            for (long seed = 0; seed < 80; seed++) {
+                GameController game = new GameController(config, seed);
+                for (int i = 0; i < seed % 9; i++) {
+                    game.playStep();
+                    assertRecomputed(game);
+                }
+                assertEquals(game.hash(), game.fork(5).hash());
+                GameController restored = new GameController(config, seed + 1000);
+                restored.restore(game.snapshot());
+                assertEquals(game.hash(), restored.hash());
+
+                check(game, 3, new HashMap<>());
+                while (!game.isFinished()) {
+                    game.playStep();
+                    assertRecomputed(game);
+                }
+            }
+        }
+    }
+
+    @Test
+    void heldFoodIsHashedItemByItem() {
+        long oneAndFive = heldFoodHash(1, 5);
+        assertNotEquals(heldFoodHash(3, 3), oneAndFive); // same total weight, but a different lightest item
+        assertNotEquals(heldFoodHash(1, 1, 5, 5), heldFoodHash()); // equal items do not cancel out
+        assertEquals(heldFoodHash(5, 1), oneAndFive);
+
+        IcyTerrain terrain = new IcyTerrain(1, 3);
+        Penguin penguin = new KingPenguin("P1");
+        terrain.addObject(penguin, 0);
+        penguin.collectFood(new Food(FoodType.values()[0], 1));
+        penguin.collectFood(new Food(FoodType.values()[0], 5));
+        int mark = terrain.mark();
+        penguin.removeLightestFood();
+        assertEquals(heldFoodHash(5), terrain.getHash());
+        terrain.undo(mark);
+        assertEquals(oneAndFive, terrain.getHash());
+    }
+
+    // hash of a terrain with one penguin that collected food of the given weights
+    private static long heldFoodHash(int... weights) {
+        IcyTerrain terrain = new IcyTerrain(1, 3);
+        Penguin penguin = new KingPenguin("P1");
+        terrain.addObject(penguin, 0);
+        for (int weight : weights) {
+            penguin.collectFood(new Food(FoodType.values()[0], weight));
+        }
+        assertEquals(terrain.recomputeHash(List.of(penguin)), terrain.getHash());
+        return terrain.getHash();
+    }
+
+    private static void check(GameController game, int depth, Map<Long, String> seen) {
+        assertRecomputed(game);
+        String state = StateText.of(game.snapshot());
+        String other = seen.put(game.hash(), state);
+        if (other != null) {
+            assertEquals(other, state, "two states with the same hash");
+        }
+        if (depth == 0 || game.isFinished()) {
+            return;
+        }
+        long hash = game.hash();
+        for (int move = 0; move < Move.COUNT; move++) {
+            int mark = game.applyMove(Move.byIndex(move));
+            check(game, depth - 1, seen);
+            game.undoMove(mark);
+            assertEquals(hash, game.hash());
+        }
+    }
+
+    private static void assertRecomputed(GameController game) {
+        assertEquals(game.getTerrain().recomputeHash(game.getPenguins()), game.getTerrain().getHash());
+    }
+}
@@ -0,0 +1,72 @@
+package penguingame.objects.food;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import penguingame.enums.FoodType;
+
+/**
+ * The inventory against a plain list: random adds, removals of the lightest item and undo of both.
+ */
+class FoodInventoryTest {
+
+    @Test
+    void matchesAPlainList() {
+        Random random = new Random(1);
+        for (int run = 0; run < 1000; run++) {
+            FoodInventory inventory = new FoodInventory();
+            List<Food> expected = new ArrayList<>();
+            Deque<int[]> undo = new ArrayDeque<>(); // {slot or -1 for an add, index in the list}
+            Deque<Food> undoFood = new ArrayDeque<>();
+            int operations = random.nextInt(400);
+            for (int op = 0; op < operations; op++) {
+                int choice = random.nextInt(10);
+                if (choice < 5) {
+                    Food food = new Food(FoodType.KRILL, 1 + random.nextInt(5));
+                    inventory.add(food);
+                    expected.add(food);
+                    undo.push(new int[] {-1, expected.size() - 1});
+                    undoFood.push(food);
+                } else if (choice < 8) {
+                    int slot = inventory.lightestSlot();
+                    if (expected.isEmpty()) {
+                        assertEquals(-1, slot);
+                        continue;
+                    }
+                    int lightest = 0; // the first one of equal weights
+                    for (int i = 1; i < expected.size(); i++) {
+                        if (expected.get(i).getWeight() < expected.get(lightest).getWeight()) {
+                            lightest = i;
+                        }
+                    }
+                    Food lost = inventory.remove(slot);
+                    assertSame(expected.remove(lightest), lost);
+                    undo.push(new int[] {slot, lightest});
+                    undoFood.push(lost);
+                } else if (!undo.isEmpty()) {
+                    int[] change = undo.pop();
+                    Food food = undoFood.pop();
+                    if (change[0] < 0) {
+                        assertSame(food, inventory.removeLast());
+                        expected.remove(expected.size() - 1);
+                    } else {
+                        inventory.restore(change[0], food);
+                        expected.add(change[1], food);
+                    }
+                }
+                int total = 0;
+                for (Food food : expected) {
+                    total += food.getWeight();
+                }
+                assertEquals(total, inventory.getTotalWeight());
+                assertEquals(expected, inventory.asList(), "run " + run + " operation " + op);
+            }
+        }
+    }
+}
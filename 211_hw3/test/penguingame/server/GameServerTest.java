@@ -0,0 +1,192 @@
+package penguingame.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import penguingame.enums.Direction;
+import penguingame.game.GameController;
+import penguingame.game.PlayerInput;
+
+/**
+ * Seeded games played over a loopback GameServer in its line protocol: without the questions and the "!" lines,
+ * a session prints exactly what a console game with the same answers prints. Also the requests the server refuses
+ * and a player that disconnects in the middle of a game.
+ */
+class GameServerTest {
+    private static final String DIRECTIONS = "UDLR";
+    private static final Direction[] BY_LETTER = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+    @Test
+    void sessionsPrintWhatTheConsoleGamePrints() throws IOException {
+        try (GameServer server = start(100)) {
+            for (long seed = 0; seed < 4; seed++) {
+                assertEquals(consoleTranscript(seed), play(server, "NEW " + seed), "seed " + seed);
+            }
+            assertEquals(4, server.getFinishedSessions());
+            assertEquals(0, server.getLostSessions());
+        }
+    }
+
+    @Test
+    void newWithoutASeedTakesTheSeedsOfTheServer() throws IOException {
+        try (GameServer server = start(7)) {
+            assertEquals(consoleTranscript(7), play(server, "new"));
+            assertEquals(consoleTranscript(8), play(server, "  NEW "));
+            assertEquals(consoleTranscript(-3), play(server, "New -3"));
+        }
+    }
+
+    @Test
+    void invalidRequestsAreRefused() throws IOException {
+        try (GameServer server = start(0)) {
+            for (String hello : new String[] {"HELLO", "", "NEW seven", "NEW 1 2"}) {
+                try (Socket socket = connect(server)) {
+                    send(socket, hello);
+                    BufferedReader in = reader(socket);
+                    assertEquals("!Expected NEW or NEW <seed>", in.readLine(), hello);
+                    assertEquals("BYE", in.readLine(), hello);
+                    assertNull(in.readLine(), hello);
+                }
+            }
+            assertEquals(0, server.getFinishedSessions());
+            assertEquals(0, server.getLostSessions());
+        }
+    }
+
+    @Test
+    void playerThatDisconnectsLosesTheSession() throws IOException, InterruptedException {
+        try (GameServer server = start(0)) {
+            try (Socket socket = connect(server)) {
+                send(socket, "NEW 1");
+                BufferedReader in = reader(socket);
+                String line = in.readLine();
+                while (!line.startsWith("?")) {
+                    line = in.readLine();
+                    assertNotNull(line, "connection closed before the first question");
+                }
+            }
+            for (int wait = 0; wait < 100 && server.getLostSessions() == 0; wait++) {
+                Thread.sleep(50);
+            }
+            assertEquals(1, server.getLostSessions());
+            assertEquals(0, server.getFinishedSessions());
+        }
+    }
+
+    // a server on a free port of the loopback address, accepting on a daemon thread until it is closed
+    private static GameServer start(long firstSeed) throws IOException {
+        GameServer server = new GameServer(0, firstSeed);
+        Thread accept = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        accept.setDaemon(true);
+        accept.start();
+        return server;
+    }
+
+    private static Socket connect(GameServer server) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(30_000); // a protocol error fails the test instead of hanging it
+        return socket;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static void send(Socket socket, String line) throws IOException {
+        Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        out.write(line + "\n");
+        out.flush();
+    }
+
+    /**
+     * Plays a game over a connection and returns every line the server sent except the questions, the "!" lines
+     * and BYE. Every fourth question first gets an invalid answer, which must be refused and asked again.
+     */
+    private static List<String> play(GameServer server, String hello) throws IOException {
+        List<String> transcript = new ArrayList<>();
+        try (Socket socket = connect(server)) {
+            send(socket, hello);
+            BufferedReader in = reader(socket);
+            int answers = 0;
+            boolean refused = false;
+            while (true) {
+                String line = in.readLine();
+                if (line == null) {
+                    fail("connection closed before BYE");
+                }
+                if (line.equals("BYE")) {
+                    assertNull(in.readLine());
+                    return transcript;
+                }
+                boolean yesNo = line.startsWith("?YN ");
+                if (yesNo || line.startsWith("?DIR ")) {
+                    if (answers % 4 == 0 && !refused) {
+                        send(socket, "maybe");
+                        assertTrue(in.readLine().startsWith("!Invalid input."), "no refusal of an invalid answer");
+                        refused = true;
+                    } else {
+                        send(socket, answer(yesNo, answers++).toLowerCase()); // answers are not case sensitive
+                        refused = false;
+                    }
+                } else if (line.startsWith("!")) {
+                    fail("unexpected " + line);
+                } else {
+                    transcript.add(line);
+                }
+            }
+        }
+    }
+
+    // the lines of a console game with the same seed and answers
+    private static List<String> consoleTranscript(long seed) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        PlayerInput input = new PlayerInput() {
+            private int answers;
+
+            @Override
+            public boolean getYesNo(String prompt) { return answer(true, answers++).equals("Y"); }
+
+            @Override
+            public Direction getDirection(String prompt) {
+                return BY_LETTER[DIRECTIONS.indexOf(answer(false, answers++))];
+            }
+        };
+        new GameController(seed, input, out).playGame();
+        out.flush();
+        List<String> lines = new ArrayList<>();
+        bytes.toString(StandardCharsets.UTF_8).lines().forEach(lines::add);
+        return lines;
+    }
+
+    // the answer to the given question of a game, the same for the session and the console game
+    private static String answer(boolean yesNo, int question) {
+        if (yesNo) {
+            return question % 3 == 1 ? "Y" : "N";
+        }
+        return String.valueOf(DIRECTIONS.charAt(question % 4));
+    }
+}
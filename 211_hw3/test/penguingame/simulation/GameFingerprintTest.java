@@ -0,0 +1,59 @@
+package penguingame.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import penguingame.enums.TerrainBackend;
+import penguingame.game.GameConfig;
+import penguingame.game.GameResult;
+
+/**
+ * Outcomes of seeded headless games, folded into one number per configuration.
+ *
+ * A change to the rules, the AI or board generation that changes any game changes the fingerprint.
+ * Refactors must keep it; a change that is meant to change games updates the expected value with it.
+ */
+class GameFingerprintTest {
+
+    // player, types, weights, food counts and removed penguins of games with seeds 0 to games - 1
+    static long fingerprint(GameConfig config, int games) {
+        long fingerprint = 0;
+        for (int seed = 0; seed < games; seed++) {
+            GameResult result = GameSimulator.run(seed, config);
+            long game = result.getPlayerIndex();
+            for (int i = 0; i < result.getPenguinCount(); i++) {
+                game = game * 31 + result.getTotalWeight(i) * 7 + (result.isRemoved(i) ? 1 : 0)
+                        + result.getFoodCount(i) * 1000 + result.getTypeName(i).hashCode();
+            }
+            fingerprint = fingerprint * 1000003 + game;
+        }
+        return fingerprint;
+    }
+
+    @Test
+    void defaultGames() {
+        assertEquals("a8e66de2dac90c0a", Long.toHexString(fingerprint(GameConfig.defaults(), 20000)));
+    }
+
+    @Test
+    void largeSparseBoards() {
+        GameConfig config = GameConfig.defaults().withBoardSize(70, 70).withBackend(TerrainBackend.SPARSE)
+                .withHazardCount(1500).withFoodCount(1500);
+        assertEquals("9e34528f81469a88", Long.toHexString(fingerprint(config, 1000)));
+    }
+
+    @Test
+    void largeDenseBoards() {
+        GameConfig config = GameConfig.defaults().withBoardSize(130, 130).withHazardCount(4000).withFoodCount(4000);
+        assertEquals("190201e738c68d1e", Long.toHexString(fingerprint(config, 600)));
+    }
+
+    // every backend plays the same games
+    @Test
+    void backendsAgree() {
+        for (TerrainBackend backend : TerrainBackend.values()) {
+            assertEquals("bff2b353b0a78f72", Long.toHexString(fingerprint(GameConfig.defaults().withBackend(backend), 5000)),
+                    backend.name());
+        }
+    }
+}
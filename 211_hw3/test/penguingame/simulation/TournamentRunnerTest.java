@@ -0,0 +1,113 @@
+package penguingame.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import penguingame.ai.HeuristicStrategy;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.game.GameResult;
+
+/**
+ * Tournaments of entrants that all play the built-in AI: every rotation then plays the same game, so every entrant
+ * must end up with exactly the penguins of every board once, on any number of threads.
+ * Also the merge and the confidence intervals of a standing.
+ */
+class TournamentRunnerTest {
+    private static final long FIRST_SEED = 40;
+    private static final int SEEDS = 25;
+
+    @Test
+    void everyEntrantPlaysEveryPenguinOnce() {
+        GameConfig config = GameConfig.defaults();
+        long placeSum = 0;
+        long weightSum = 0;
+        for (long seed = FIRST_SEED; seed < FIRST_SEED + SEEDS; seed++) {
+            GameController game = new GameController(config, seed);
+            for (int penguin = 0; penguin < config.getPenguinCount(); penguin++) {
+                game.setStrategy(penguin, HeuristicStrategy.INSTANCE);
+            }
+            GameResult result = game.playGame();
+            for (int penguin = 0; penguin < result.getPenguinCount(); penguin++) {
+                placeSum += result.getRank(penguin);
+                weightSum += result.getTotalWeight(penguin);
+            }
+        }
+
+        // 2 entrants do not divide the 3 penguins, 3 entrants get one penguin of every game
+        for (int entrants = 1; entrants <= 3; entrants++) {
+            List<TournamentStanding> standings = runner(entrants).run(FIRST_SEED, SEEDS, 1);
+            assertEquals(entrants, standings.size());
+            for (TournamentStanding standing : standings) {
+                String where = entrants + " entrants, " + standing.getName();
+                assertEquals((long) SEEDS * config.getPenguinCount(), standing.getPenguins(), where);
+                assertEquals((double) placeSum / standing.getPenguins(), standing.getMeanPlace(), 1e-9, where);
+                assertEquals((double) weightSum / standing.getPenguins(), standing.getMeanWeight(), 1e-9, where);
+            }
+        }
+    }
+
+    @Test
+    void standingsDoNotDependOnTheThreads() {
+        TournamentRunner runner = runner(2);
+        List<TournamentStanding> expected = runner.run(FIRST_SEED, SEEDS, 1);
+        for (int threads = 2; threads <= 4; threads++) {
+            List<TournamentStanding> standings = runner.run(FIRST_SEED, SEEDS, threads);
+            for (int i = 0; i < expected.size(); i++) {
+                assertTrue(expected.get(i).sameAs(standings.get(i)), threads + " threads, " + expected.get(i).getName());
+            }
+        }
+    }
+
+    @Test
+    void mergedStandingsMatchOneStanding() {
+        int[] places = {1, 2, 3, 1, 2, 1};
+        int[] weights = {12, 5, 0, 9, 7, 14};
+        TournamentStanding all = new TournamentStanding("all");
+        TournamentStanding first = new TournamentStanding("all");
+        TournamentStanding second = new TournamentStanding("all");
+        for (int i = 0; i < places.length; i++) {
+            all.add(places[i], weights[i]);
+            (i < 2 ? first : second).add(places[i], weights[i]);
+        }
+        second.merge(first);
+        assertTrue(all.sameAs(second));
+
+        assertEquals(6, all.getPenguins());
+        assertEquals(0.5, all.getWinRate(), 1e-12);
+        assertEquals(10.0 / 6, all.getMeanPlace(), 1e-12);
+        assertEquals(47.0 / 6, all.getMeanWeight(), 1e-12);
+        // 1.96 * sqrt(sample variance / n)
+        assertEquals(1.96 * Math.sqrt(varianceOf(places) / 6), all.getPlaceMargin(), 1e-12);
+        assertEquals(1.96 * Math.sqrt(varianceOf(weights) / 6), all.getWeightMargin(), 1e-12);
+
+        TournamentStanding one = new TournamentStanding("one");
+        one.add(2, 3);
+        assertTrue(Double.isNaN(one.getPlaceMargin()));
+        assertEquals(0, new TournamentStanding("none").getMeanPlace());
+    }
+
+    private static TournamentRunner runner(int entrants) {
+        TournamentRunner runner = new TournamentRunner(GameConfig.defaults());
+        for (int i = 0; i < entrants; i++) {
+            runner.addEntrant("heuristic " + i, HeuristicStrategy.INSTANCE);
+        }
+        return runner;
+    }
+
+    // sample variance, with n - 1
+    private static double varianceOf(int[] values) {
+        double mean = 0;
+        for (int value : values) {
+            mean += value;
+        }
+        mean /= values.length;
+        double squares = 0;
+        for (int value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return squares / (values.length - 1);
+    }
+}
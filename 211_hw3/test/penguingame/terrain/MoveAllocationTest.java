@@ -0,0 +1,155 @@
+package penguingame.terrain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+import penguingame.enums.Direction;
+import penguingame.enums.TerrainBackend;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.hazards.HeavyIceBlock;
+import penguingame.objects.hazards.SeaLion;
+import penguingame.objects.penguins.KingPenguin;
+import penguingame.objects.penguins.Penguin;
+import penguingame.objects.penguins.RockhopperPenguin;
+import penguingame.objects.penguins.RoyalPenguin;
+import penguingame.util.Cells;
+
+/**
+ * Checks that steady-state moves on the terrain allocate nothing.
+ *
+ * Every round slides penguins back and forth on a fixed board: a bounce off a blocked sea lion,
+ * King stops (slideWithStop), Royal single steps (moveOneSquare) and Rockhopper jumps over a heavy block.
+ * The same round is also measured while the terrain records its undo log and is rolled back after every round.
+ * After warming up, the bytes allocated by this thread are measured with ThreadMXBean.getThreadAllocatedBytes.
+ * Every backend is measured, and a terrain on a shared BoardLayout that holds the heavy ice blocks.
+ */
+class MoveAllocationTest {
+    private static final int WARM_UP_ROUNDS = 50_000;
+    private static final int MEASURED_ROUNDS = 100_000;
+    private static final int MEASUREMENTS = 3;
+    private static final int[][] HEAVY_BLOCKS = { {0, 0}, {0, 7}, {2, 0}, {2, 9}, {6, 0}, {6, 4}, {6, 9} };
+
+    @Test
+    void stepsAllocateNothing() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        TerrainBackend[] backends = TerrainBackend.values();
+        BoardLayout layout = heavyBlockLayout();
+        for (int variant = 0; variant <= backends.length; variant++) {
+            boolean onLayout = variant == backends.length;
+            String name = onLayout ? "LAYOUT" : backends[variant].name();
+            for (boolean undo : new boolean[] { false, true }) {
+                IcyTerrain terrain = onLayout ? new IcyTerrain(layout) : new IcyTerrain(10, 10, backends[variant]);
+                ProbeBoard board = new ProbeBoard(terrain, !onLayout);
+                for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+                    board.run(undo);
+                }
+                board.checkBoard();
+
+                // the fewest bytes of a few measurements, the compiler can allocate once while it is still at work
+                long allocated = Long.MAX_VALUE;
+                for (int measurement = 0; measurement < MEASUREMENTS && allocated > 0; measurement++) {
+                    long overhead = -threads.getThreadAllocatedBytes(threadId) + threads.getThreadAllocatedBytes(threadId);
+                    long before = threads.getThreadAllocatedBytes(threadId);
+                    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                        board.run(undo);
+                    }
+                    allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before - overhead);
+                }
+                board.checkBoard();
+
+                assertEquals(0, allocated, name + (undo ? " undo" : " moves") + ", bytes in " + MEASURED_ROUNDS + " rounds");
+            }
+        }
+    }
+
+    // a layout with the heavy ice blocks of the probe board
+    private static BoardLayout heavyBlockLayout() {
+        ITerrainObject[] blocks = new ITerrainObject[HEAVY_BLOCKS.length];
+        int[] cells = new int[HEAVY_BLOCKS.length];
+        for (int i = 0; i < HEAVY_BLOCKS.length; i++) {
+            blocks[i] = new HeavyIceBlock();
+            cells[i] = Cells.index(HEAVY_BLOCKS[i][0], HEAVY_BLOCKS[i][1], 10);
+        }
+        return new BoardLayout(10, 10, blocks, cells);
+    }
+
+    private static final class ProbeBoard {
+        private final IcyTerrain terrain;
+        private final Penguin bouncer;
+        private final Penguin king;
+        private final Penguin royal;
+        private final RockhopperPenguin rockhopper;
+
+        // heavyBlocks is false when the terrain already has them (from its layout)
+        private ProbeBoard(IcyTerrain terrain, boolean heavyBlocks) {
+            this.terrain = terrain;
+            if (heavyBlocks) {
+                for (int[] square : HEAVY_BLOCKS) {
+                    terrain.addObject(new HeavyIceBlock(), terrain.positionAt(square[0], square[1]));
+                }
+            }
+
+            // row 0: HB P . . . . SL HB . .   the penguin bounces off the sea lion that cannot move
+            bouncer = new KingPenguin("P1");
+            terrain.addObject(bouncer, terrain.positionAt(0, 1));
+            terrain.addObject(new SeaLion(), terrain.positionAt(0, 6));
+
+            // row 2: HB K . . . . . . . HB   King stops at the 3rd square
+            king = new KingPenguin("P2");
+            terrain.addObject(king, terrain.positionAt(2, 1));
+
+            // row 4: a Royal Penguin stepping back and forth
+            royal = new RoyalPenguin("P3");
+            terrain.addObject(royal, terrain.positionAt(4, 4));
+
+            // row 6: HB R . . HB . . . . HB   Rockhopper jumps over the block in the middle
+            rockhopper = new RockhopperPenguin("P4");
+            terrain.addObject(rockhopper, terrain.positionAt(6, 1));
+        }
+
+        private void run(boolean undo) {
+            if (undo) {
+                undoneRound();
+            } else {
+                round();
+            }
+        }
+
+        // one round brings every penguin back to its starting square
+        private void round() {
+            terrain.slide(bouncer, Direction.RIGHT);            // bounces back to (0, 1)
+
+            terrain.slideWithStop(king, Direction.RIGHT, 3);    // (2, 4)
+            terrain.slideWithStop(king, Direction.LEFT, 3);     // (2, 1)
+
+            terrain.moveOneSquare(royal, Direction.RIGHT);      // (4, 5)
+            terrain.moveOneSquare(royal, Direction.LEFT);       // (4, 4)
+
+            rockhopper.setPreparedToJump(true);
+            terrain.slide(rockhopper, Direction.RIGHT);         // jumps to (6, 5)
+            rockhopper.setPreparedToJump(true);
+            terrain.slide(rockhopper, Direction.LEFT);          // jumps to (6, 3)
+            terrain.slide(rockhopper, Direction.LEFT);          // (6, 1)
+        }
+
+        // a round plus a slide to the edge while recording, then everything is undone
+        private void undoneRound() {
+            int mark = terrain.mark();
+            round();
+            terrain.slide(king, Direction.DOWN);                // falls off the terrain
+            terrain.undo(mark);
+        }
+
+        // every round ends on the starting board
+        private void checkBoard() {
+            assertEquals(1, bouncer.getPosition().getCol());
+            assertEquals(1, king.getPosition().getCol());
+            assertEquals(4, royal.getPosition().getCol());
+            assertEquals(1, rockhopper.getPosition().getCol());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package penguingame.terrain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import penguingame.enums.Direction;
+import penguingame.enums.TerrainBackend;
+import penguingame.objects.ITerrainObject;
+import penguingame.objects.hazards.HeavyIceBlock;
+import penguingame.objects.hazards.LightIceBlock;
+import penguingame.objects.hazards.SeaLion;
+import penguingame.objects.penguins.KingPenguin;
+import penguingame.objects.penguins.Penguin;
+import penguingame.util.Position;
+
+/**
+ * Penguins bouncing back and forth between sea lions: the bounce guard must stop a bounce that repeats forever
+ * and nothing else.
+ */
+class SeaLionBounceTest {
+
+    // pushed against the edge and a heavy block, the sea lions never move again and the penguin would bounce forever
+    @Test
+    void bounceBetweenSeaLionsThatCannotMoveStops() {
+        for (TerrainBackend backend : TerrainBackend.values()) {
+            IcyTerrain terrain = new IcyTerrain(10, 10, backend);
+            Penguin penguin = place(terrain, new KingPenguin("P1"), 6, 5);
+            place(terrain, new SeaLion(), 6, 0);
+            place(terrain, new SeaLion(), 6, 2);
+            place(terrain, new SeaLion(), 6, 8);
+            place(terrain, new HeavyIceBlock(), 6, 9);
+
+            penguin.slide(Direction.LEFT, terrain);
+
+            assertEquals(new Position(6, 7), penguin.getPosition(), backend.name());
+            assertEquals(SeaLion.class, objectAt(terrain, 6, 1).getClass(), backend.name());
+        }
+    }
+
+    // the penguin bounces off the sea lion at 3,7 twice, the light block moved in between, so it is not a cycle:
+    // the second bounce sends the penguin into the water (the old guard stopped it on the ice)
+    @Test
+    void bounceRepeatedOnAChangedBoardIsPlayed() {
+        for (TerrainBackend backend : TerrainBackend.values()) {
+            IcyTerrain terrain = new IcyTerrain(10, 10, backend);
+            Penguin penguin = place(terrain, new KingPenguin("P1"), 3, 4);
+            place(terrain, new SeaLion(), 3, 0);
+            place(terrain, new SeaLion(), 3, 7);
+            place(terrain, new LightIceBlock(), 3, 8);
+
+            penguin.slide(Direction.RIGHT, terrain);
+
+            assertTrue(penguin.isRemoved(), backend.name());
+        }
+    }
+
+    private static <T extends ITerrainObject> T place(IcyTerrain terrain, T object, int row, int col) {
+        terrain.addObject(object, new Position(row, col));
+        return object;
+    }
+
+    private static ITerrainObject objectAt(IcyTerrain terrain, int row, int col) {
+        return terrain.getObjectsAt(new Position(row, col)).get(0);
+    }
+}
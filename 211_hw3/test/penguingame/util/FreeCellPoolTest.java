@@ -0,0 +1,108 @@
+package penguingame.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import penguingame.enums.TerrainBackend;
+import penguingame.game.GameConfig;
+import penguingame.game.GameController;
+import penguingame.objects.penguins.Penguin;
+import penguingame.terrain.IcyTerrain;
+
+/**
+ * The pool against a HashSet of the free values, and board generation with it: a full board is generated
+ * and boards that cannot be generated are rejected up front.
+ */
+class FreeCellPoolTest {
+
+    @Test
+    void matchesASetOfFreeValues() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int n : new int[] {0, 1, 2, 17, 1000}) {
+            FreeCellPool pool = new FreeCellPool(n);
+            Set<Integer> free = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                free.add(i);
+            }
+            while (!pool.isEmpty()) {
+                if (random.nextBoolean()) {
+                    // remove a value that may be taken already, or may not be a value of the pool at all
+                    int value = random.nextInt(n + 2) - 1;
+                    assertEquals(free.remove(value), pool.remove(value), "n " + n + " remove " + value);
+                } else {
+                    // the last slot is the one that does not swap
+                    int slot = random.nextInt(4) == 0 ? pool.size() - 1 : random.nextInt(pool.size());
+                    int value = pool.take(slot);
+                    assertTrue(free.remove(value), "n " + n + " took " + value + " twice");
+                }
+                check(pool, free, n);
+            }
+            assertTrue(free.isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> pool.take(0));
+        }
+    }
+
+    @Test
+    void takingEverySlotGivesEveryValueOnce() {
+        FreeCellPool pool = new FreeCellPool(500);
+        Set<Integer> taken = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(3);
+        while (!pool.isEmpty()) {
+            assertTrue(taken.add(pool.take(random.nextInt(pool.size()))));
+        }
+        assertEquals(500, taken.size());
+        assertFalse(pool.remove(0));
+        assertFalse(pool.remove(499));
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new FreeCellPool(-1));
+        FreeCellPool pool = new FreeCellPool(3);
+        assertThrows(IllegalArgumentException.class, () -> pool.take(-1));
+        assertThrows(IllegalArgumentException.class, () -> pool.take(3));
+        assertFalse(pool.remove(-1));
+        assertFalse(pool.remove(3));
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    void generatesFullBoards() {
+        // 5x4 has 14 edge squares, all of them get a penguin and the 6 inner squares are filled up
+        GameConfig config = GameConfig.of(5, 4, 14, 3, 3, 4, TerrainBackend.GRID);
+        for (long seed = 0; seed < 50; seed++) {
+            GameController game = new GameController(config, seed);
+            game.snapshot(); // generates the board
+            IcyTerrain terrain = game.getTerrain();
+            for (int cell = 0; cell < terrain.getCellCount(); cell++) {
+                assertEquals(1, terrain.getObjectsAt(cell).size(), "seed " + seed + " cell " + cell);
+            }
+            assertEquals(14, game.getPenguins().size());
+            for (Penguin penguin : game.getPenguins()) {
+                assertTrue(terrain.isEdge(penguin.getPosition()), "seed " + seed + " " + penguin);
+            }
+        }
+    }
+
+    @Test
+    void rejectsBoardsThatCannotBeGenerated() {
+        GameConfig config = GameConfig.of(5, 4, 14, 3, 3, 4, TerrainBackend.GRID);
+        assertThrows(IllegalArgumentException.class, () -> config.withFoodCount(4));
+        assertThrows(IllegalArgumentException.class, () -> config.withPenguinCount(15));
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.of(1, 1, 2, 0, 0, 4, TerrainBackend.GRID));
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.defaults().withBoardSize(5, 4));
+    }
+
+    private static void check(FreeCellPool pool, Set<Integer> free, int n) {
+        assertEquals(free.size(), pool.size(), "n " + n);
+        for (int value = -1; value <= n; value++) {
+            assertEquals(free.contains(value), pool.contains(value), "n " + n + " value " + value);
+        }
+    }
+}